@@ -0,0 +1,77 @@
+package org.studyeasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.studyeasy.service.ComparisonResult;
+import org.studyeasy.service.PriceComparisonService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end comparisons against the local stub: HTTP, parsing and aggregation.
+// The quote cache is disabled (TTL 0) so every invocation goes over the wire.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComparePricesBenchmark {
+    private static final List<String> ALL_SYMBOLS = List.of(
+            "BTC", "ETH", "SOL", "ADA", "DOT", "DOGE", "XRP", "LTC", "LINK", "UNI", "BNB", "MATIC", "AVAX", "SHIB");
+
+    @Param({"0", "20"})
+    public long latencyMs;
+
+    @Param({"0"})
+    public long jitterMs;
+
+    private ExchangeStubServer stub;
+    private PriceComparisonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = new ExchangeStubServer(latencyMs, jitterMs);
+        stub.start();
+        service = new PriceComparisonService(
+                PriceComparisonService.DEFAULT_MAX_CONNECTIONS_PER_HOST,
+                PriceComparisonService.DEFAULT_CONNECT_TIMEOUT_MS,
+                PriceComparisonService.DEFAULT_RESPONSE_TIMEOUT_MS,
+                0, PriceComparisonService.DEFAULT_CACHE_MAX_ENTRIES);
+        stub.attach(service);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        service.close();
+        stub.close();
+    }
+
+    @Benchmark
+    public Map<String, Double> serial() throws IOException {
+        return service.comparePrices("BTC");
+    }
+
+    @Benchmark
+    public ComparisonResult concurrent() {
+        return service.comparePrices("BTC", 5000);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Double>> batchAllSymbols() {
+        return service.comparePrices(ALL_SYMBOLS);
+    }
+}
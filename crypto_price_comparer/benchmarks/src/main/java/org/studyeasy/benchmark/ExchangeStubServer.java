@@ -0,0 +1,144 @@
+package org.studyeasy.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.studyeasy.service.PriceComparisonService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Local HTTP server that answers like Binance, CoinGecko, Kraken and Coinbase using
+// recorded responses, with a configurable latency and jitter per request. Each
+// exchange lives under its own path prefix, e.g. http://127.0.0.1:port/binance/...
+public class ExchangeStubServer implements AutoCloseable {
+    private static final int HISTORY_STEP_MS = 3600 * 1000;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long latencyMs;
+    private final long jitterMs;
+
+    private final byte[] binanceTicker = resource("binance-ticker.json");
+    private final byte[] binanceTickerAll = resource("binance-ticker-all.json");
+    private final byte[] coinGeckoSimple = resource("coingecko-simple.json");
+    private final byte[] krakenTicker = resource("kraken-ticker.json");
+    private final byte[] krakenTickerAll = resource("kraken-ticker-all.json");
+    private final byte[] coinbaseSpot = resource("coinbase-spot.json");
+    private final byte[] coinbaseRates = resource("coinbase-rates.json");
+    private final byte[] binanceExchangeInfo = resource("binance-exchange-info.json");
+    private final byte[] krakenAssetPairs = resource("kraken-asset-pairs.json");
+    private final byte[] coinbaseProducts = resource("coinbase-products.json");
+    private final byte[] coinGeckoMarkets = resource("coingecko-markets.json");
+
+    static {
+        // Without TCP_NODELAY, Nagle plus delayed ACKs add ~40ms to every keep-alive response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public ExchangeStubServer(long latencyMs, long jitterMs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        server.setExecutor(executor);
+
+        server.createContext("/binance/api/v3/ticker/price", exchange ->
+                respond(exchange, query(exchange).contains("symbol=") ? binanceTicker : binanceTickerAll));
+        server.createContext("/coingecko/api/v3/simple/price", exchange -> respond(exchange, coinGeckoSimple));
+        server.createContext("/binance/api/v3/exchangeInfo", exchange -> respond(exchange, binanceExchangeInfo));
+        server.createContext("/coingecko/api/v3/coins/markets", exchange -> respond(exchange, coinGeckoMarkets));
+        server.createContext("/coingecko/api/v3/coins/", exchange -> respond(exchange, coinGeckoHistory(exchange)));
+        server.createContext("/kraken/0/public/Ticker", exchange ->
+                respond(exchange, query(exchange).contains(",") || query(exchange).isEmpty() ? krakenTickerAll : krakenTicker));
+        server.createContext("/coinbase/v2/prices/", exchange -> respond(exchange, coinbaseSpot));
+        server.createContext("/coinbase/v2/exchange-rates", exchange -> respond(exchange, coinbaseRates));
+        server.createContext("/kraken/0/public/AssetPairs", exchange -> respond(exchange, krakenAssetPairs));
+        server.createContext("/coinbase-exchange/products", exchange -> respond(exchange, coinbaseProducts));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // Points every exchange the service knows about at this stub
+    public void attach(PriceComparisonService service) {
+        service.setEndpointOverride("https://api.binance.com", getBaseUrl() + "/binance");
+        service.setEndpointOverride("https://api.coingecko.com", getBaseUrl() + "/coingecko");
+        service.setEndpointOverride("https://api.kraken.com", getBaseUrl() + "/kraken");
+        service.setEndpointOverride("https://api.coinbase.com", getBaseUrl() + "/coinbase");
+        service.setEndpointOverride("https://api.exchange.coinbase.com", getBaseUrl() + "/coinbase-exchange");
+        service.getExchangeRegistry().setRateLimitingEnabled(false);
+    }
+
+    // market_chart/range with one synthetic hourly point between from and to
+    private byte[] coinGeckoHistory(HttpExchange exchange) {
+        String query = query(exchange);
+        long from = Long.parseLong(param(query, "from")) * 1000;
+        long to = Long.parseLong(param(query, "to")) * 1000;
+
+        StringBuilder prices = new StringBuilder();
+        double price = 60000;
+        for (long t = from; t <= to; t += HISTORY_STEP_MS) {
+            if (prices.length() > 0) prices.append(',');
+            price += Math.sin(t / 7.0e6) * 25;
+            prices.append('[').append(t).append(',').append(price).append(']');
+        }
+        String body = "{\"prices\":[" + prices + "],\"market_caps\":[" + prices + "],\"total_volumes\":[" + prices + "]}";
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void respond(HttpExchange exchange, byte[] body) throws IOException {
+        try {
+            long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+            if (delay > 0) {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String query(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        return query == null ? "" : query;
+    }
+
+    private static String param(String query, String name) {
+        for (String part : query.split("&")) {
+            if (part.startsWith(name + "=")) return part.substring(name.length() + 1);
+        }
+        throw new IllegalArgumentException("Missing query parameter " + name);
+    }
+
+    // Recorded payloads shipped with the benchmarks
+    static byte[] resource(String name) {
+        try (InputStream in = ExchangeStubServer.class.getResourceAsStream("/responses/" + name)) {
+            if (in == null) throw new IOException("Missing recorded response " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package org.studyeasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteSnapshot;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Best-venue selection over the boxed map versus the primitive snapshot
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindBestExchangeBenchmark {
+    private PriceComparisonService service;
+    private Map<String, Double> prices;
+    private QuoteSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        service = new PriceComparisonService();
+        String[] exchanges = {"Binance", "CoinGecko", "Kraken", "Coinbase"};
+        double[] quotes = {67234.56, 67210.12, 67240.10, 67228.45};
+        prices = new HashMap<>();
+        snapshot = new QuoteSnapshot("BTC", exchanges);
+        for (int i = 0; i < exchanges.length; i++) {
+            prices.put(exchanges[i], quotes[i]);
+            snapshot.set(i, quotes[i], System.currentTimeMillis());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.close();
+    }
+
+    @Benchmark
+    public String map() {
+        return service.findBestExchange(prices);
+    }
+
+    @Benchmark
+    public String snapshot() {
+        return service.findBestExchange(snapshot);
+    }
+
+    @Benchmark
+    public double snapshotSpreadBps() {
+        return snapshot.spreadBps();
+    }
+}
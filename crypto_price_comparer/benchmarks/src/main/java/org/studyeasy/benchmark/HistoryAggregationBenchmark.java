@@ -0,0 +1,83 @@
+package org.studyeasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.studyeasy.service.PriceSeries;
+import org.studyeasy.service.history.HistoryAggregator;
+import org.studyeasy.service.history.OhlcSeries;
+import org.studyeasy.service.history.Resolution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// OHLC bucketing of years of minute points, on one thread versus fork-join chunks,
+// for one series and pooled across four exchanges. No network involved.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryAggregationBenchmark {
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+
+    @Param({"1", "5"})
+    public int years;
+
+    @Param({"HOUR", "DAY"})
+    public Resolution resolution;
+
+    private PriceSeries series;
+    private List<PriceSeries> exchanges;
+    private HistoryAggregator serial;
+    private HistoryAggregator parallel;
+
+    @Setup
+    public void setUp() {
+        long end = System.currentTimeMillis();
+        long start = end - TimeUnit.DAYS.toMillis(365L * years);
+        series = minuteSeries(start, end, 0);
+        exchanges = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            exchanges.add(minuteSeries(start, end, i * 7.5));
+        }
+        serial = new HistoryAggregator(ForkJoinPool.commonPool(), Integer.MAX_VALUE);
+        parallel = new HistoryAggregator();
+    }
+
+    private static PriceSeries minuteSeries(long start, long end, double offset) {
+        PriceSeries points = new PriceSeries((int) ((end - start) / MINUTE_MS) + 1);
+        double price = 60000 + offset;
+        for (long t = start; t <= end; t += MINUTE_MS) {
+            price += Math.sin(t / 7.0e6) * 5;
+            points.add(t, price);
+        }
+        return points;
+    }
+
+    @Benchmark
+    public OhlcSeries serial() {
+        return serial.aggregate(series, resolution);
+    }
+
+    @Benchmark
+    public OhlcSeries parallel() {
+        return parallel.aggregate(series, resolution);
+    }
+
+    @Benchmark
+    public OhlcSeries acrossExchanges() {
+        return parallel.aggregate(exchanges, resolution);
+    }
+}
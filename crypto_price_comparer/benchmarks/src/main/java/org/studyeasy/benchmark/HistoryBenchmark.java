@@ -0,0 +1,63 @@
+package org.studyeasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.PriceSeries;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// History download plus aggregation against the stub's synthetic hourly series
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryBenchmark {
+    @Param({"30", "365"})
+    public int days;
+
+    private ExchangeStubServer stub;
+    private PriceComparisonService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stub = new ExchangeStubServer(0, 0);
+        stub.start();
+        service = new PriceComparisonService();
+        stub.attach(service);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        service.close();
+        stub.close();
+    }
+
+    // Raw points only: HTTP plus streaming parse into primitive arrays
+    @Benchmark
+    public PriceSeries series() throws IOException {
+        return service.getHistoricalSeries("BTC", days);
+    }
+
+    // Raw points bucketed into one price per day
+    @Benchmark
+    public Map<Date, Double> dailyPrices() throws IOException {
+        return service.getHistoricalPrices("BTC", days);
+    }
+}
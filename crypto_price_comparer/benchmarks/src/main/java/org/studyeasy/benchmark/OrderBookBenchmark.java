@@ -0,0 +1,92 @@
+package org.studyeasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.studyeasy.service.DepthComparison;
+import org.studyeasy.service.FetchStatus;
+import org.studyeasy.service.OrderBook;
+import org.studyeasy.service.OrderSide;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Fill-price evaluation over synthetic books: one venue, best venue and the
+// consolidated walk across all venues, for a ladder of order sizes per operation
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBookBenchmark {
+    private static final double[] ORDER_SIZES = {0.01, 0.1, 0.5, 1, 2, 5, 10, 25};
+
+    @Param({"20", "100", "500"})
+    public int depth;
+
+    private DepthComparison books;
+
+    @Setup
+    public void setUp() {
+        String[] exchanges = {"Binance", "CoinGecko", "Kraken", "Coinbase"};
+        OrderBook[] venues = new OrderBook[exchanges.length];
+        // Binance books are in USDT, converted at a slight premium like the live rate
+        double[] rates = {1.0004, Double.NaN, 1, 1};
+        Map<String, FetchStatus> statuses = new LinkedHashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < exchanges.length; i++) {
+            // CoinGecko has no order book
+            if (i == 1) continue;
+            OrderBook book = new OrderBook(exchanges[i], "BTC", i == 0 ? QuoteCurrency.USDT : QuoteCurrency.USD,
+                    depth, System.currentTimeMillis());
+            double mid = 67230 + random.nextGaussian() * 5;
+            for (int level = 0; level < depth; level++) {
+                book.addBid(mid - 0.5 - level * 0.75, 0.05 + random.nextDouble() * 0.5);
+                book.addAsk(mid + 0.5 + level * 0.75, 0.05 + random.nextDouble() * 0.5);
+            }
+            venues[i] = book;
+            statuses.put(exchanges[i], FetchStatus.OK);
+        }
+        books = new DepthComparison("BTC", QuoteCurrency.USD, exchanges, venues, rates, statuses, 0);
+    }
+
+    @Benchmark
+    public double singleVenue() {
+        OrderBook book = books.getBook(0);
+        double sum = 0;
+        for (double size : ORDER_SIZES) {
+            sum += book.fillPrice(OrderSide.BUY, size);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int bestVenue() {
+        int sum = 0;
+        for (double size : ORDER_SIZES) {
+            sum += books.bestSlot(OrderSide.BUY, size);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double consolidated() {
+        double sum = 0;
+        for (double size : ORDER_SIZES) {
+            sum += books.consolidatedFillPrice(OrderSide.BUY, size);
+        }
+        return sum;
+    }
+}
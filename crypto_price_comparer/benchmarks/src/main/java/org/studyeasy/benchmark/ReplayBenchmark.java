@@ -0,0 +1,115 @@
+package org.studyeasy.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.studyeasy.service.ComparisonResult;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.replay.ReplayRecorder;
+import org.studyeasy.service.replay.ReplayStats;
+import org.studyeasy.service.replay.Replayer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Offline load tests from replay logs. The tick log is synthetic (random walks for
+// every symbol on four exchanges); the comparison log is recorded from the stub, which
+// is then shut down, so comparisons run without any network.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplayBenchmark {
+    private static final List<String> SYMBOLS = List.of(
+            "BTC", "ETH", "SOL", "ADA", "DOT", "DOGE", "XRP", "LTC", "LINK", "UNI", "BNB", "MATIC", "AVAX", "SHIB");
+    private static final String[] EXCHANGES = {"Binance", "CoinGecko", "Kraken", "Coinbase"};
+
+    @Param({"1000000"})
+    public int ticks;
+
+    private Path tickLog;
+    private Path compareLog;
+    private PriceComparisonService service;
+    private Replayer replayer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        tickLog = Files.createTempFile("ticks", ".log.gz");
+        try (ReplayRecorder recorder = new ReplayRecorder(tickLog, () -> QuoteCurrency.USD)) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double[] prices = new double[SYMBOLS.size()];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = 100 + i;
+            }
+            long timestamp = System.currentTimeMillis();
+            for (int tick = 0; tick < ticks; tick++) {
+                int symbol = random.nextInt(prices.length);
+                prices[symbol] *= 1 + random.nextGaussian() * 0.0005;
+                recorder.onQuote(EXCHANGES[tick & 3], SYMBOLS.get(symbol), prices[symbol], timestamp += 5);
+            }
+        }
+
+        compareLog = Files.createTempFile("compare", ".log.gz");
+        try (ExchangeStubServer stub = new ExchangeStubServer(0, 0);
+             PriceComparisonService recording = new PriceComparisonService()) {
+            stub.start();
+            stub.attach(recording);
+            recording.startRecording(compareLog);
+            recording.comparePrices(SYMBOLS);
+            for (String symbol : SYMBOLS) {
+                recording.comparePrices(symbol, 5000);
+            }
+            recording.stopRecording();
+        }
+
+        // No quote cache, so every comparison parses the replayed responses
+        service = new PriceComparisonService(
+                PriceComparisonService.DEFAULT_MAX_CONNECTIONS_PER_HOST,
+                PriceComparisonService.DEFAULT_CONNECT_TIMEOUT_MS,
+                PriceComparisonService.DEFAULT_RESPONSE_TIMEOUT_MS,
+                0, PriceComparisonService.DEFAULT_CACHE_MAX_ENTRIES);
+        service.getExchangeRegistry().setRateLimitingEnabled(false);
+        for (String symbol : SYMBOLS) {
+            service.getAlertEngine().percentMove(symbol, 2, (alert, exchange, value, timestampMs) -> { });
+            service.getSpreadEngine().subscribe(symbol, 25, 5000, spread -> { });
+        }
+        replayer = new Replayer(service);
+        replayer.replay(compareLog, Replayer.MAX_SPEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        replayer.close();
+        service.close();
+        Files.deleteIfExists(tickLog);
+        Files.deleteIfExists(compareLog);
+    }
+
+    // One whole tick log through the spread engine, alerts and poll bookkeeping
+    @Benchmark
+    public ReplayStats replayTicks() throws IOException {
+        return replayer.replay(tickLog, Replayer.MAX_SPEED);
+    }
+
+    @Benchmark
+    public ComparisonResult compareFromReplay() {
+        return service.comparePrices("BTC", 5000);
+    }
+}
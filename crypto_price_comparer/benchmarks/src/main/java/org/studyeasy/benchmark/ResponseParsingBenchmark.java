@@ -0,0 +1,137 @@
+package org.studyeasy.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.studyeasy.service.ResponseParsers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Streaming ResponseParsers against the previous String + readTree path on the
+// same recorded payloads. Run with "-prof gc" to compare bytes allocated per parse.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private byte[] binance;
+    private byte[] binanceAll;
+    private byte[] coinGecko;
+    private byte[] kraken;
+    private byte[] coinbase;
+    private byte[] history;
+
+    @Setup
+    public void setUp() {
+        binance = ExchangeStubServer.resource("binance-ticker.json");
+        binanceAll = ExchangeStubServer.resource("binance-ticker-all.json");
+        coinGecko = ExchangeStubServer.resource("coingecko-simple.json");
+        kraken = ExchangeStubServer.resource("kraken-ticker.json");
+        coinbase = ExchangeStubServer.resource("coinbase-spot.json");
+
+        // 30 days of hourly points, the size of a "Show History" download
+        StringBuilder points = new StringBuilder();
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 720; i++) {
+            if (i > 0) points.append(',');
+            points.append('[').append(start + i * 3_600_000L).append(',').append(60000 + i * 1.25).append(']');
+        }
+        history = ("{\"prices\":[" + points + "],\"market_caps\":[" + points + "],\"total_volumes\":[" + points + "]}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    // The old path decoded the body into a String before building the tree
+    private JsonNode tree(byte[] body) throws IOException {
+        return mapper.readTree(new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public double binanceStreaming() throws IOException {
+        return ResponseParsers.binancePrice(new ByteArrayInputStream(binance));
+    }
+
+    @Benchmark
+    public double binanceTree() throws IOException {
+        return tree(binance).get("price").asDouble();
+    }
+
+    @Benchmark
+    public Object binanceAllStreaming() throws IOException {
+        return ResponseParsers.binancePrices(new ByteArrayInputStream(binanceAll), Set.of("BTCUSDT", "ETHUSDT"));
+    }
+
+    @Benchmark
+    public double binanceAllTree() throws IOException {
+        double sum = 0;
+        for (JsonNode ticker : tree(binanceAll)) {
+            String symbol = ticker.get("symbol").asText();
+            if (symbol.equals("BTCUSDT") || symbol.equals("ETHUSDT")) sum += ticker.get("price").asDouble();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Object coinGeckoStreaming() throws IOException {
+        return ResponseParsers.coinGeckoPrices(new ByteArrayInputStream(coinGecko));
+    }
+
+    @Benchmark
+    public double coinGeckoTree() throws IOException {
+        return tree(coinGecko).get("bitcoin").get("usd").asDouble();
+    }
+
+    @Benchmark
+    public Object krakenStreaming() throws IOException {
+        return ResponseParsers.krakenLastPrices(new ByteArrayInputStream(kraken));
+    }
+
+    @Benchmark
+    public double krakenTree() throws IOException {
+        JsonNode result = tree(kraken).get("result");
+        return result.get(result.fieldNames().next()).get("c").get(0).asDouble();
+    }
+
+    @Benchmark
+    public double coinbaseStreaming() throws IOException {
+        return ResponseParsers.coinbaseSpotPrice(new ByteArrayInputStream(coinbase));
+    }
+
+    @Benchmark
+    public double coinbaseTree() throws IOException {
+        return tree(coinbase).get("data").get("amount").asDouble();
+    }
+
+    @Benchmark
+    public void historyStreaming(Blackhole blackhole) throws IOException {
+        ResponseParsers.coinGeckoHistory(new ByteArrayInputStream(history), (timestamp, price) -> {
+            blackhole.consume(timestamp);
+            blackhole.consume(price);
+        });
+    }
+
+    @Benchmark
+    public void historyTree(Blackhole blackhole) throws IOException {
+        for (JsonNode point : tree(history).get("prices")) {
+            blackhole.consume(point.get(0).asLong());
+            blackhole.consume(point.get(1).asDouble());
+        }
+    }
+}
@@ -1,46 +1,83 @@
 package org.studyeasy;
 
+import org.studyeasy.chart.PriceChartWindow;
+import org.studyeasy.feed.StreamingPriceFeed;
+import org.studyeasy.service.ComparisonResult;
+import org.studyeasy.service.DepthComparison;
+import org.studyeasy.service.FetchStatus;
+import org.studyeasy.service.OrderSide;
 import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.QuoteSnapshot;
+import org.studyeasy.service.SymbolRegistry;
+import org.studyeasy.service.alert.Alert;
+import org.studyeasy.service.alert.AlertEngine;
+import org.studyeasy.service.alert.AlertType;
+import org.studyeasy.service.history.TimeSeriesStore;
+import org.studyeasy.service.poll.AdaptivePollScheduler;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.HashMap;
-import java.util.Date;
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartPanel;
-import org.jfree.chart.JFreeChart;
-import org.jfree.data.time.Day;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 public class CryptoComparerGUI extends JFrame {
+    // Overall latency budget for one comparison across all exchanges
+    private static final long FETCH_DEADLINE_MS = 5000;
+    private static final int LIVE_REFRESH_MS = 2000;
+    // Polled prices are read from the scheduler, so redrawing often costs no requests
+    private static final int POLLED_REFRESH_MS = 1000;
+    private static final int HISTORY_DAYS = 30;
+    // Book levels fetched per side when pricing an order size
+    private static final int ORDER_BOOK_DEPTH = 100;
+
     private final PriceComparisonService service;
     private JComboBox<String> cryptoSelector;
     private JButton fetchButton;
+    private JTextField orderSizeField;
     private JTextArea resultArea;
     private JLabel statusLabel;
+    private JComboBox<String> alertTypeSelector;
     private JTextField alertPriceField;
     private JButton setAlertButton;
-    private Map<String, Double> alertPrices = new HashMap<>();
-    private Timer alertCheckTimer;
     private JComboBox<String> refreshIntervalSelector;
+    private JComboBox<QuoteCurrency> currencySelector;
     private Timer autoRefreshTimer;
+    private AdaptivePollScheduler.Watch selectedWatch;
+    private long lastFullFetchAt;
+    private StreamingPriceFeed liveFeed;
+    private TimeSeriesStore historyStore;
     private JPanel headerPanel; // Add this field declaration
+    private final Map<String, PriceChartWindow> chartWindows = new HashMap<>();
+    private boolean fetchInFlight;
 
-    // List of supported cryptocurrencies
-    private final String[] cryptoOptions = {
-            "BTC (Bitcoin)", "ETH (Ethereum)", "SOL (Solana)", 
-            "ADA (Cardano)", "DOT (Polkadot)", "DOGE (Dogecoin)",
-            "XRP (Ripple)", "LTC (Litecoin)", "LINK (Chainlink)",
-            "UNI (Uniswap)", "BNB (Binance Coin)", "MATIC (Polygon)",
-            "AVAX (Avalanche)", "SHIB (Shiba Inu)"
-    };
+    // The selector offers every symbol listed on at least this many exchanges, largest
+    // first; Live mode streams only the first LIVE_SYMBOLS of them
+    private static final int MIN_EXCHANGES = 2;
+    private static final int LIVE_SYMBOLS = 25;
 
     public CryptoComparerGUI() {
         service = new PriceComparisonService();
+        // Keep price history on disk so repeat chart loads only fetch what is new
+        try {
+            historyStore = TimeSeriesStore.openDefault();
+            service.setHistoryStore(historyStore);
+        } catch (IOException e) {
+            System.err.println("Price history cache unavailable: " + e.getMessage());
+        }
+        // Exchange listings are cached between runs and refreshed in the background
+        SymbolRegistry symbols = service.getSymbolRegistry();
+        symbols.useCacheFile(SymbolRegistry.defaultCacheFile());
+        symbols.addListener(() -> SwingUtilities.invokeLater(this::reloadSymbols));
+        symbols.start();
+        // Keeps alerted symbols, and the selected one when auto-refresh is on, polled
+        service.getPollScheduler().start();
         setupUI();
     }
 
@@ -49,13 +86,27 @@ public class CryptoComparerGUI extends JFrame {
         setSize(500, 400);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                // Release pooled HTTP connections and feed sockets before the JVM exits
+                stopLiveFeed();
+                try {
+                    if (historyStore != null) historyStore.close();
+                    service.close();
+                } catch (IOException ex) {
+                    System.err.println("Error closing price service: " + ex.getMessage());
+                }
+            }
+        });
 
         // Create components
         JLabel titleLabel = new JLabel("Crypto Price Comparator", JLabel.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 20));
 
         JLabel selectLabel = new JLabel("Select Cryptocurrency:");
-        cryptoSelector = new JComboBox<>(cryptoOptions);
+        cryptoSelector = new JComboBox<>();
+        reloadSymbols();
         fetchButton = new JButton("Fetch Prices");
         resultArea = new JTextArea();
         resultArea.setEditable(false);
@@ -72,6 +123,11 @@ public class CryptoComparerGUI extends JFrame {
         JPanel selectionPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         selectionPanel.add(selectLabel);
         selectionPanel.add(cryptoSelector);
+        // Optional quantity; when set, venues are ranked by what buying it would cost
+        selectionPanel.add(new JLabel("Size:"));
+        orderSizeField = new JTextField(5);
+        orderSizeField.setToolTipText("Order size in coins; leave empty to compare spot prices");
+        selectionPanel.add(orderSizeField);
         selectionPanel.add(fetchButton);
         JButton historyButton = new JButton("Show History");
         historyButton.addActionListener(e -> {
@@ -89,7 +145,7 @@ public class CryptoComparerGUI extends JFrame {
         JPanel refreshPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
         refreshPanel.add(new JLabel("Auto-refresh: "));
 
-        String[] refreshOptions = {"Off", "30 seconds", "1 minute", "5 minutes"};
+        String[] refreshOptions = {"Off", "Live", "30 seconds", "1 minute", "5 minutes"};
         refreshIntervalSelector = new JComboBox<>(refreshOptions);
         refreshPanel.add(refreshIntervalSelector);
 
@@ -97,6 +153,22 @@ public class CryptoComparerGUI extends JFrame {
 
         selectionPanel.add(refreshPanel);
 
+        // Exchanges keep their own pairs (USDT on Binance, USD elsewhere) and are converted
+        JPanel currencyPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        currencyPanel.add(new JLabel("Quote in: "));
+        currencySelector = new JComboBox<>(QuoteCurrency.values());
+        currencySelector.setSelectedItem(service.getQuoteCurrency());
+        currencySelector.addActionListener(e -> {
+            QuoteCurrency currency = (QuoteCurrency) currencySelector.getSelectedItem();
+            service.setQuoteCurrency(currency);
+            int alertType = alertTypeSelector.getSelectedIndex();
+            alertTypeSelector.setModel(new DefaultComboBoxModel<>(alertTypes(currency)));
+            alertTypeSelector.setSelectedIndex(alertType);
+            fetchPrices();
+        });
+        currencyPanel.add(currencySelector);
+        selectionPanel.add(currencyPanel);
+
         mainPanel.add(headerPanel, BorderLayout.NORTH);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
         mainPanel.add(statusLabel, BorderLayout.SOUTH);
@@ -110,7 +182,10 @@ public class CryptoComparerGUI extends JFrame {
 
     private void setupAlertPanel() {
         JPanel alertPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        alertPanel.add(new JLabel("Set Price Alert: $"));
+        alertPanel.add(new JLabel("Set Alert:"));
+        
+        alertTypeSelector = new JComboBox<>(alertTypes(service.getQuoteCurrency()));
+        alertPanel.add(alertTypeSelector);
         
         alertPriceField = new JTextField(8);
         alertPanel.add(alertPriceField);
@@ -122,57 +197,72 @@ public class CryptoComparerGUI extends JFrame {
         // Add the alert panel below the selection panel
         headerPanel.add(alertPanel, BorderLayout.CENTER);
         
-        // Setup timer to check alerts every minute
-        alertCheckTimer = new Timer(60000, e -> checkAlerts());
-        alertCheckTimer.start();
+        // Alerts are checked by the service as quotes arrive; the poll scheduler keeps
+        // quotes coming for alerted symbols, faster as prices near a threshold
+    }
+
+    // Price thresholds are entered in the currency prices are shown in
+    private static String[] alertTypes(QuoteCurrency currency) {
+        String unit = currency.getPrefix().trim();
+        return new String[]{"Below " + unit, "Above " + unit, "Move %", "Spread bps"};
     }
 
     private void fetchPrices() {
         String selectedOption = (String) cryptoSelector.getSelectedItem();
         if (selectedOption == null) return;
+        // A fast auto-refresh must not stack up workers behind a slow fetch
+        if (fetchInFlight) return;
+        fetchInFlight = true;
+        lastFullFetchAt = System.currentTimeMillis();
         
         // Extract symbol from the option (e.g., "BTC (Bitcoin)" -> "BTC")
         String symbol = selectedOption.split(" ")[0];
+        double orderSize = parseOrderSize();
+        String prefix = service.getQuoteCurrency().getPrefix();
         
         statusLabel.setText("Fetching prices for " + symbol + "...");
-        resultArea.setText("");
         
         // Use SwingWorker to prevent UI freezing
         SwingWorker<String, Void> worker = new SwingWorker<>() {
             @Override
             protected String doInBackground() {
-                try {
-                    Map<String, Double> prices = service.comparePrices(symbol);
-                    
-                    // Sort exchanges by name
-                    Map<String, Double> sortedPrices = new TreeMap<>(prices);
-                    
-                    StringBuilder result = new StringBuilder();
-                    result.append("Prices for ").append(symbol).append(":\n\n");
-                    
-                    for (Map.Entry<String, Double> entry : sortedPrices.entrySet()) {
-                        result.append(entry.getKey())
-                              .append(": $")
-                              .append(String.format("%.2f", entry.getValue()))
+                ComparisonResult comparison = service.comparePrices(symbol, FETCH_DEADLINE_MS);
+                
+                StringBuilder result = new StringBuilder();
+                appendPrices(result, symbol, comparison.getPrices(), prefix);
+                
+                // List exchanges that timed out or failed so partial results are obvious
+                for (Map.Entry<String, FetchStatus> status : comparison.getStatuses().entrySet()) {
+                    if (status.getValue() != FetchStatus.OK) {
+                        result.append(status.getKey())
+                              .append(": ")
+                              .append(status.getValue().name().toLowerCase())
                               .append("\n");
                     }
-                    
-                    result.append("\n");
-                    
-                    // Find best price
-                    String bestExchange = service.findBestExchange(prices);
-                    result.append("Best price available at: ").append(bestExchange);
-                    
-                    return result.toString();
-                } catch (IOException e) {
-                    return "Error fetching prices: " + e.getMessage();
                 }
+                
+                result.append("\n");
+                
+                // Find best price
+                String bestExchange = service.findBestExchange(comparison.getSnapshot());
+                result.append("Best price available at: ").append(bestExchange);
+                
+                if (orderSize > 0) {
+                    appendFillPrices(result, symbol, orderSize, prefix);
+                }
+                
+                return result.toString();
             }
             
             @Override
             protected void done() {
+                fetchInFlight = false;
                 try {
-                    resultArea.setText(get());
+                    String text = get();
+                    // Skip the relayout when a refresh brought nothing new
+                    if (!text.equals(resultArea.getText())) {
+                        resultArea.setText(text);
+                    }
                     statusLabel.setText("Ready");
                 } catch (Exception e) {
                     resultArea.setText("An error occurred: " + e.getMessage());
@@ -184,54 +274,102 @@ public class CryptoComparerGUI extends JFrame {
         worker.execute();
     }
 
-    private void showPriceHistory(String symbol) {
-        JFrame chartFrame = new JFrame("Price History for " + symbol);
-        chartFrame.setSize(800, 400);
-        chartFrame.setLocationRelativeTo(this);
+    // Redraws from the prices the poll scheduler already holds; no request is made here
+    private void showPolledPrices() {
+        String selectedOption = (String) cryptoSelector.getSelectedItem();
+        if (selectedOption == null || selectedWatch == null) return;
+        String symbol = selectedOption.split(" ")[0];
+        AdaptivePollScheduler scheduler = service.getPollScheduler();
+        if (!symbol.equals(selectedWatch.getSymbol())) {
+            selectedWatch.cancel();
+            selectedWatch = scheduler.watch(symbol, selectedWatch.getMaxIntervalMs());
+        }
         
-        // Create a worker to fetch historical data
-        SwingWorker<ChartPanel, Void> worker = new SwingWorker<>() {
-            @Override
-            protected ChartPanel doInBackground() throws Exception {
-                // Get historical data (implement this in PriceComparisonService)
-                Map<Date, Double> historicalData = service.getHistoricalPrices(symbol, 30); // Last 30 days
-                
-                // Create dataset
-                TimeSeries series = new TimeSeries(symbol + " Price");
-                for (Map.Entry<Date, Double> entry : historicalData.entrySet()) {
-                    series.add(new Day(entry.getKey()), entry.getValue());
-                }
-                TimeSeriesCollection dataset = new TimeSeriesCollection(series);
-                
-                // Create chart
-                JFreeChart chart = ChartFactory.createTimeSeriesChart(
-                        symbol + " Price History",
-                        "Date",
-                        "Price (USD)",
-                        dataset,
-                        true,
-                        true,
-                        false
-                );
-                
-                return new ChartPanel(chart);
-            }
-            
-            @Override
-            protected void done() {
-                try {
-                    chartFrame.add(get());
-                    chartFrame.setVisible(true);
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(CryptoComparerGUI.this, 
-                            "Error loading chart: " + e.getMessage(),
-                            "Chart Error", 
-                            JOptionPane.ERROR_MESSAGE);
-                }
+        // Fill prices need order books, which are not polled; refetch them on the old schedule
+        if (parseOrderSize() > 0) {
+            if (System.currentTimeMillis() - lastFullFetchAt >= selectedWatch.getMaxIntervalMs()) {
+                fetchPrices();
             }
-        };
+            return;
+        }
         
-        worker.execute();
+        QuoteSnapshot snapshot = scheduler.getSnapshot(symbol);
+        if (snapshot.count() == 0 || fetchInFlight) return;
+        StringBuilder result = new StringBuilder();
+        appendPrices(result, symbol, snapshot.toMap(), service.getQuoteCurrency().getPrefix());
+        result.append("\nBest price available at: ").append(snapshot.getExchange(snapshot.bestSlot()));
+        String text = result.toString();
+        if (!text.equals(resultArea.getText())) {
+            resultArea.setText(text);
+        }
+    }
+
+    // Exchanges sorted by name
+    private static void appendPrices(StringBuilder result, String symbol, Map<String, Double> prices, String prefix) {
+        result.append("Prices for ").append(symbol).append(":\n\n");
+        for (Map.Entry<String, Double> entry : new TreeMap<>(prices).entrySet()) {
+            result.append(entry.getKey()).append(": ").append(prefix);
+            appendPrice(result, entry.getValue());
+            result.append("\n");
+        }
+    }
+
+    // Empty or invalid input means no order size
+    private double parseOrderSize() {
+        String text = orderSizeField.getText().trim();
+        if (text.isEmpty()) return 0;
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Average price for buying the whole size at each venue, walking its order book
+    private void appendFillPrices(StringBuilder result, String symbol, double orderSize, String prefix) {
+        DepthComparison depth = service.compareOrderBooks(symbol, ORDER_BOOK_DEPTH, FETCH_DEADLINE_MS);
+        result.append("\n\nFill prices to buy ").append(orderSize).append(' ').append(symbol).append(":\n\n");
+        for (int slot = 0; slot < depth.size(); slot++) {
+            if (depth.getBook(slot) == null) continue;
+            double fill = depth.fillPrice(slot, OrderSide.BUY, orderSize);
+            result.append(depth.getExchange(slot)).append(": ");
+            if (Double.isNaN(depth.getRate(slot))) {
+                // The book is there but cannot be priced in the comparison currency
+                result.append("no ").append(depth.getBook(slot).getCurrency()).append('/')
+                      .append(depth.getCurrency()).append(" FX rate");
+            } else if (Double.isNaN(fill)) {
+                result.append("not enough depth");
+            } else {
+                result.append(prefix);
+                appendPrice(result, fill);
+            }
+            result.append("\n");
+        }
+        result.append("\nBest fill available at: ")
+              .append(service.findBestExchange(depth, OrderSide.BUY, orderSize));
+    }
+
+    // Two decimals rounded half up, with a '.' whatever the default locale, and no
+    // format string parsed per line
+    private static void appendPrice(StringBuilder out, double price) {
+        if (Double.isNaN(price) || Double.isInfinite(price)) {
+            out.append(price);
+            return;
+        }
+        out.append(BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    private void showPriceHistory(String symbol) {
+        // Reuse the open chart for this symbol instead of building a new one
+        PriceChartWindow existing = chartWindows.get(symbol);
+        if (existing != null && existing.isDisplayable()) {
+            existing.toFront();
+            return;
+        }
+        PriceChartWindow chartWindow = new PriceChartWindow(service, symbol, HISTORY_DAYS);
+        chartWindow.setLocationRelativeTo(this);
+        chartWindow.setVisible(true);
+        chartWindows.put(symbol, chartWindow);
     }
 
     private void setAlert() {
@@ -240,48 +378,38 @@ public class CryptoComparerGUI extends JFrame {
             if (selectedOption == null) return;
             
             String symbol = selectedOption.split(" ")[0];
-            double alertPrice = Double.parseDouble(alertPriceField.getText().trim());
+            double threshold = Double.parseDouble(alertPriceField.getText().trim());
             
-            alertPrices.put(symbol, alertPrice);
+            AlertEngine alerts = service.getAlertEngine();
+            Alert alert = switch (alertTypeSelector.getSelectedIndex()) {
+                case 1 -> alerts.priceAbove(symbol, threshold, this::onAlert);
+                case 2 -> alerts.percentMove(symbol, threshold, this::onAlert);
+                case 3 -> alerts.spreadAbove(symbol, threshold, this::onAlert);
+                default -> alerts.priceBelow(symbol, threshold, this::onAlert);
+            };
             JOptionPane.showMessageDialog(this, 
-                    "Alert set for " + symbol + " at $" + alertPrice,
+                    "Alert set: " + alert,
                     "Alert Set", 
                     JOptionPane.INFORMATION_MESSAGE);
             
-        } catch (NumberFormatException ex) {
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException included
             JOptionPane.showMessageDialog(this, 
-                    "Please enter a valid price",
+                    "Please enter a valid " + (alertTypeSelector.getSelectedIndex() == 2 ? "percentage" : "value"),
                     "Invalid Input", 
                     JOptionPane.ERROR_MESSAGE);
         }
     }
 
-    private void checkAlerts() {
-        for (Map.Entry<String, Double> alert : alertPrices.entrySet()) {
-            try {
-                String symbol = alert.getKey();
-                double targetPrice = alert.getValue();
-                
-                Map<String, Double> prices = service.comparePrices(symbol);
-                double bestPrice = prices.values().stream()
-                        .min(Double::compare)
-                        .orElse(Double.MAX_VALUE);
-                
-                if (bestPrice <= targetPrice) {
-                    // Alert triggered
-                    JOptionPane.showMessageDialog(this, 
-                            symbol + " price alert triggered!\nCurrent price: $" + bestPrice,
-                            "Price Alert", 
-                            JOptionPane.WARNING_MESSAGE);
-                    
-                    // Remove this alert
-                    alertPrices.remove(symbol);
-                    break; // To avoid multiple dialogs at once
-                }
-            } catch (Exception e) {
-                // Silently ignore errors during background checks
-            }
-        }
+    // Runs on whichever thread delivered the quote
+    private void onAlert(Alert alert, String exchange, double value, long timestampMs) {
+        String detail = alert.getType() == AlertType.SPREAD_ABOVE
+                ? String.format("Current spread: %.1f bps", value)
+                : String.format("Current price: %s%.8f on %s", service.getQuoteCurrency().getPrefix(), value, exchange);
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, 
+                alert + " triggered!\n" + detail,
+                "Price Alert", 
+                JOptionPane.WARNING_MESSAGE));
     }
 
     private void setRefreshInterval() {
@@ -289,26 +417,83 @@ public class CryptoComparerGUI extends JFrame {
             autoRefreshTimer.stop();
             autoRefreshTimer = null;
         }
+        if (selectedWatch != null) {
+            selectedWatch.cancel();
+            selectedWatch = null;
+        }
         
         String selected = (String) refreshIntervalSelector.getSelectedItem();
+        if (!"Live".equals(selected)) {
+            stopLiveFeed();
+        }
         if (selected == null || selected.equals("Off")) {
             return;
         }
         
-        int interval;
-        switch (selected) {
-            case "30 seconds" -> interval = 30000;
-            case "1 minute" -> interval = 60000;
-            case "5 minutes" -> interval = 300000;
-            default -> interval = 0;
+        if (selected.equals("Live")) {
+            // Streamed quotes are read from memory, so a short redraw interval is cheap
+            startLiveFeed();
+            autoRefreshTimer = new Timer(LIVE_REFRESH_MS, e -> fetchPrices());
+            autoRefreshTimer.start();
+            return;
         }
         
-        if (interval > 0) {
-            autoRefreshTimer = new Timer(interval, e -> fetchPrices());
+        // The chosen interval is the longest the selected symbol may go unpolled; the
+        // scheduler polls it sooner when it moves fast or nears an alert
+        int maxInterval = switch (selected) {
+            case "30 seconds" -> 30000;
+            case "1 minute" -> 60000;
+            case "5 minutes" -> 300000;
+            default -> 0;
+        };
+        if (maxInterval > 0) {
+            String selectedOption = (String) cryptoSelector.getSelectedItem();
+            if (selectedOption == null) return;
+            selectedWatch = service.getPollScheduler().watch(selectedOption.split(" ")[0], maxInterval);
+            autoRefreshTimer = new Timer(POLLED_REFRESH_MS, e -> showPolledPrices());
             autoRefreshTimer.start();
         }
     }
 
+    // Fills the selector from the symbol registry, keeping the selected symbol if it is still listed
+    private void reloadSymbols() {
+        SymbolRegistry registry = service.getSymbolRegistry();
+        String selectedOption = (String) cryptoSelector.getSelectedItem();
+        String selected = selectedOption == null ? null : selectedOption.split(" ")[0];
+        DefaultComboBoxModel<String> options = new DefaultComboBoxModel<>();
+        for (String symbol : registry.getSymbols(MIN_EXCHANGES)) {
+            String name = registry.getName(symbol);
+            String option = name == null || name.equalsIgnoreCase(symbol) ? symbol : symbol + " (" + name + ")";
+            options.addElement(option);
+            if (symbol.equals(selected)) {
+                options.setSelectedItem(option);
+            }
+        }
+        cryptoSelector.setModel(options);
+    }
+
+    private void startLiveFeed() {
+        if (liveFeed != null) return;
+        
+        List<String> listed = service.getSymbolRegistry().getSymbols(MIN_EXCHANGES);
+        List<String> symbols = new ArrayList<>(listed.subList(0, Math.min(LIVE_SYMBOLS, listed.size())));
+        String selectedOption = (String) cryptoSelector.getSelectedItem();
+        if (selectedOption != null && !symbols.contains(selectedOption.split(" ")[0])) {
+            symbols.add(selectedOption.split(" ")[0]);
+        }
+        liveFeed = StreamingPriceFeed.withDefaultStreams();
+        liveFeed.start(symbols);
+        service.setPriceFeed(liveFeed);
+    }
+
+    private void stopLiveFeed() {
+        if (liveFeed == null) return;
+        
+        service.setPriceFeed(null);
+        liveFeed.close();
+        liveFeed = null;
+    }
+
     public static void main(String[] args) {
         // Set look and feel to system default
         try {
@@ -1,21 +1,42 @@
 package org.studyeasy;
 
+import org.studyeasy.server.QuoteServer;
 import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.SymbolRegistry;
+import org.studyeasy.service.replay.ReplayStats;
+import org.studyeasy.service.replay.Replayer;
+import org.studyeasy.service.spread.Spread;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
 public class CryptoComparisonApp {
+    private static final List<String> DEFAULT_SYMBOLS = Arrays.asList(
+            "BTC", "ETH", "SOL", "ADA", "DOT", "DOGE", "XRP", "LTC", "LINK", "UNI", "BNB", "MATIC", "AVAX", "SHIB");
+
     public static void main(String[] args) {
-        PriceComparisonService service = new PriceComparisonService();
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--replay")) {
+            runReplay(args);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         
         System.out.println("Crypto Price Comparator");
         System.out.println("Enter cryptocurrency symbol (e.g., BTC, ETH, SOL, ADA, DOT, DOGE, XRP, LTC, LINK, UNI, BNB, MATIC, AVAX, SHIB): ");
         String symbol = scanner.nextLine().trim();
         
-        try {
+        try (PriceComparisonService service = new PriceComparisonService()) {
             System.out.println("Fetching prices for " + symbol + "...");
             Map<String, Double> prices = service.comparePrices(symbol);
             
@@ -33,4 +54,97 @@ public class CryptoComparisonApp {
         
         scanner.close();
     }
-}
\ No newline at end of file
+
+    // --server [--port 8080] [--symbols BTC,ETH,...] [--refresh-ms 2000] [--threads 8] [--currency USD]
+    //          [--record session.log.gz]
+    private static void runServer(String[] args) {
+        int port = QuoteServer.DEFAULT_PORT;
+        List<String> symbols = DEFAULT_SYMBOLS;
+        long refreshMs = QuoteServer.DEFAULT_REFRESH_MS;
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        QuoteCurrency currency = QuoteCurrency.USD;
+        Path recordTo = null;
+
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port": port = Integer.parseInt(args[++i]); break;
+                    case "--record": recordTo = Paths.get(args[++i]); break;
+                    case "--symbols": symbols = Arrays.asList(args[++i].split(",")); break;
+                    case "--refresh-ms": refreshMs = Long.parseLong(args[++i]); break;
+                    case "--threads": threads = Integer.parseInt(args[++i]); break;
+                    case "--currency": currency = QuoteCurrency.valueOf(args[++i].toUpperCase()); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing arguments: " + e.getMessage());
+            System.err.println("Usage: --server [--port 8080] [--symbols BTC,ETH] [--refresh-ms 2000] [--threads 8]"
+                    + " [--currency USD|USDT|USDC|EUR] [--record session.log.gz]");
+            return;
+        }
+
+        PriceComparisonService service = new PriceComparisonService();
+        service.setQuoteCurrency(currency);
+        service.getSymbolRegistry().useCacheFile(SymbolRegistry.defaultCacheFile());
+        try {
+            if (recordTo != null) {
+                service.startRecording(recordTo);
+            }
+            QuoteServer server = new QuoteServer(service, symbols, port, refreshMs, threads);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                try {
+                    service.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing service: " + e.getMessage());
+                }
+            }));
+            server.start();
+            System.out.println("Serving " + server.getSymbols() + " on port " + server.getPort()
+                    + " in " + currency + ", refreshing every " + refreshMs + " ms");
+        } catch (IOException e) {
+            System.err.println("Error starting server: " + e.getMessage());
+            try {
+                service.close();
+            } catch (IOException closeError) {
+                System.err.println("Error closing service: " + closeError.getMessage());
+            }
+        }
+    }
+
+    // --replay session.log.gz [--speed 1|10|max] [--currency USD]
+    // Plays a recorded session through the service offline and prints the final spreads
+    private static void runReplay(String[] args) {
+        Path log;
+        double speed = Replayer.MAX_SPEED;
+        QuoteCurrency currency = QuoteCurrency.USD;
+        try {
+            log = Paths.get(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--speed": speed = args[++i].equals("max") ? Replayer.MAX_SPEED : Double.parseDouble(args[i]); break;
+                    case "--currency": currency = QuoteCurrency.valueOf(args[++i].toUpperCase()); break;
+                    default: throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing arguments: " + e.getMessage());
+            System.err.println("Usage: --replay session.log.gz [--speed 1|10|max] [--currency USD|USDT|USDC|EUR]");
+            return;
+        }
+
+        try (PriceComparisonService service = new PriceComparisonService()) {
+            // Offline for the rest of the service's life, background refreshes included
+            Replayer replayer = new Replayer(service);
+            service.setQuoteCurrency(currency);
+            ReplayStats stats = replayer.replay(log, speed);
+            System.out.println("Replayed " + stats);
+            for (Spread spread : service.getSpreadEngine().getSpreads()) {
+                System.out.println(spread);
+            }
+        } catch (IOException e) {
+            System.err.println("Error replaying " + log + ": " + e.getMessage());
+        }
+    }
+}
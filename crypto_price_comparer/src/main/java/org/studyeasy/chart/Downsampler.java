@@ -0,0 +1,62 @@
+package org.studyeasy.chart;
+
+import org.studyeasy.service.PriceSeries;
+
+// Largest-Triangle-Three-Buckets downsampling: keeps the first and last point and,
+// from each bucket in between, the point forming the largest triangle with the
+// previously kept point and the next bucket's average. Peaks and troughs survive,
+// so a multi-year series drawn from a few thousand points looks like the original.
+public final class Downsampler {
+    private Downsampler() {
+    }
+
+    // Returns the series itself when it already has at most maxPoints points
+    public static PriceSeries lttb(PriceSeries series, int maxPoints) {
+        int size = series.size();
+        if (maxPoints < 3 || size <= maxPoints) {
+            return series;
+        }
+
+        // Measure time from the first point so the areas stay well within double precision
+        long origin = series.getTimestamp(0);
+        PriceSeries sampled = new PriceSeries(maxPoints);
+        sampled.add(series.getTimestamp(0), series.getPrice(0));
+
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double averageX = 0;
+            double averageY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                averageX += series.getTimestamp(i) - origin;
+                averageY += series.getPrice(i);
+            }
+            int nextCount = nextEnd - nextStart;
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double previousX = series.getTimestamp(previous) - origin;
+            double previousY = series.getPrice(previous);
+            double largestArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((previousX - averageX) * (series.getPrice(i) - previousY)
+                        - (previousX - (series.getTimestamp(i) - origin)) * (averageY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            sampled.add(series.getTimestamp(chosen), series.getPrice(chosen));
+            previous = chosen;
+        }
+
+        sampled.add(series.getTimestamp(size - 1), series.getPrice(size - 1));
+        return sampled;
+    }
+}
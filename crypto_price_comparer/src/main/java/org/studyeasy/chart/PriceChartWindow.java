@@ -0,0 +1,179 @@
+package org.studyeasy.chart;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.data.xy.XYSeries;
+import org.jfree.data.xy.XYSeriesCollection;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.PriceSeries;
+import org.studyeasy.service.QuoteListener;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Price history chart that stays open and keeps updating. History is loaded and
+// downsampled off the EDT, then swapped into the series with change events
+// suspended. Live quotes from the service are buffered as they arrive and drawn
+// in one batch per frame, so a fast feed costs at most one redraw per frame.
+public class PriceChartWindow extends JFrame implements QuoteListener {
+    // Redraw at most this often, however fast quotes arrive
+    private static final int FRAME_BUDGET_MS = 100;
+    // A few points per horizontal pixel is all a line chart can show
+    private static final int MAX_HISTORY_POINTS = 2000;
+    private static final int MAX_LIVE_POINTS = 5000;
+
+    private static final String[] RANGE_OPTIONS = {"1 day", "7 days", "30 days", "1 year", "5 years"};
+    private static final int[] RANGE_DAYS = {1, 7, 30, 365, 1825};
+
+    private final PriceComparisonService service;
+    private final String symbol;
+    private final JFreeChart chart;
+    private final XYSeriesCollection dataset = new XYSeriesCollection();
+    private final XYSeries history;
+    private final Map<String, XYSeries> liveSeries = new HashMap<>();
+    private final JLabel statusLabel = new JLabel(" ");
+    private final Timer frameTimer;
+
+    // Quotes received since the last frame, by exchange; guarded by itself
+    private Map<String, PriceSeries> pending = new LinkedHashMap<>();
+    private SwingWorker<PriceSeries, Void> loader;
+
+    public PriceChartWindow(PriceComparisonService service, String symbol, int days) {
+        super("Price History for " + symbol);
+        this.service = service;
+        this.symbol = symbol.toUpperCase();
+
+        // Plain x/y series keyed by epoch millis: no RegularTimePeriod per point, and
+        // duplicates are allowed so appends skip the linear duplicate check
+        history = new XYSeries(this.symbol + " History", false, true);
+        dataset.addSeries(history);
+        chart = ChartFactory.createTimeSeriesChart(
+                this.symbol + " Price History",
+                "Date",
+                "Price (" + service.getQuoteCurrency() + ")",
+                dataset,
+                true,
+                true,
+                false
+        );
+
+        JComboBox<String> rangeSelector = new JComboBox<>(RANGE_OPTIONS);
+        rangeSelector.setSelectedIndex(indexOfDays(days));
+        rangeSelector.addActionListener(e -> loadHistory(RANGE_DAYS[rangeSelector.getSelectedIndex()]));
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controls.add(new JLabel("Range:"));
+        controls.add(rangeSelector);
+        controls.add(statusLabel);
+
+        setLayout(new BorderLayout());
+        add(controls, BorderLayout.NORTH);
+        add(new ChartPanel(chart), BorderLayout.CENTER);
+        setSize(800, 400);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        frameTimer = new Timer(FRAME_BUDGET_MS, e -> drainPending());
+        frameTimer.start();
+        service.addQuoteListener(this);
+        loadHistory(days);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void loadHistory(int days) {
+        if (loader != null) {
+            loader.cancel(true);
+        }
+        statusLabel.setText("Loading " + days + " day(s)...");
+        loader = new SwingWorker<>() {
+            @Override
+            protected PriceSeries doInBackground() throws Exception {
+                // Fetching and downsampling both stay off the EDT
+                return Downsampler.lttb(service.getHistoricalSeries(symbol, days), MAX_HISTORY_POINTS);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    replaceHistory(get());
+                    statusLabel.setText(" ");
+                } catch (Exception e) {
+                    statusLabel.setText("Error loading history: " + e.getMessage());
+                }
+            }
+        };
+        loader.execute();
+    }
+
+    // Runs on the EDT; one change event for the whole series
+    private void replaceHistory(PriceSeries points) {
+        history.setNotify(false);
+        history.clear();
+        for (int i = 0; i < points.size(); i++) {
+            history.add(points.getTimestamp(i), points.getPrice(i), false);
+        }
+        history.setNotify(true);
+    }
+
+    // Called from fetch and feed threads; only buffers the point
+    @Override
+    public void onQuote(String exchange, String symbol, double price, long timestampMs) {
+        if (!this.symbol.equals(symbol)) return;
+        synchronized (this) {
+            pending.computeIfAbsent(exchange, e -> new PriceSeries(16)).add(timestampMs, price);
+        }
+    }
+
+    // Runs on the EDT once per frame: appends everything buffered, then redraws once
+    private void drainPending() {
+        Map<String, PriceSeries> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        chart.setNotify(false);
+        for (Map.Entry<String, PriceSeries> entry : batch.entrySet()) {
+            XYSeries series = liveSeries.computeIfAbsent(entry.getKey(), this::createLiveSeries);
+            PriceSeries points = entry.getValue();
+            series.setNotify(false);
+            for (int i = 0; i < points.size(); i++) {
+                series.add(points.getTimestamp(i), points.getPrice(i), false);
+            }
+            series.setNotify(true);
+        }
+        chart.setNotify(true);
+    }
+
+    private XYSeries createLiveSeries(String exchange) {
+        XYSeries series = new XYSeries(exchange + " Live", false, true);
+        series.setMaximumItemCount(MAX_LIVE_POINTS);
+        dataset.addSeries(series);
+        return series;
+    }
+
+    private static int indexOfDays(int days) {
+        for (int i = 0; i < RANGE_DAYS.length; i++) {
+            if (RANGE_DAYS[i] >= days) return i;
+        }
+        return RANGE_DAYS.length - 1;
+    }
+
+    @Override
+    public void dispose() {
+        service.removeQuoteListener(this);
+        frameTimer.stop();
+        if (loader != null) {
+            loader.cancel(true);
+        }
+        super.dispose();
+    }
+}
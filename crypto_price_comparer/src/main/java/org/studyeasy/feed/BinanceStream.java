@@ -0,0 +1,59 @@
+package org.studyeasy.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Binance 24h mini-ticker stream, one "<pair>@miniTicker" subscription per symbol
+public class BinanceStream extends ExchangeStream {
+    public static final URI DEFAULT_ENDPOINT = URI.create("wss://stream.binance.com:9443/ws");
+
+    private final Map<String, String> pairToSymbol = new ConcurrentHashMap<>();
+
+    public BinanceStream() {
+        this(DEFAULT_ENDPOINT);
+    }
+
+    public BinanceStream(URI endpoint) {
+        super("Binance", endpoint);
+    }
+
+    @Override
+    public QuoteCurrency getQuoteCurrency() {
+        return QuoteCurrency.USDT;
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<String> symbols) {
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("method", "SUBSCRIBE");
+        ArrayNode params = request.putArray("params");
+        for (String symbol : symbols) {
+            String pair = symbol.toUpperCase() + getQuoteCurrency().name();
+            pairToSymbol.put(pair, symbol.toUpperCase());
+            params.add(pair.toLowerCase() + "@miniTicker");
+        }
+        request.put("id", 1);
+        return List.of(request.toString());
+    }
+
+    @Override
+    public void onMessage(String message, QuoteSink sink) throws IOException {
+        JsonNode root = MAPPER.readTree(message);
+        // Subscription acks look like {"result":null,"id":1} and carry no price
+        if (!"24hrMiniTicker".equals(root.path("e").asText())) return;
+
+        String symbol = pairToSymbol.get(root.path("s").asText());
+        if (symbol != null) {
+            sink.accept(symbol, root.path("c").asDouble());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.studyeasy.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Coinbase Exchange public feed, "ticker" channel
+public class CoinbaseStream extends ExchangeStream {
+    public static final URI DEFAULT_ENDPOINT = URI.create("wss://ws-feed.exchange.coinbase.com");
+
+    private final Map<String, String> productToSymbol = new ConcurrentHashMap<>();
+
+    public CoinbaseStream() {
+        this(DEFAULT_ENDPOINT);
+    }
+
+    public CoinbaseStream(URI endpoint) {
+        super("Coinbase", endpoint);
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<String> symbols) {
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("type", "subscribe");
+        ArrayNode products = request.putArray("product_ids");
+        for (String symbol : symbols) {
+            String product = symbol.toUpperCase() + "-USD";
+            productToSymbol.put(product, symbol.toUpperCase());
+            products.add(product);
+        }
+        request.putArray("channels").add("ticker");
+        return List.of(request.toString());
+    }
+
+    @Override
+    public void onMessage(String message, QuoteSink sink) throws IOException {
+        JsonNode root = MAPPER.readTree(message);
+        if (!"ticker".equals(root.path("type").asText())) return;
+
+        String symbol = productToSymbol.get(root.path("product_id").asText());
+        if (symbol != null) {
+            sink.accept(symbol, root.path("price").asDouble());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.studyeasy.feed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+
+// Describes one exchange's WebSocket ticker API: where to connect, how to
+// subscribe and how to pull prices out of the messages it pushes
+public abstract class ExchangeStream {
+    protected static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @FunctionalInterface
+    public interface QuoteSink {
+        void accept(String symbol, double price);
+    }
+
+    private final String exchange;
+    private final URI endpoint;
+
+    protected ExchangeStream(String exchange, URI endpoint) {
+        this.exchange = exchange;
+        this.endpoint = endpoint;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public URI getEndpoint() {
+        return endpoint;
+    }
+
+    // Currency of the pairs this stream subscribes to
+    public QuoteCurrency getQuoteCurrency() {
+        return QuoteCurrency.USD;
+    }
+
+    // Messages sent right after the socket opens (and again after every reconnect)
+    public abstract List<String> subscribeMessages(Collection<String> symbols);
+
+    // Parses one complete text message, reporting any prices found to the sink
+    public abstract void onMessage(String message, QuoteSink sink) throws IOException;
+}
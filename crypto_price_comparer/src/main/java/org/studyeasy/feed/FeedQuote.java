@@ -0,0 +1,24 @@
+package org.studyeasy.feed;
+
+// Latest price pushed by an exchange stream and the local time it was received
+public class FeedQuote {
+    private final double price;
+    private final long receivedAt;
+
+    public FeedQuote(double price, long receivedAt) {
+        this.price = price;
+        this.receivedAt = receivedAt;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    public long getAgeMs(long now) {
+        return now - receivedAt;
+    }
+}
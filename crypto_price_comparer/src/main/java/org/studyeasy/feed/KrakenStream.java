@@ -0,0 +1,56 @@
+package org.studyeasy.feed;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Kraken v2 ticker channel; unlike the REST API it uses plain BTC/DOGE names
+public class KrakenStream extends ExchangeStream {
+    public static final URI DEFAULT_ENDPOINT = URI.create("wss://ws.kraken.com/v2");
+
+    private final Map<String, String> pairToSymbol = new ConcurrentHashMap<>();
+
+    public KrakenStream() {
+        this(DEFAULT_ENDPOINT);
+    }
+
+    public KrakenStream(URI endpoint) {
+        super("Kraken", endpoint);
+    }
+
+    @Override
+    public List<String> subscribeMessages(Collection<String> symbols) {
+        ObjectNode request = MAPPER.createObjectNode();
+        request.put("method", "subscribe");
+        ObjectNode params = request.putObject("params");
+        params.put("channel", "ticker");
+        ArrayNode pairs = params.putArray("symbol");
+        for (String symbol : symbols) {
+            String pair = symbol.toUpperCase() + "/USD";
+            pairToSymbol.put(pair, symbol.toUpperCase());
+            pairs.add(pair);
+        }
+        return List.of(request.toString());
+    }
+
+    @Override
+    public void onMessage(String message, QuoteSink sink) throws IOException {
+        JsonNode root = MAPPER.readTree(message);
+        // Heartbeats, status and subscription acks arrive on other channels
+        if (!"ticker".equals(root.path("channel").asText())) return;
+
+        for (JsonNode ticker : root.path("data")) {
+            String symbol = pairToSymbol.get(ticker.path("symbol").asText());
+            if (symbol != null && ticker.has("last")) {
+                sink.accept(symbol, ticker.get("last").asDouble());
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package org.studyeasy.feed;
+
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.QuoteListener;
+
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Keeps one persistent WebSocket ticker subscription per exchange and holds the
+// latest price per (exchange, symbol) in memory. Readers never block on I/O;
+// dropped connections are re-established with exponential backoff.
+public class StreamingPriceFeed implements AutoCloseable {
+    public static final long DEFAULT_MAX_QUOTE_AGE_MS = 10000;
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60000;
+
+    private final Map<String, Connection> connections = new LinkedHashMap<>();
+    private final Map<String, Map<String, FeedQuote>> quotes = new ConcurrentHashMap<>();
+    private final List<QuoteListener> listeners = new CopyOnWriteArrayList<>();
+    private final long maxQuoteAgeMs;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-feed-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean closed;
+
+    public StreamingPriceFeed(Collection<ExchangeStream> streams, long maxQuoteAgeMs) {
+        this.maxQuoteAgeMs = maxQuoteAgeMs;
+        for (ExchangeStream stream : streams) {
+            connections.put(stream.getExchange(), new Connection(stream));
+            quotes.put(stream.getExchange(), new ConcurrentHashMap<>());
+        }
+    }
+
+    // Binance, Kraken and Coinbase public ticker streams
+    public static StreamingPriceFeed withDefaultStreams() {
+        return new StreamingPriceFeed(
+                List.of(new BinanceStream(), new KrakenStream(), new CoinbaseStream()),
+                DEFAULT_MAX_QUOTE_AGE_MS);
+    }
+
+    public void start(Collection<String> symbols) {
+        List<String> upper = new ArrayList<>();
+        for (String symbol : symbols) {
+            upper.add(symbol.toUpperCase());
+        }
+        for (Connection connection : connections.values()) {
+            connection.start(upper);
+        }
+    }
+
+    public void addListener(QuoteListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(QuoteListener listener) {
+        listeners.remove(listener);
+    }
+
+    public Set<String> getExchanges() {
+        return connections.keySet();
+    }
+
+    // Currency the exchange's streamed prices are quoted in, or null for unknown exchanges
+    public QuoteCurrency getQuoteCurrency(String exchange) {
+        Connection connection = connections.get(exchange);
+        return connection == null ? null : connection.stream.getQuoteCurrency();
+    }
+
+    public boolean isConnected(String exchange) {
+        Connection connection = connections.get(exchange);
+        return connection != null && connection.socket != null;
+    }
+
+    // Latest quote regardless of age, or null if none has arrived yet
+    public FeedQuote getQuote(String exchange, String symbol) {
+        Map<String, FeedQuote> exchangeQuotes = quotes.get(exchange);
+        return exchangeQuotes == null ? null : exchangeQuotes.get(symbol.toUpperCase());
+    }
+
+    // Latest quote, or null when missing or older than the staleness limit
+    public FeedQuote getFreshQuote(String exchange, String symbol) {
+        FeedQuote quote = getQuote(exchange, symbol);
+        if (quote == null || quote.getAgeMs(System.currentTimeMillis()) > maxQuoteAgeMs) {
+            return null;
+        }
+        return quote;
+    }
+
+    // Latest price, or null when missing or older than the staleness limit
+    public Double getPrice(String exchange, String symbol) {
+        FeedQuote quote = getFreshQuote(exchange, symbol);
+        return quote == null ? null : quote.getPrice();
+    }
+
+    // Fresh prices for one symbol across every streamed exchange
+    public Map<String, Double> snapshot(String symbol) {
+        Map<String, Double> prices = new HashMap<>();
+        for (String exchange : connections.keySet()) {
+            Double price = getPrice(exchange, symbol);
+            if (price != null) {
+                prices.put(exchange, price);
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        for (Connection connection : connections.values()) {
+            connection.close();
+        }
+    }
+
+    private void record(String exchange, String symbol, double price) {
+        long now = System.currentTimeMillis();
+        quotes.get(exchange).put(symbol, new FeedQuote(price, now));
+        for (QuoteListener listener : listeners) {
+            listener.onQuote(exchange, symbol, price, now);
+        }
+    }
+
+    private class Connection implements WebSocket.Listener {
+        private final ExchangeStream stream;
+        private final StringBuilder buffer = new StringBuilder();
+        private volatile List<String> symbols = List.of();
+        private volatile WebSocket socket;
+        private int attempt;
+
+        Connection(ExchangeStream stream) {
+            this.stream = stream;
+        }
+
+        void start(List<String> symbols) {
+            this.symbols = symbols;
+            WebSocket current = socket;
+            if (current != null) {
+                // Re-subscribing on a live socket is enough when the symbol set changes
+                subscribe(current);
+            } else {
+                connect();
+            }
+        }
+
+        private void connect() {
+            if (closed) return;
+            httpClient.newWebSocketBuilder()
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .buildAsync(stream.getEndpoint(), this)
+                    .whenComplete((webSocket, error) -> {
+                        if (error != null) {
+                            System.err.println("Error connecting to " + stream.getExchange() + " feed: " + error.getMessage());
+                            scheduleReconnect();
+                        }
+                    });
+        }
+
+        private void subscribe(WebSocket webSocket) {
+            // Sends must not overlap, so chain each message on the previous one
+            CompletableFuture<WebSocket> chain = CompletableFuture.completedFuture(webSocket);
+            for (String message : stream.subscribeMessages(symbols)) {
+                chain = chain.thenCompose(ws -> ws.sendText(message, true));
+            }
+        }
+
+        private void scheduleReconnect() {
+            socket = null;
+            if (closed) return;
+            long backoff = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(attempt, 16));
+            long jitter = ThreadLocalRandom.current().nextLong(backoff / 4 + 1);
+            attempt++;
+            scheduler.schedule(this::connect, backoff + jitter, TimeUnit.MILLISECONDS);
+        }
+
+        void close() {
+            WebSocket current = socket;
+            socket = null;
+            if (current != null) {
+                current.sendClose(WebSocket.NORMAL_CLOSURE, "").exceptionally(e -> null);
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            socket = webSocket;
+            attempt = 0;
+            subscribe(webSocket);
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                String message = buffer.toString();
+                buffer.setLength(0);
+                try {
+                    stream.onMessage(message, (symbol, price) -> record(stream.getExchange(), symbol, price));
+                } catch (Exception e) {
+                    System.err.println("Error parsing " + stream.getExchange() + " feed message: " + e.getMessage());
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            buffer.setLength(0);
+            scheduleReconnect();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            System.err.println("Error on " + stream.getExchange() + " feed: " + error.getMessage());
+            buffer.setLength(0);
+            scheduleReconnect();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.studyeasy.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Fetch-path measurements for one exchange. Latency and parse time are kept in
+// microseconds, quote age in milliseconds.
+public class ExchangeMetrics implements ExchangeMetricsMXBean {
+    private static final double MICROS_PER_MS = 1000.0;
+
+    private final String exchange;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram quoteAge = new LatencyHistogram();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder circuitOpen = new LongAdder();
+
+    public ExchangeMetrics(String exchange) {
+        this.exchange = exchange;
+    }
+
+    // One HTTP request, from sending it to the end of parsing
+    public void recordRequest(long nanos) {
+        latency.record(nanos / 1000);
+    }
+
+    public void recordParse(long nanos, long bytes) {
+        parseTime.record(nanos / 1000);
+        bytesReceived.add(bytes);
+    }
+
+    public void recordQuoteAge(long ageMs) {
+        quoteAge.record(ageMs);
+    }
+
+    // Outcome of one adapter call, which may span several requests
+    public void recordOutcome(boolean success) {
+        if (success) {
+            ok.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    public void recordCircuitOpen() {
+        circuitOpen.increment();
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    public LatencyHistogram getParseHistogram() {
+        return parseTime;
+    }
+
+    public LatencyHistogram getQuoteAgeHistogram() {
+        return quoteAge;
+    }
+
+    @Override
+    public String getExchange() {
+        return exchange;
+    }
+
+    @Override
+    public long getRequests() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getOk() {
+        return ok.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getCircuitOpen() {
+        return circuitOpen.sum();
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    @Override
+    public double getLatencyMeanMs() {
+        return latency.getMean() / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getLatencyP50Ms() {
+        return latency.getValueAtPercentile(50) / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getLatencyP90Ms() {
+        return latency.getValueAtPercentile(90) / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getLatencyP99Ms() {
+        return latency.getValueAtPercentile(99) / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getLatencyMaxMs() {
+        return latency.getMax() / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getParseP50Ms() {
+        return parseTime.getValueAtPercentile(50) / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getParseP99Ms() {
+        return parseTime.getValueAtPercentile(99) / MICROS_PER_MS;
+    }
+
+    @Override
+    public double getQuoteAgeP50Ms() {
+        return quoteAge.getValueAtPercentile(50);
+    }
+
+    @Override
+    public double getQuoteAgeP99Ms() {
+        return quoteAge.getValueAtPercentile(99);
+    }
+
+    @Override
+    public double getQuoteAgeMaxMs() {
+        return quoteAge.getMax();
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        parseTime.reset();
+        quoteAge.reset();
+        bytesReceived.reset();
+        ok.reset();
+        errors.reset();
+        timeouts.reset();
+        circuitOpen.reset();
+    }
+}
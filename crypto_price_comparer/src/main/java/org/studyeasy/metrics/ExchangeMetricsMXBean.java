@@ -0,0 +1,40 @@
+package org.studyeasy.metrics;
+
+// JMX view of one exchange, registered as org.studyeasy:type=ExchangeMetrics,name=<exchange>
+public interface ExchangeMetricsMXBean {
+    String getExchange();
+
+    long getRequests();
+
+    long getOk();
+
+    long getErrors();
+
+    long getTimeouts();
+
+    long getCircuitOpen();
+
+    long getBytesReceived();
+
+    double getLatencyMeanMs();
+
+    double getLatencyP50Ms();
+
+    double getLatencyP90Ms();
+
+    double getLatencyP99Ms();
+
+    double getLatencyMaxMs();
+
+    double getParseP50Ms();
+
+    double getParseP99Ms();
+
+    double getQuoteAgeP50Ms();
+
+    double getQuoteAgeP99Ms();
+
+    double getQuoteAgeMaxMs();
+
+    void reset();
+}
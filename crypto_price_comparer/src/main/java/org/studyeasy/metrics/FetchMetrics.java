@@ -0,0 +1,148 @@
+package org.studyeasy.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Instrumentation for the price fetch pipeline: per-exchange request latency, parse
+// time, bytes, outcomes and quote age, plus how often the best exchange was picked
+// from partial data. Off by default; while disabled, callers check isEnabled() and
+// skip all timing, so the cost is one volatile read per request.
+public class FetchMetrics implements FetchMetricsMXBean, AutoCloseable {
+    private static final String DOMAIN = "org.studyeasy";
+
+    private final Map<String, ExchangeMetrics> exchanges = new LinkedHashMap<>();
+    private final LongAdder decisions = new LongAdder();
+    private final LongAdder partialDecisions = new LongAdder();
+    private volatile boolean enabled;
+
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private ScheduledExecutorService exportScheduler;
+
+    public FetchMetrics(Collection<String> exchangeNames) {
+        for (String name : exchangeNames) {
+            exchanges.put(name, new ExchangeMetrics(name));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // Null for exchanges this instance was not created with
+    public ExchangeMetrics forExchange(String exchange) {
+        return exchanges.get(exchange);
+    }
+
+    public Collection<ExchangeMetrics> getExchangeMetrics() {
+        return Collections.unmodifiableCollection(exchanges.values());
+    }
+
+    public void recordBestExchangeDecision(int quotes, int exchangesQueried) {
+        if (!enabled) return;
+        decisions.increment();
+        if (quotes < exchangesQueried) partialDecisions.increment();
+    }
+
+    @Override
+    public long getBestExchangeDecisions() {
+        return decisions.sum();
+    }
+
+    @Override
+    public long getPartialDecisions() {
+        return partialDecisions.sum();
+    }
+
+    @Override
+    public double getPartialDecisionRatio() {
+        long total = decisions.sum();
+        return total == 0 ? 0 : partialDecisions.sum() / (double) total;
+    }
+
+    @Override
+    public void reset() {
+        decisions.reset();
+        partialDecisions.reset();
+        for (ExchangeMetrics exchange : exchanges.values()) {
+            exchange.reset();
+        }
+    }
+
+    // Publishes this instance and one bean per exchange on the platform MBean server
+    public synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            register(server, new ObjectName(DOMAIN + ":type=FetchMetrics"), this);
+            for (ExchangeMetrics exchange : exchanges.values()) {
+                register(server, new ObjectName(DOMAIN + ":type=ExchangeMetrics,name="
+                        + ObjectName.quote(exchange.getExchange())), exchange);
+            }
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBeans: " + e.getMessage());
+        }
+    }
+
+    private void register(MBeanServer server, ObjectName name, Object bean) throws JMException {
+        // A newer service instance takes the names over from an older one
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(bean, name);
+        registeredNames.add(name);
+    }
+
+    // Runs the exporter every intervalMs on a daemon thread until close()
+    public synchronized void addExporter(MetricsExporter exporter, long intervalMs) {
+        if (exportScheduler == null) {
+            exportScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-export");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        exportScheduler.scheduleAtFixedRate(() -> {
+            try {
+                exporter.export(this);
+            } catch (Exception e) {
+                System.err.println("Error exporting metrics: " + e.getMessage());
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (exportScheduler != null) {
+            exportScheduler.shutdownNow();
+            exportScheduler = null;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registeredNames) {
+            try {
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                System.err.println("Error unregistering metrics MBean: " + e.getMessage());
+            }
+        }
+        registeredNames.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package org.studyeasy.metrics;
+
+// JMX view of the whole pipeline, registered as org.studyeasy:type=FetchMetrics
+public interface FetchMetricsMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getBestExchangeDecisions();
+
+    long getPartialDecisions();
+
+    double getPartialDecisionRatio();
+
+    void reset();
+}
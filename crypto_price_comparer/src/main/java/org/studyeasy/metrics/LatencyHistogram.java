@@ -0,0 +1,80 @@
+package org.studyeasy.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear histogram in the style of HdrHistogram. Values below 128
+// are counted exactly; above that every power of two is split into 64 buckets,
+// so any recorded value is reported within about 1.6%. Values are in whatever
+// unit the caller picks (micros for latencies, millis for quote ages).
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // 2^37 micros is about 38 hours; anything larger lands in the last bucket
+    static final long MAX_VALUE = (1L << 37) - 1;
+    private static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(Math.min(value, MAX_VALUE)));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : sum.get() / (double) n;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), capped at the max
+    public long getValueAtPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // Exact below 2 * SUB_BUCKETS; above, the top 7 bits of the value pick the bucket
+    static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return SUB_BUCKETS * shift + (int) (value >>> shift);
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = bucket - (long) SUB_BUCKETS * shift;
+        return ((top + 1) << shift) - 1;
+    }
+}
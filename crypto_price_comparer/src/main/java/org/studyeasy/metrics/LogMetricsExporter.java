@@ -0,0 +1,26 @@
+package org.studyeasy.metrics;
+
+import java.io.PrintStream;
+
+// Writes one summary line per exchange, e.g. for -Dcrypto.metrics=true runs
+public class LogMetricsExporter implements MetricsExporter {
+    private final PrintStream out;
+
+    public LogMetricsExporter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void export(FetchMetrics metrics) {
+        for (ExchangeMetrics exchange : metrics.getExchangeMetrics()) {
+            out.printf("[metrics] %s requests=%d ok=%d errors=%d timeouts=%d open=%d bytes=%d "
+                            + "latency p50=%.1fms p99=%.1fms max=%.1fms parse p99=%.2fms age p99=%.0fms%n",
+                    exchange.getExchange(), exchange.getRequests(), exchange.getOk(), exchange.getErrors(),
+                    exchange.getTimeouts(), exchange.getCircuitOpen(), exchange.getBytesReceived(),
+                    exchange.getLatencyP50Ms(), exchange.getLatencyP99Ms(), exchange.getLatencyMaxMs(),
+                    exchange.getParseP99Ms(), exchange.getQuoteAgeP99Ms());
+        }
+        out.printf("[metrics] best-exchange decisions=%d partial=%d%n",
+                metrics.getBestExchangeDecisions(), metrics.getPartialDecisions());
+    }
+}
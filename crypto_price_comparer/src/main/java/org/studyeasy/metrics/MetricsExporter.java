@@ -0,0 +1,10 @@
+package org.studyeasy.metrics;
+
+import java.io.IOException;
+
+// Pushes the current metrics somewhere else (a log, a metrics backend, ...).
+// Called periodically from the metrics thread, so implementations should not block long.
+@FunctionalInterface
+public interface MetricsExporter {
+    void export(FetchMetrics metrics) throws IOException;
+}
@@ -0,0 +1,258 @@
+package org.studyeasy.server;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless comparison daemon. One poller keeps quotes for a fixed symbol set
+// refreshed in memory and clients read them over HTTP:
+//
+//   GET /quotes/{symbol}  every exchange's price and quote time
+//   GET /best/{symbol}    the cheapest exchange
+//   GET /spread           best/worst venue and spread for every symbol
+//
+// Response bodies are rendered once per refresh, so serving a request is a map
+// lookup and a write no matter how many clients share the server.
+public class QuoteServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 8080;
+    public static final long DEFAULT_REFRESH_MS = 2000;
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final byte[] NOT_READY = errorBody("Quotes are not loaded yet");
+
+    // Pre-rendered responses from one refresh; swapped in whole
+    private static class View {
+        final Map<String, byte[]> quotes;
+        final Map<String, byte[]> best;
+        final byte[] spread;
+
+        View(Map<String, byte[]> quotes, Map<String, byte[]> best, byte[] spread) {
+            this.quotes = quotes;
+            this.best = best;
+            this.spread = spread;
+        }
+    }
+
+    private final PriceComparisonService service;
+    private final Set<String> symbols = new LinkedHashSet<>();
+    private final long refreshMs;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ScheduledExecutorService poller;
+    private volatile View view;
+
+    public QuoteServer(PriceComparisonService service, Collection<String> symbols, int port, long refreshMs,
+                       int requestThreads) throws IOException {
+        this.service = service;
+        for (String symbol : symbols) {
+            this.symbols.add(symbol.trim().toUpperCase());
+        }
+        this.refreshMs = refreshMs;
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        requestExecutor = Executors.newFixedThreadPool(requestThreads, daemonThreads("quote-http-"));
+        server.setExecutor(requestExecutor);
+        server.createContext("/quotes/", exchange -> serveSymbol(exchange, "/quotes/", true));
+        server.createContext("/best/", exchange -> serveSymbol(exchange, "/best/", false));
+        server.createContext("/spread", this::serveSpread);
+
+        poller = Executors.newSingleThreadScheduledExecutor(daemonThreads("quote-poller-"));
+    }
+
+    public void start() {
+        refresh();
+        poller.scheduleWithFixedDelay(this::refresh, refreshMs, refreshMs, TimeUnit.MILLISECONDS);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public Set<String> getSymbols() {
+        return Collections.unmodifiableSet(symbols);
+    }
+
+    // One batched request per exchange for the whole symbol set; a failed exchange
+    // simply drops out of this round's snapshot. Each quote keeps its own time, so
+    // prices served from the quote cache show how old they are.
+    void refresh() {
+        try {
+            String currency = service.getQuoteCurrency().name();
+            Map<String, QuoteSnapshot> batch = service.compareSnapshots(symbols);
+            long now = System.currentTimeMillis();
+
+            Map<String, byte[]> quotes = new HashMap<>();
+            Map<String, byte[]> best = new HashMap<>();
+            QuoteSnapshot[] snapshots = new QuoteSnapshot[symbols.size()];
+            int i = 0;
+            for (String symbol : symbols) {
+                QuoteSnapshot snapshot = batch.get(symbol);
+                quotes.put(symbol, renderQuotes(snapshot, currency, now));
+                best.put(symbol, renderBest(snapshot, currency, now));
+                snapshots[i++] = snapshot;
+            }
+            view = new View(quotes, best, renderSpread(snapshots, currency, now));
+        } catch (Exception e) {
+            // Keep serving the previous snapshot
+            System.err.println("Error refreshing quotes: " + e.getMessage());
+        }
+    }
+
+    private void serveSymbol(HttpExchange exchange, String prefix, boolean allQuotes) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, errorBody("Only GET is supported"));
+            return;
+        }
+        View current = view;
+        if (current == null) {
+            send(exchange, 503, NOT_READY);
+            return;
+        }
+        String symbol = exchange.getRequestURI().getPath().substring(prefix.length()).toUpperCase();
+        byte[] body = (allQuotes ? current.quotes : current.best).get(symbol);
+        if (body == null) {
+            send(exchange, 404, errorBody("Unknown symbol " + symbol));
+        } else {
+            send(exchange, 200, body);
+        }
+    }
+
+    private void serveSpread(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, errorBody("Only GET is supported"));
+            return;
+        }
+        View current = view;
+        send(exchange, current == null ? 503 : 200, current == null ? NOT_READY : current.spread);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // {"symbol":"BTC","currency":"USD","updated":1700000000000,"quotes":{"Binance":{"price":64000.1,"timestamp":...},...}}
+    private static byte[] renderQuotes(QuoteSnapshot snapshot, String currency, long updated) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("symbol", snapshot.getSymbol());
+            json.writeStringField("currency", currency);
+            json.writeNumberField("updated", updated);
+            json.writeObjectFieldStart("quotes");
+            for (int slot = 0; slot < snapshot.size(); slot++) {
+                if (!snapshot.hasPrice(slot)) continue;
+                json.writeObjectFieldStart(snapshot.getExchange(slot));
+                json.writeNumberField("price", snapshot.getPrice(slot));
+                json.writeNumberField("timestamp", snapshot.getTimestamp(slot));
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    // {"symbol":"BTC","currency":"USD","updated":...,"exchange":"Kraken","price":63990.5}; exchange is null without quotes
+    private static byte[] renderBest(QuoteSnapshot snapshot, String currency, long updated) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            int best = snapshot.bestSlot();
+            json.writeStartObject();
+            json.writeStringField("symbol", snapshot.getSymbol());
+            json.writeStringField("currency", currency);
+            json.writeNumberField("updated", updated);
+            if (best < 0) {
+                json.writeNullField("exchange");
+                json.writeNullField("price");
+            } else {
+                json.writeStringField("exchange", snapshot.getExchange(best));
+                json.writeNumberField("price", snapshot.getPrice(best));
+            }
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    // {"currency":"USD","updated":...,"spreads":[{"symbol":"BTC","best":"Kraken","bestPrice":...,"worst":"Coinbase",
+    //  "worstPrice":...,"spread":...,"spreadBps":...},...]}; symbols with fewer than two quotes are skipped
+    private static byte[] renderSpread(QuoteSnapshot[] snapshots, String currency, long updated) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128 * snapshots.length + 64);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("currency", currency);
+            json.writeNumberField("updated", updated);
+            json.writeArrayFieldStart("spreads");
+            for (QuoteSnapshot snapshot : snapshots) {
+                if (snapshot.count() < 2) continue;
+                int best = snapshot.bestSlot();
+                int worst = snapshot.worstSlot();
+                json.writeStartObject();
+                json.writeStringField("symbol", snapshot.getSymbol());
+                json.writeStringField("best", snapshot.getExchange(best));
+                json.writeNumberField("bestPrice", snapshot.getPrice(best));
+                json.writeStringField("worst", snapshot.getExchange(worst));
+                json.writeNumberField("worstPrice", snapshot.getPrice(worst));
+                json.writeNumberField("spread", snapshot.spread());
+                json.writeNumberField("spreadBps", snapshot.spreadBps());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] errorBody(String message) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            json.writeEndObject();
+        } catch (IOException e) {
+            return ("{\"error\":\"" + e.getMessage() + "\"}").getBytes(StandardCharsets.UTF_8);
+        }
+        return out.toByteArray();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        poller.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,51 @@
+package org.studyeasy.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Quotes that arrived before the deadline plus the status of every exchange queried
+public class ComparisonResult {
+    private final QuoteSnapshot snapshot;
+    private final Map<String, FetchStatus> statuses;
+    private final long elapsedMs;
+    private Map<String, Double> prices;
+
+    public ComparisonResult(QuoteSnapshot snapshot, Map<String, FetchStatus> statuses, long elapsedMs) {
+        this.snapshot = snapshot;
+        this.statuses = Collections.unmodifiableMap(statuses);
+        this.elapsedMs = elapsedMs;
+    }
+
+    public String getSymbol() {
+        return snapshot.getSymbol();
+    }
+
+    public QuoteSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Boxed exchange -> price view, built on first use
+    public synchronized Map<String, Double> getPrices() {
+        if (prices == null) {
+            prices = Collections.unmodifiableMap(snapshot.toMap());
+        }
+        return prices;
+    }
+
+    public Map<String, FetchStatus> getStatuses() {
+        return statuses;
+    }
+
+    public FetchStatus getStatus(String exchange) {
+        return statuses.getOrDefault(exchange, FetchStatus.ERROR);
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    // True when at least one exchange did not answer in time or failed
+    public boolean isPartial() {
+        return snapshot.count() < statuses.size();
+    }
+}
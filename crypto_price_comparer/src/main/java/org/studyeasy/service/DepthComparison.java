@@ -0,0 +1,161 @@
+package org.studyeasy.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+// Order books fetched for one symbol across exchanges, indexed by exchange slot
+// like QuoteSnapshot, plus the status of every exchange queried. Books stay in
+// their pair's currency; each slot carries the rate into the comparison currency,
+// applied as prices are read. Fill prices and best-venue lookups walk the books in
+// place and allocate nothing, so a caller can price many order sizes against the
+// same set of books.
+public class DepthComparison {
+    private final String symbol;
+    private final QuoteCurrency currency;
+    private final String[] exchanges;
+    private final OrderBook[] books;
+    private final double[] rates;
+    private final Map<String, FetchStatus> statuses;
+    private final long elapsedMs;
+
+    // Per-book level cursors for the consolidated walk; guarded by this
+    private final int[] cursors;
+
+    // rates[slot] converts that book's prices into currency
+    public DepthComparison(String symbol, QuoteCurrency currency, String[] exchanges, OrderBook[] books,
+                           double[] rates, Map<String, FetchStatus> statuses, long elapsedMs) {
+        this.symbol = symbol;
+        this.currency = currency;
+        this.exchanges = exchanges;
+        this.books = books;
+        this.rates = rates;
+        this.statuses = Collections.unmodifiableMap(statuses);
+        this.elapsedMs = elapsedMs;
+        this.cursors = new int[books.length];
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Currency every fill price is reported in
+    public QuoteCurrency getCurrency() {
+        return currency;
+    }
+
+    public int size() {
+        return exchanges.length;
+    }
+
+    public String getExchange(int slot) {
+        return exchanges[slot];
+    }
+
+    // Null when the exchange has no book (unsupported, failed or timed out)
+    public OrderBook getBook(int slot) {
+        return books[slot];
+    }
+
+    public OrderBook getBook(String exchange) {
+        for (int i = 0; i < exchanges.length; i++) {
+            if (exchanges[i].equals(exchange)) return books[i];
+        }
+        return null;
+    }
+
+    public Map<String, FetchStatus> getStatuses() {
+        return statuses;
+    }
+
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+
+    // Number of exchanges with a book
+    public int count() {
+        int count = 0;
+        for (OrderBook book : books) {
+            if (book != null) count++;
+        }
+        return count;
+    }
+
+    // Rate from the slot's book currency into the comparison currency; NaN while unknown
+    public double getRate(int slot) {
+        return rates[slot];
+    }
+
+    // Average fill in the comparison currency, or NaN when the book is missing or too
+    // thin, or its rate is unknown
+    public double fillPrice(int slot, OrderSide side, double quantity) {
+        OrderBook book = books[slot];
+        return book == null ? Double.NaN : book.fillPrice(side, quantity) * rates[slot];
+    }
+
+    // Slot with the lowest fill price for a BUY or the highest for a SELL, among
+    // books deep enough to fill the whole quantity; -1 when none is
+    public int bestSlot(OrderSide side, double quantity) {
+        int best = -1;
+        double bestPrice = Double.NaN;
+        for (int i = 0; i < books.length; i++) {
+            double price = fillPrice(i, side, quantity);
+            if (Double.isNaN(price)) continue;
+            if (best < 0 || (side == OrderSide.BUY ? price < bestPrice : price > bestPrice)) {
+                best = i;
+                bestPrice = price;
+            }
+        }
+        return best;
+    }
+
+    // Writes every venue's fill price for the quantity into a snapshot with the same
+    // slots, so callers can reuse one snapshot across sizes and ticks
+    public void fillPrices(OrderSide side, double quantity, QuoteSnapshot into) {
+        for (int i = 0; i < books.length; i++) {
+            double price = fillPrice(i, side, quantity);
+            if (Double.isNaN(price)) {
+                into.clear(i);
+            } else {
+                into.set(i, price, books[i].getTimestamp());
+            }
+        }
+    }
+
+    // Average price if the order were split across every venue, always taking the
+    // best remaining level. The books are merged lazily by walking one cursor per
+    // book, so nothing is copied or allocated. NaN when all books together are too thin.
+    public synchronized double consolidatedFillPrice(OrderSide side, double quantity) {
+        if (!(quantity > 0)) return Double.NaN;
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = 0;
+        }
+
+        double remaining = quantity;
+        double notional = 0;
+        while (remaining > 0) {
+            int next = -1;
+            double nextPrice = Double.NaN;
+            for (int i = 0; i < books.length; i++) {
+                OrderBook book = books[i];
+                if (book == null || Double.isNaN(rates[i]) || cursors[i] >= book.levels(side)) continue;
+                double price = book.getPrice(side, cursors[i]) * rates[i];
+                if (next < 0 || (side == OrderSide.BUY ? price < nextPrice : price > nextPrice)) {
+                    next = i;
+                    nextPrice = price;
+                }
+            }
+            if (next < 0) return Double.NaN;
+
+            double take = Math.min(remaining, books[next].getSize(side, cursors[next]));
+            notional += take * nextPrice;
+            remaining -= take;
+            cursors[next]++;
+        }
+        return notional / quantity;
+    }
+
+    // True when at least one exchange queried has no book
+    public boolean isPartial() {
+        return count() < statuses.size();
+    }
+}
@@ -0,0 +1,12 @@
+package org.studyeasy.service;
+
+// Outcome of a single exchange lookup during a concurrent comparison
+public enum FetchStatus {
+    OK,
+    TIMEOUT,
+    ERROR,
+    // Skipped without a request because the exchange's circuit breaker is open
+    CIRCUIT_OPEN,
+    // Skipped without a request because the exchange does not list the symbol
+    NOT_LISTED
+}
@@ -0,0 +1,115 @@
+package org.studyeasy.service;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// USD value of every QuoteCurrency, refreshed in the background. Conversions
+// read one volatile array and do two multiplications, so they can run on every
+// quote without I/O; a failed refresh keeps the last good rates.
+public class FxRateTable implements AutoCloseable {
+
+    // USD value of one unit of each currency it knows about
+    @FunctionalInterface
+    public interface RateSource {
+        Map<QuoteCurrency, Double> fetchUsdValues() throws IOException;
+    }
+
+    private final RateSource source;
+    private final long refreshMs;
+    // Indexed by ordinal; replaced whole on refresh. NaN until a rate is known.
+    private volatile double[] usdValues;
+    private volatile long updatedAt;
+    private final CountDownLatch firstRefresh = new CountDownLatch(1);
+    private ScheduledExecutorService scheduler;
+
+    public FxRateTable(RateSource source, long refreshMs) {
+        this.source = source;
+        this.refreshMs = refreshMs;
+        double[] initial = new double[QuoteCurrency.values().length];
+        Arrays.fill(initial, Double.NaN);
+        for (QuoteCurrency currency : QuoteCurrency.values()) {
+            // Stablecoins start at par so USD/USDT comparisons work before the first refresh
+            if (currency == QuoteCurrency.USD || currency.isStablecoin()) {
+                initial[currency.ordinal()] = 1.0;
+            }
+        }
+        usdValues = initial;
+    }
+
+    // Loads the rates right away and then every refreshMs on a daemon thread; later
+    // calls do nothing. Does not block; see awaitFirstRefresh.
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-rate-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Waits at most timeoutMs for the first refresh to finish, successful or not.
+    // Returns immediately once it has.
+    public boolean awaitFirstRefresh(long timeoutMs) {
+        try {
+            return firstRefresh.await(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Fetches new rates; currencies the source leaves out keep their previous value
+    public boolean refresh() {
+        try {
+            Map<QuoteCurrency, Double> fetched = source.fetchUsdValues();
+            double[] next = usdValues.clone();
+            for (Map.Entry<QuoteCurrency, Double> rate : fetched.entrySet()) {
+                if (rate.getValue() != null && rate.getValue() > 0 && rate.getKey() != QuoteCurrency.USD) {
+                    next[rate.getKey().ordinal()] = rate.getValue();
+                }
+            }
+            usdValues = next;
+            updatedAt = System.currentTimeMillis();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error refreshing FX rates: " + e.getMessage());
+            return false;
+        } finally {
+            firstRefresh.countDown();
+        }
+    }
+
+    // Units of "to" per unit of "from", or NaN while either rate is unknown
+    public double getRate(QuoteCurrency from, QuoteCurrency to) {
+        if (from == to) return 1.0;
+        double[] values = usdValues;
+        return values[from.ordinal()] / values[to.ordinal()];
+    }
+
+    public double convert(double amount, QuoteCurrency from, QuoteCurrency to) {
+        return from == to ? amount : amount * getRate(from, to);
+    }
+
+    // USD value of one unit, or NaN while unknown
+    public double getUsdValue(QuoteCurrency currency) {
+        return usdValues[currency.ordinal()];
+    }
+
+    // Epoch millis of the last successful refresh, or 0 before the first
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
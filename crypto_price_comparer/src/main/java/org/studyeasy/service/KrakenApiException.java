@@ -0,0 +1,24 @@
+package org.studyeasy.service;
+
+import java.io.IOException;
+import java.util.List;
+
+// Kraken answered normally but with entries in its "error" array, e.g. "EQuery:Unknown asset pair"
+public class KrakenApiException extends IOException {
+    public static final String UNKNOWN_ASSET_PAIR = "EQuery:Unknown asset pair";
+
+    private final List<String> errors;
+
+    public KrakenApiException(List<String> errors) {
+        super("Kraken API error: " + errors);
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public boolean hasError(String error) {
+        return errors.contains(error);
+    }
+}
@@ -0,0 +1,44 @@
+package org.studyeasy.service;
+
+// One pair an exchange lists: the app's symbol and quote currency, and the
+// exchange's own id for it (BTCUSDT, XXBTZUSD, BTC-USD, or a coin id on CoinGecko)
+public class Market {
+    private final String symbol;
+    private final QuoteCurrency quote;
+    private final String exchangeSymbol;
+    // Display name, for listings that carry one
+    private final String name;
+
+    public Market(String symbol, QuoteCurrency quote, String exchangeSymbol, String name) {
+        this.symbol = symbol.toUpperCase();
+        this.quote = quote;
+        this.exchangeSymbol = exchangeSymbol;
+        this.name = name;
+    }
+
+    public Market(String symbol, QuoteCurrency quote, String exchangeSymbol) {
+        this(symbol, quote, exchangeSymbol, null);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public QuoteCurrency getQuote() {
+        return quote;
+    }
+
+    public String getExchangeSymbol() {
+        return exchangeSymbol;
+    }
+
+    // Null when the listing has no names
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return symbol + "/" + quote + " (" + exchangeSymbol + ")";
+    }
+}
@@ -0,0 +1,140 @@
+package org.studyeasy.service;
+
+import java.util.Arrays;
+
+// Top levels of one exchange's order book in parallel primitive arrays, best
+// level first on each side, as the exchanges send them. Fill prices walk the
+// arrays in place, so any number of order sizes can be priced per book
+// without allocating.
+public class OrderBook {
+    private final String exchange;
+    private final String symbol;
+    private final QuoteCurrency currency;
+    private final long timestamp;
+
+    private double[] bidPrices;
+    private double[] bidSizes;
+    private double[] askPrices;
+    private double[] askSizes;
+    private int bidCount;
+    private int askCount;
+
+    public OrderBook(String exchange, String symbol, QuoteCurrency currency, int depth, long timestamp) {
+        this.exchange = exchange;
+        this.symbol = symbol;
+        this.currency = currency;
+        this.timestamp = timestamp;
+        int capacity = Math.max(1, depth);
+        bidPrices = new double[capacity];
+        bidSizes = new double[capacity];
+        askPrices = new double[capacity];
+        askSizes = new double[capacity];
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Currency the book's prices are in, i.e. the pair's quote currency
+    public QuoteCurrency getCurrency() {
+        return currency;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void addBid(double price, double size) {
+        if (bidCount == bidPrices.length) {
+            bidPrices = Arrays.copyOf(bidPrices, bidCount * 2);
+            bidSizes = Arrays.copyOf(bidSizes, bidCount * 2);
+        }
+        bidPrices[bidCount] = price;
+        bidSizes[bidCount] = size;
+        bidCount++;
+    }
+
+    public void addAsk(double price, double size) {
+        if (askCount == askPrices.length) {
+            askPrices = Arrays.copyOf(askPrices, askCount * 2);
+            askSizes = Arrays.copyOf(askSizes, askCount * 2);
+        }
+        askPrices[askCount] = price;
+        askSizes[askCount] = size;
+        askCount++;
+    }
+
+    // Levels a BUY fills against are the asks, a SELL the bids
+    public int levels(OrderSide side) {
+        return side == OrderSide.BUY ? askCount : bidCount;
+    }
+
+    public double getPrice(OrderSide side, int level) {
+        return side == OrderSide.BUY ? askPrices[level] : bidPrices[level];
+    }
+
+    public double getSize(OrderSide side, int level) {
+        return side == OrderSide.BUY ? askSizes[level] : bidSizes[level];
+    }
+
+    public double bestBid() {
+        return bidCount == 0 ? Double.NaN : bidPrices[0];
+    }
+
+    public double bestAsk() {
+        return askCount == 0 ? Double.NaN : askPrices[0];
+    }
+
+    public double mid() {
+        return (bestBid() + bestAsk()) / 2;
+    }
+
+    // Total quantity on the side an order would fill against
+    public double depth(OrderSide side) {
+        double[] sizes = side == OrderSide.BUY ? askSizes : bidSizes;
+        int count = levels(side);
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += sizes[i];
+        }
+        return total;
+    }
+
+    // Average price paid (BUY) or received (SELL) for the whole quantity, walking
+    // the book from the best level. NaN when the fetched levels cannot fill it.
+    public double fillPrice(OrderSide side, double quantity) {
+        if (!(quantity > 0)) return Double.NaN;
+        double[] prices = side == OrderSide.BUY ? askPrices : bidPrices;
+        double[] sizes = side == OrderSide.BUY ? askSizes : bidSizes;
+        int count = levels(side);
+
+        double remaining = quantity;
+        double notional = 0;
+        for (int i = 0; i < count; i++) {
+            double take = Math.min(remaining, sizes[i]);
+            notional += take * prices[i];
+            remaining -= take;
+            if (remaining <= 0) {
+                return notional / quantity;
+            }
+        }
+        return Double.NaN;
+    }
+
+    // Cost of the fill relative to the top of the book, in basis points
+    public double slippageBps(OrderSide side, double quantity) {
+        double top = side == OrderSide.BUY ? bestAsk() : bestBid();
+        double fill = fillPrice(side, quantity);
+        if (Double.isNaN(fill) || !(top > 0)) return Double.NaN;
+        return Math.abs(fill - top) / top * 10000;
+    }
+
+    @Override
+    public String toString() {
+        return exchange + " " + symbol + "/" + currency + " book: " + bidCount + " bids / " + askCount + " asks";
+    }
+}
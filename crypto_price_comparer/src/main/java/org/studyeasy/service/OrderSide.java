@@ -0,0 +1,7 @@
+package org.studyeasy.service;
+
+// Direction of an order: a buy fills against the asks, a sell against the bids
+public enum OrderSide {
+    BUY,
+    SELL
+}
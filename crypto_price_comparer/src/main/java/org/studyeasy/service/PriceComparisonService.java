@@ -1,207 +1,983 @@
 package org.studyeasy.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
-// Remove the org.apache.hc.core5.http.ParseException import
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.studyeasy.feed.FeedQuote;
+import org.studyeasy.feed.StreamingPriceFeed;
+import org.studyeasy.metrics.FetchMetrics;
+import org.studyeasy.metrics.LogMetricsExporter;
+import org.studyeasy.service.alert.AlertEngine;
+import org.studyeasy.service.exchange.Capability;
+import org.studyeasy.service.exchange.ExchangeAdapter;
+import org.studyeasy.service.exchange.ExchangeRegistry;
+import org.studyeasy.service.exchange.HttpFetcher;
+import org.studyeasy.service.exchange.NotListedException;
+import org.studyeasy.service.exchange.RateLimitedException;
+import org.studyeasy.service.history.HistoryAggregator;
+import org.studyeasy.service.history.HistoryRecorder;
+import org.studyeasy.service.history.OhlcSeries;
+import org.studyeasy.service.history.Resolution;
+import org.studyeasy.service.history.TimeSeriesStore;
+import org.studyeasy.service.poll.AdaptivePollScheduler;
+import org.studyeasy.service.replay.ReplayRecorder;
+import org.studyeasy.service.spread.SpreadEngine;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.text.ParseException; // Keep only this ParseException
-import java.text.SimpleDateFormat;
+import java.util.Set;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class PriceComparisonService {
-    private final ObjectMapper mapper = new ObjectMapper();
+public class PriceComparisonService implements AutoCloseable {
+    // Defaults for the shared HTTP client; every exchange is a single host, so a
+    // handful of connections per route is plenty for the GUI and the CLI
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 4;
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 3000;
+    public static final int DEFAULT_RESPONSE_TIMEOUT_MS = 5000;
+    private static final long KEEP_ALIVE_SECONDS = 60;
+
+    // Quotes younger than this are served from memory instead of hitting the exchange
+    public static final long DEFAULT_CACHE_TTL_MS = 5000;
+    public static final int DEFAULT_CACHE_MAX_ENTRIES = 1024;
+
+    // Books move faster than spot quotes, so they are only reused for a moment
+    public static final long DEFAULT_BOOK_TTL_MS = 1000;
+    private static final int BOOK_CACHE_MAX_ENTRIES = 256;
+
+    // Upper bound for a batched comparison across all exchanges
+    private static final long BATCH_DEADLINE_MS = 15000;
+
+    // Exchange whose history is charted and stored while it is enabled
+    private static final String PRIMARY_HISTORY_SOURCE = "CoinGecko";
+
+    // Longest a comparison waits for the very first FX rate load
+    private static final long FX_FIRST_LOAD_WAIT_MS = 3000;
+
+    // Back-off after a 429/418 that carries no usable Retry-After header
+    private static final long DEFAULT_RETRY_AFTER_MS = 60000;
+
+    // -Dcrypto.metrics=true turns instrumentation on at startup, publishes it over JMX
+    // and logs a summary every minute
+    public static final String METRICS_PROPERTY = "crypto.metrics";
+    private static final long METRICS_LOG_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    // Where every request goes: the pooled client unless replaced, e.g. by a replay log
+    private final HttpFetcher networkFetcher = this::executeHttpGet;
+    private volatile HttpFetcher httpFetcher = networkFetcher;
+
+    // Set while responses and published quotes are being written to a replay log
+    private ReplayRecorder recorder;
+    private HttpFetcher transportBeforeRecording;
+    private final Map<String, String> endpointOverrides = new ConcurrentHashMap<>();
+
+    // Every request either leases a pooled connection (hit) or opens a new one (miss)
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    // Exchange adapters discovered through ServiceLoader; snapshot slots follow its order
+    private final ExchangeRegistry registry;
+    private final String[] exchangeNames;
+
+    // Which pairs each exchange lists; refreshed in the background from the exchanges themselves
+    private final SymbolRegistry symbolRegistry;
+
+    // Keyed by (exchange, symbol), shared by the single, concurrent and batch paths
+    private final QuoteCache<QuoteKey, Double> quoteCache;
+
+    // Prices are cached in the pair's own currency so every read uses the current rate
+    private record QuoteKey(String exchange, String symbol, QuoteCurrency currency) {
+    }
+
+    // Order books by (exchange, symbol, depth); concurrent misses share one request
+    private final QuoteCache<BookKey, OrderBook> bookCache =
+            new QuoteCache<>(DEFAULT_BOOK_TTL_MS, BOOK_CACHE_MAX_ENTRIES);
+
+    private record BookKey(String exchange, String symbol, QuoteCurrency currency, int depth) {
+    }
+
+    // Currency every comparison, listener and chart reports prices in. Each exchange
+    // is queried in its own pair currency (Binance has no USD pairs, for example) and
+    // converted through the rate table, which refreshes itself off the request path.
+    private volatile QuoteCurrency quoteCurrency = QuoteCurrency.USD;
+    private static final String FX_RATES_URL = "https://api.coinbase.com/v2/exchange-rates?currency=USD";
+    private static final long FX_REFRESH_MS = TimeUnit.MINUTES.toMillis(1);
+    private final FxRateTable fxRates = new FxRateTable(this::fetchUsdValues, FX_REFRESH_MS);
+
+    // When attached, fresh streamed quotes are used instead of REST lookups
+    private volatile StreamingPriceFeed priceFeed;
+    private final QuoteListener feedForwarder = this::publishFeedQuote;
+
+    private final List<QuoteListener> quoteListeners = new CopyOnWriteArrayList<>();
+
+    // Best/worst venue and spread per symbol, fed by every published quote
+    private final SpreadEngine spreadEngine = new SpreadEngine();
+
+    // Price, percent-move and spread alerts, checked as quotes arrive
+    private final AlertEngine alertEngine = new AlertEngine(spreadEngine, this::getQuoteCurrency);
+
+    // Background polling of watched and alerted symbols; idle until started
+    private final AdaptivePollScheduler pollScheduler = new AdaptivePollScheduler(this);
+
+    // Optional on-disk history; live quotes are appended at most once per interval
+    private static final long LIVE_HISTORY_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private volatile TimeSeriesStore historyStore;
+    private QuoteListener historyRecorder;
+
+    // OHLC bucketing of history; long ranges are split across the common fork-join pool
+    private final HistoryAggregator historyAggregator = new HistoryAggregator();
+
+    public PriceComparisonService() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_RESPONSE_TIMEOUT_MS);
+    }
+
+    public PriceComparisonService(int maxConnectionsPerHost, int connectTimeoutMs, int responseTimeoutMs) {
+        this(maxConnectionsPerHost, connectTimeoutMs, responseTimeoutMs,
+                DEFAULT_CACHE_TTL_MS, DEFAULT_CACHE_MAX_ENTRIES);
+    }
+
+    public PriceComparisonService(int maxConnectionsPerHost, int connectTimeoutMs, int responseTimeoutMs,
+                                  long cacheTtlMs, int cacheMaxEntries) {
+        this(maxConnectionsPerHost, connectTimeoutMs, responseTimeoutMs, cacheTtlMs, cacheMaxEntries,
+                ExchangeRegistry.load());
+    }
+
+    public PriceComparisonService(int maxConnectionsPerHost, int connectTimeoutMs, int responseTimeoutMs,
+                                  long cacheTtlMs, int cacheMaxEntries, ExchangeRegistry registry) {
+        this.registry = registry;
+        quoteCache = new QuoteCache<>(cacheTtlMs, cacheMaxEntries);
+        // Spread first, so spread alerts see the spread including this quote
+        quoteListeners.add(spreadEngine);
+        quoteListeners.add(alertEngine);
+        quoteListeners.add(pollScheduler);
+
+        List<ExchangeAdapter> adapters = registry.getAdapters();
+        exchangeNames = new String[adapters.size()];
+        for (int i = 0; i < exchangeNames.length; i++) {
+            exchangeNames[i] = adapters.get(i).getName();
+        }
+        symbolRegistry = new SymbolRegistry(adapters, this::fetchMarkets, SymbolRegistry.DEFAULT_REFRESH_MS);
+
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setConnectionFactory(socket -> {
+                    connectionsOpened.incrementAndGet();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+                })
+                .setMaxConnPerRoute(maxConnectionsPerHost)
+                .setMaxConnTotal(maxConnectionsPerHost * Math.max(4, adapters.size()))
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .setTimeToLive(TimeValue.ofSeconds(KEEP_ALIVE_SECONDS))
+                        .build())
+                .build();
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(KEEP_ALIVE_SECONDS))
+                .evictIdleConnections(TimeValue.ofSeconds(KEEP_ALIVE_SECONDS))
+                .build();
+
+        if (Boolean.getBoolean(METRICS_PROPERTY)) {
+            FetchMetrics metrics = registry.getMetrics();
+            metrics.setEnabled(true);
+            metrics.registerMBeans();
+            metrics.addExporter(new LogMetricsExporter(System.out), METRICS_LOG_INTERVAL_MS);
+        }
+    }
+    
+    // The pair the exchange lists for symbol, closest to target; the first call starts
+    // the background listing refresh
+    private Market market(ExchangeAdapter adapter, String symbol, QuoteCurrency target) throws NotListedException {
+        symbolRegistry.start();
+        Market market = symbolRegistry.resolve(adapter, symbol, target);
+        if (market == null) {
+            throw new NotListedException(adapter.getName(), symbol.toUpperCase());
+        }
+        return market;
+    }
+
+    // Listings go through the registry like any other call, so they share the rate limit
+    private List<Market> fetchMarkets(ExchangeAdapter adapter) throws IOException {
+        return registry.call(adapter, a -> a.fetchMarkets(registry.fetcherFor(a, httpFetcher)));
+    }
+
+    // A price in the comparison currency and when it was quoted: when it was streamed,
+    // or when it was fetched for cached REST quotes
+    private record TimedQuote(double price, long timestampMs) {
+    }
+
+    // Streamed price if a feed covers it, otherwise the cached (or coalesced) REST lookup,
+    // converted from the exchange's pair currency to target
+    private TimedQuote quote(ExchangeAdapter adapter, String symbol, QuoteCurrency target) throws IOException {
+        TimedQuote streamed = streamedQuote(adapter.getName(), symbol, target);
+        if (streamed != null) {
+            recordStreamedAge(adapter.getName(), symbol);
+            return streamed;
+        }
+        Market market = market(adapter, symbol, target);
+        QuoteCurrency pairCurrency = market.getQuote();
+        QuoteKey key = new QuoteKey(adapter.getName(), market.getSymbol(), pairCurrency);
+        double price = quoteCache.get(key, () -> {
+            double fetched = registry.call(adapter,
+                    a -> a.fetchQuote(market, registry.fetcherFor(a, httpFetcher)));
+            publishQuote(adapter.getName(), market.getSymbol(), fxRates.convert(fetched, pairCurrency, target),
+                    System.currentTimeMillis());
+            return fetched;
+        });
+        long ageMs = Math.max(0, quoteCache.getAgeMs(key));
+        recordQuoteAge(adapter.getName(), ageMs);
+        double converted = fxRates.convert(price, pairCurrency, target);
+        if (Double.isNaN(converted)) {
+            throw new IOException("No " + pairCurrency + "/" + target + " rate for " + adapter.getName());
+        }
+        return new TimedQuote(converted, System.currentTimeMillis() - ageMs);
+    }
+    
+    // Fresh streamed price in target, or null when there is none or no rate to convert it
+    private Double streamedPrice(String exchange, String symbol, QuoteCurrency target) {
+        TimedQuote quote = streamedQuote(exchange, symbol, target);
+        return quote == null ? null : quote.price();
+    }
+
+    private TimedQuote streamedQuote(String exchange, String symbol, QuoteCurrency target) {
+        StreamingPriceFeed feed = priceFeed;
+        FeedQuote quote = feed == null ? null : feed.getFreshQuote(exchange, symbol);
+        if (quote == null) return null;
+        double converted = fxRates.convert(quote.getPrice(), feed.getQuoteCurrency(exchange), target);
+        return Double.isNaN(converted) ? null : new TimedQuote(converted, quote.getReceivedAt());
+    }
+
+    // Quote age is how old a price is when a comparison uses it: time since it was
+    // streamed, or since it was fetched for cached REST quotes
+    private void recordStreamedAge(String exchange, String symbol) {
+        StreamingPriceFeed feed = priceFeed;
+        if (!getMetrics().isEnabled() || feed == null) return;
+        FeedQuote quote = feed.getQuote(exchange, symbol);
+        if (quote != null) {
+            recordQuoteAge(exchange, quote.getAgeMs(System.currentTimeMillis()));
+        }
+    }
+
+    private void recordQuoteAge(String exchange, long ageMs) {
+        FetchMetrics metrics = getMetrics();
+        if (metrics.isEnabled() && metrics.forExchange(exchange) != null) {
+            metrics.forExchange(exchange).recordQuoteAge(ageMs);
+        }
+    }
+    
+    // Serves the symbols that are still fresh from the cache and batches only the rest,
+    // one request per pair currency; symbols the exchange does not list, and those whose
+    // price cannot be converted to target, are left out
+    private Map<String, TimedQuote> quotes(ExchangeAdapter adapter, Set<String> symbols, QuoteCurrency target)
+            throws IOException {
+        String exchange = adapter.getName();
+        Map<String, TimedQuote> prices = new HashMap<>();
+        Map<QuoteCurrency, List<Market>> missing = new EnumMap<>(QuoteCurrency.class);
+        symbolRegistry.start();
+        for (String symbol : symbols) {
+            Market market = symbolRegistry.resolve(adapter, symbol, target);
+            if (market == null) continue;
+            TimedQuote quote = streamedQuote(exchange, symbol, target);
+            if (quote != null) {
+                recordStreamedAge(exchange, symbol);
+            } else {
+                QuoteKey key = new QuoteKey(exchange, symbol, market.getQuote());
+                Double cached = quoteCache.getIfPresent(key);
+                if (cached != null) {
+                    long ageMs = Math.max(0, quoteCache.getAgeMs(key));
+                    recordQuoteAge(exchange, ageMs);
+                    quote = new TimedQuote(fxRates.convert(cached, market.getQuote(), target),
+                            System.currentTimeMillis() - ageMs);
+                }
+            }
+            if (quote == null) {
+                missing.computeIfAbsent(market.getQuote(), q -> new ArrayList<>()).add(market);
+            } else if (!Double.isNaN(quote.price())) {
+                prices.put(symbol, quote);
+            }
+        }
+        
+        for (List<Market> markets : missing.values()) {
+            fetchQuotes(adapter, markets, target, prices);
+        }
+        return prices;
+    }
+
+    // One batched request for markets that share a pair currency; results refresh the
+    // cache, are published and, when they can be converted to target, added to prices
+    private void fetchQuotes(ExchangeAdapter adapter, List<Market> markets, QuoteCurrency target,
+                             Map<String, TimedQuote> prices) throws IOException {
+        String exchange = adapter.getName();
+        QuoteCurrency pairCurrency = markets.get(0).getQuote();
+        Map<String, Double> fetched = registry.call(adapter,
+                a -> a.fetchQuotes(markets, registry.fetcherFor(a, httpFetcher)));
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Double> quote : fetched.entrySet()) {
+            quoteCache.put(new QuoteKey(exchange, quote.getKey(), pairCurrency), quote.getValue());
+            recordQuoteAge(exchange, 0);
+            double price = fxRates.convert(quote.getValue(), pairCurrency, target);
+            if (Double.isNaN(price)) continue;
+            publishQuote(exchange, quote.getKey(), price, now);
+            prices.put(quote.getKey(), new TimedQuote(price, now));
+        }
+    }
+
+    // Fetches the symbols from one exchange right now, skipping the cache and the feed,
+    // and publishes the results; this is how the poll scheduler spends its budget.
+    // Does not wait for FX rates: until they load, converted prices are left out.
+    public Map<String, Double> pollQuotes(String exchange, Collection<String> cryptoSymbols) throws IOException {
+        ExchangeAdapter adapter = registry.getAdapter(exchange);
+        if (adapter == null || !registry.isEnabled(exchange)) {
+            throw new IOException(exchange + " is not enabled");
+        }
+        QuoteCurrency target = quoteCurrency;
+        Map<QuoteCurrency, Map<String, Market>> markets = new EnumMap<>(QuoteCurrency.class);
+        symbolRegistry.start();
+        for (String symbol : cryptoSymbols) {
+            Market market = symbolRegistry.resolve(adapter, symbol, target);
+            if (market != null) {
+                markets.computeIfAbsent(market.getQuote(), q -> new LinkedHashMap<>())
+                        .putIfAbsent(market.getSymbol(), market);
+            }
+        }
+        fxRates.start();
+        Map<String, TimedQuote> quotes = new HashMap<>();
+        for (Map<String, Market> group : markets.values()) {
+            fetchQuotes(adapter, new ArrayList<>(group.values()), target, quotes);
+        }
+        Map<String, Double> prices = new HashMap<>();
+        for (Map.Entry<String, TimedQuote> quote : quotes.entrySet()) {
+            prices.put(quote.getKey(), quote.getValue().price());
+        }
+        return prices;
+    }
     
     public Map<String, Double> comparePrices(String cryptoSymbol) throws IOException {
         Map<String, Double> prices = new HashMap<>();
+        QuoteCurrency target = quoteCurrency;
+        awaitFxRates(FX_FIRST_LOAD_WAIT_MS);
         
-        try {
-            // Get Binance price
-            prices.put("Binance", getBinancePrice(cryptoSymbol));
-        } catch (Exception e) {
-            System.err.println("Error fetching from Binance: " + e.getMessage());
+        for (ExchangeAdapter adapter : registry.getEnabledAdapters()) {
+            try {
+                prices.put(adapter.getName(), quote(adapter, cryptoSymbol, target).price());
+            } catch (NotListedException e) {
+                // Nothing to compare on this exchange
+            } catch (Exception e) {
+                System.err.println("Error fetching from " + adapter.getName() + ": " + e.getMessage());
+            }
         }
         
-        try {
-            // Get CoinGecko price
-            prices.put("CoinGecko", getCoinGeckoPrice(cryptoSymbol));
-        } catch (Exception e) {
-            System.err.println("Error fetching from CoinGecko: " + e.getMessage());
-        }
+        return prices;
+    }
+    
+    // Queries every exchange at once and waits at most deadlineMs overall, so the
+    // comparison takes as long as the slowest exchange (or the deadline), not the sum
+    public ComparisonResult comparePrices(String cryptoSymbol, long deadlineMs) {
+        long start = System.nanoTime();
+        QuoteCurrency target = quoteCurrency;
+        awaitFxRates(Math.min(deadlineMs, FX_FIRST_LOAD_WAIT_MS));
+        long remainingMs = Math.max(0, deadlineMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         
-        try {
-            // Get Kraken price
-            prices.put("Kraken", getKrakenPrice(cryptoSymbol));
-        } catch (Exception e) {
-            System.err.println("Error fetching from Kraken: " + e.getMessage());
-        }
+        Map<String, ExchangeRegistry.Outcome<TimedQuote>> outcomes =
+                registry.invokeAll(adapter -> quote(adapter, cryptoSymbol, target), remainingMs);
         
-        try {
-            // Get Coinbase price
-            prices.put("Coinbase", getCoinbasePrice(cryptoSymbol));
-        } catch (Exception e) {
-            System.err.println("Error fetching from Coinbase: " + e.getMessage());
+        QuoteSnapshot snapshot = new QuoteSnapshot(cryptoSymbol.toUpperCase(), exchangeNames);
+        Map<String, FetchStatus> statuses = new LinkedHashMap<>();
+        for (Map.Entry<String, ExchangeRegistry.Outcome<TimedQuote>> entry : outcomes.entrySet()) {
+            String exchange = entry.getKey();
+            ExchangeRegistry.Outcome<TimedQuote> outcome = entry.getValue();
+            statuses.put(exchange, outcome.getStatus());
+            if (outcome.getStatus() == FetchStatus.OK) {
+                TimedQuote quote = outcome.getValue();
+                snapshot.set(snapshot.slotOf(exchange), quote.price(), quote.timestampMs());
+            } else if (outcome.getStatus() == FetchStatus.ERROR) {
+                System.err.println("Error fetching from " + exchange + ": " + outcome.getError().getMessage());
+            }
         }
         
-        return prices;
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new ComparisonResult(snapshot, statuses, elapsedMs);
     }
     
-    private Double getBinancePrice(String symbol) throws IOException {
-        String url = "https://api.binance.com/api/v3/ticker/price?symbol=" + symbol.toUpperCase() + "USDT";
-        String response = executeHttpGet(url);
-        JsonNode root = mapper.readTree(response);
-        return root.get("price").asDouble();
+    // One exchange's top depth levels, served from the short-lived book cache when fresh
+    public OrderBook getOrderBook(String exchange, String symbol, int depth) throws IOException {
+        ExchangeAdapter adapter = registry.getAdapter(exchange);
+        if (adapter == null || !adapter.supports(Capability.ORDER_BOOK)) {
+            throw new IOException(exchange + " does not provide order books");
+        }
+        return orderBook(adapter, symbol, depth, quoteCurrency);
+    }
+
+    // Book for the pair closest to target; its prices stay in the pair's currency
+    private OrderBook orderBook(ExchangeAdapter adapter, String symbol, int depth, QuoteCurrency target)
+            throws IOException {
+        Market market = market(adapter, symbol, target);
+        BookKey key = new BookKey(adapter.getName(), market.getSymbol(), market.getQuote(), depth);
+        return bookCache.get(key, () -> registry.call(adapter,
+                a -> a.fetchOrderBook(market, depth, registry.fetcherFor(a, httpFetcher))));
     }
     
-    private Double getCoinGeckoPrice(String symbol) throws IOException {
-        // Convert common symbols to CoinGecko IDs
-        String coinId = convertToCoinGeckoId(symbol);
-        String url = "https://api.coingecko.com/api/v3/simple/price?ids=" + coinId + "&vs_currencies=usd";
-        String response = executeHttpGet(url);
-        JsonNode root = mapper.readTree(response);
-        return root.get(coinId).get("usd").asDouble();
+    // Fetches the top depth levels from every exchange with order books at once and
+    // waits at most deadlineMs overall. Exchanges without books are not queried.
+    public DepthComparison compareOrderBooks(String cryptoSymbol, int depth, long deadlineMs) {
+        long start = System.nanoTime();
+        QuoteCurrency target = quoteCurrency;
+        awaitFxRates(Math.min(deadlineMs, FX_FIRST_LOAD_WAIT_MS));
+        long remainingMs = Math.max(0, deadlineMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        
+        Map<String, ExchangeRegistry.Outcome<OrderBook>> outcomes = registry.invokeAll(
+                Capability.ORDER_BOOK, adapter -> orderBook(adapter, cryptoSymbol, depth, target), remainingMs);
+        
+        OrderBook[] books = new OrderBook[exchangeNames.length];
+        double[] rates = new double[exchangeNames.length];
+        Map<String, FetchStatus> statuses = new LinkedHashMap<>();
+        for (Map.Entry<String, ExchangeRegistry.Outcome<OrderBook>> entry : outcomes.entrySet()) {
+            String exchange = entry.getKey();
+            ExchangeRegistry.Outcome<OrderBook> outcome = entry.getValue();
+            statuses.put(exchange, outcome.getStatus());
+            if (outcome.getStatus() == FetchStatus.OK) {
+                int slot = slotOf(exchange);
+                books[slot] = outcome.getValue();
+                rates[slot] = fxRates.getRate(outcome.getValue().getCurrency(), target);
+            } else if (outcome.getStatus() == FetchStatus.ERROR) {
+                System.err.println("Error fetching order book from " + exchange + ": " + outcome.getError().getMessage());
+            }
+        }
+        
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new DepthComparison(cryptoSymbol.toUpperCase(), target, exchangeNames, books, rates, statuses,
+                elapsedMs);
+    }
+
+    private int slotOf(String exchange) {
+        for (int i = 0; i < exchangeNames.length; i++) {
+            if (exchangeNames[i].equals(exchange)) return i;
+        }
+        return -1;
     }
     
-    private String convertToCoinGeckoId(String symbol) {
-        // Expanded mapping for common cryptocurrencies
-        return switch (symbol.toLowerCase()) {
-            case "btc" -> "bitcoin";
-            case "eth" -> "ethereum";
-            case "sol" -> "solana";
-            case "ada" -> "cardano";
-            case "dot" -> "polkadot";
-            case "doge" -> "dogecoin";
-            case "xrp" -> "ripple";
-            case "ltc" -> "litecoin";
-            case "link" -> "chainlink";
-            case "uni" -> "uniswap";
-            case "bnb" -> "binancecoin";
-            case "matic", "poly" -> "polygon";
-            case "avax" -> "avalanche-2";
-            case "shib" -> "shiba-inu";
-            // Add more mappings as needed
-            default -> symbol.toLowerCase();
-        };
+    // Compares many symbols with one request per exchange; the result maps
+    // symbol -> (exchange -> price) and omits exchanges that do not list a symbol
+    public Map<String, Map<String, Double>> comparePrices(Collection<String> cryptoSymbols) {
+        Map<String, Map<String, Double>> matrix = new LinkedHashMap<>();
+        for (String symbol : upperCase(cryptoSymbols)) {
+            matrix.put(symbol, new HashMap<>());
+        }
+        for (Map.Entry<String, Map<String, TimedQuote>> exchange : batchQuotes(matrix.keySet()).entrySet()) {
+            for (Map.Entry<String, TimedQuote> quote : exchange.getValue().entrySet()) {
+                matrix.get(quote.getKey()).put(exchange.getKey(), quote.getValue().price());
+            }
+        }
+        return matrix;
+    }
+
+    // The same batch as one snapshot per symbol, each price with its quote time: when
+    // it was streamed or fetched, which for cached quotes can be a while ago
+    public Map<String, QuoteSnapshot> compareSnapshots(Collection<String> cryptoSymbols) {
+        Map<String, QuoteSnapshot> snapshots = new LinkedHashMap<>();
+        for (String symbol : upperCase(cryptoSymbols)) {
+            snapshots.put(symbol, new QuoteSnapshot(symbol, exchangeNames));
+        }
+        for (Map.Entry<String, Map<String, TimedQuote>> exchange : batchQuotes(snapshots.keySet()).entrySet()) {
+            for (Map.Entry<String, TimedQuote> quote : exchange.getValue().entrySet()) {
+                QuoteSnapshot snapshot = snapshots.get(quote.getKey());
+                snapshot.set(snapshot.slotOf(exchange.getKey()), quote.getValue().price(),
+                        quote.getValue().timestampMs());
+            }
+        }
+        return snapshots;
+    }
+
+    private static Set<String> upperCase(Collection<String> cryptoSymbols) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (String symbol : cryptoSymbols) {
+            symbols.add(symbol.toUpperCase());
+        }
+        return symbols;
+    }
+
+    // exchange -> (symbol -> quote) for every exchange that answered in time
+    private Map<String, Map<String, TimedQuote>> batchQuotes(Set<String> symbols) {
+        Map<String, Map<String, TimedQuote>> quotes = new LinkedHashMap<>();
+        if (symbols.isEmpty()) {
+            return quotes;
+        }
+        
+        QuoteCurrency target = quoteCurrency;
+        awaitFxRates(FX_FIRST_LOAD_WAIT_MS);
+        Map<String, ExchangeRegistry.Outcome<Map<String, TimedQuote>>> outcomes =
+                registry.invokeAll(adapter -> quotes(adapter, symbols, target), BATCH_DEADLINE_MS);
+        
+        for (Map.Entry<String, ExchangeRegistry.Outcome<Map<String, TimedQuote>>> entry : outcomes.entrySet()) {
+            String exchange = entry.getKey();
+            ExchangeRegistry.Outcome<Map<String, TimedQuote>> outcome = entry.getValue();
+            if (outcome.getStatus() != FetchStatus.OK) {
+                System.err.println("Error fetching from " + exchange + ": " + outcome.getStatus());
+                continue;
+            }
+            quotes.put(exchange, outcome.getValue());
+        }
+        
+        return quotes;
     }
     
-    private String executeHttpGet(String url) throws IOException {
-        try (CloseableHttpClient client = HttpClients.createDefault()) {
-            HttpGet request = new HttpGet(url);
-            try (CloseableHttpResponse response = client.execute(request)) {
-                try {
-                    return EntityUtils.toString(response.getEntity());
-                } catch (org.apache.hc.core5.http.ParseException e) {
-                    throw new IOException("Failed to parse HTTP response", e);
-                }
+    private <T> T executeHttpGet(String requestedUrl, HttpFetcher.ResponseParser<T> parser) throws IOException {
+        String url = rewriteEndpoint(requestedUrl);
+        HttpGet request = new HttpGet(url);
+        requestCount.incrementAndGet();
+        // The parser reads straight from the body; the client drains whatever it
+        // leaves unread so the connection can go back to the pool for reuse
+        return httpClient.execute(request, response -> {
+            // 429 is a rate-limit warning, 418 means Binance has already banned the IP
+            if (response.getCode() == 429 || response.getCode() == 418) {
+                throw new RateLimitedException("HTTP " + response.getCode() + " from " + url,
+                        retryAfterMs(response.getFirstHeader("Retry-After")));
             }
+            if (response.getCode() >= 400) {
+                throw new IOException("HTTP " + response.getCode() + " from " + url);
+            }
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new IOException("Empty response from " + url);
+            }
+            return parser.parse(entity.getContent());
+        });
+    }
+
+    private String rewriteEndpoint(String url) {
+        for (Map.Entry<String, String> override : endpointOverrides.entrySet()) {
+            if (url.startsWith(override.getKey())) {
+                return override.getValue() + url.substring(override.getKey().length());
+            }
+        }
+        return url;
+    }
+
+    // Replaces the HTTP transport every adapter, listing and rate request goes through,
+    // e.g. with a Replayer's; null restores the pooled client
+    public void setHttpTransport(HttpFetcher transport) {
+        httpFetcher = transport == null ? networkFetcher : transport;
+    }
+
+    public HttpFetcher getHttpTransport() {
+        return httpFetcher;
+    }
+
+    // Writes every HTTP response and every published quote to a compressed replay log
+    // until stopRecording, so the session can be played back offline with a Replayer
+    public synchronized void startRecording(Path file) throws IOException {
+        if (recorder != null) {
+            throw new IllegalStateException("Already recording");
+        }
+        recorder = new ReplayRecorder(file, this::getQuoteCurrency);
+        transportBeforeRecording = httpFetcher;
+        httpFetcher = recorder.recording(transportBeforeRecording);
+        quoteListeners.add(recorder);
+    }
+
+    public synchronized void stopRecording() throws IOException {
+        if (recorder == null) return;
+        quoteListeners.remove(recorder);
+        httpFetcher = transportBeforeRecording;
+        recorder.close();
+        recorder = null;
+    }
+
+    // Publishes a recorded quote to the listeners as if it had just arrived; the price is
+    // in currency and converted to the quote currency like any other quote
+    public void publishRecordedQuote(String exchange, String symbol, double price, QuoteCurrency currency,
+                                     long timestampMs) {
+        QuoteCurrency target = quoteCurrency;
+        publishQuote(exchange, symbol, currency == target ? price : fxRates.convert(price, currency, target),
+                timestampMs);
+    }
+
+    // Sends requests for one base URL somewhere else, e.g. "https://api.binance.com"
+    // to a local stub server for benchmarks and offline runs
+    public void setEndpointOverride(String baseUrl, String replacementBaseUrl) {
+        if (replacementBaseUrl == null) {
+            endpointOverrides.remove(baseUrl);
+        } else {
+            endpointOverrides.put(baseUrl, replacementBaseUrl);
+        }
+    }
+
+    private static long retryAfterMs(Header retryAfter) {
+        if (retryAfter != null) {
+            try {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.getValue().trim()));
+            } catch (NumberFormatException e) {
+                // HTTP-date form; fall through to the default back-off
+            }
+        }
+        return DEFAULT_RETRY_AFTER_MS;
+    }
+
+    // Number of requests served over an already open, pooled connection
+    public long getPoolHits() {
+        return Math.max(0, requestCount.get() - connectionsOpened.get());
+    }
+
+    // Number of requests that had to open a fresh connection (TCP + TLS handshake)
+    public long getPoolMisses() {
+        return connectionsOpened.get();
+    }
+
+    // Attach (or detach with null) a streaming feed; exchanges it covers are then
+    // read from memory while the others keep using cached REST lookups
+    public void setPriceFeed(StreamingPriceFeed priceFeed) {
+        StreamingPriceFeed previous = this.priceFeed;
+        if (previous != null) {
+            previous.removeListener(feedForwarder);
+        }
+        this.priceFeed = priceFeed;
+        if (priceFeed != null) {
+            // Streamed prices are converted as they arrive, so rates must be loading
+            fxRates.start();
+            priceFeed.addListener(feedForwarder);
+        }
+    }
+
+    public StreamingPriceFeed getPriceFeed() {
+        return priceFeed;
+    }
+
+    // Listeners see every freshly fetched REST quote and every streamed feed quote;
+    // cache hits are not repeated
+    public void addQuoteListener(QuoteListener listener) {
+        quoteListeners.add(listener);
+    }
+
+    public void removeQuoteListener(QuoteListener listener) {
+        quoteListeners.remove(listener);
+    }
+
+    private void publishQuote(String exchange, String symbol, double price, long timestampMs) {
+        // No rate yet for the pair currency
+        if (Double.isNaN(price)) return;
+        for (QuoteListener listener : quoteListeners) {
+            try {
+                listener.onQuote(exchange, symbol, price, timestampMs);
+            } catch (RuntimeException e) {
+                System.err.println("Error in quote listener: " + e.getMessage());
+            }
+        }
+    }
+
+    // Streamed prices arrive in the stream's pair currency
+    private void publishFeedQuote(String exchange, String symbol, double price, long timestampMs) {
+        StreamingPriceFeed feed = priceFeed;
+        QuoteCurrency pairCurrency = feed == null ? null : feed.getQuoteCurrency(exchange);
+        if (pairCurrency == null) return;
+        publishQuote(exchange, symbol, fxRates.convert(price, pairCurrency, quoteCurrency), timestampMs);
+    }
+
+    // Currency for every price the service returns or publishes from now on. Quotes
+    // already delivered to listeners are not converted, so listeners that keep state
+    // across quotes see both currencies until each exchange has quoted again.
+    public void setQuoteCurrency(QuoteCurrency quoteCurrency) {
+        this.quoteCurrency = quoteCurrency;
+    }
+
+    public QuoteCurrency getQuoteCurrency() {
+        return quoteCurrency;
+    }
+
+    // Conversion rates between quote currencies, refreshed in the background once in use
+    public FxRateTable getFxRates() {
+        return fxRates;
+    }
+
+    // Starts the rate refresh on first use and, only until the first load has finished,
+    // waits for it; afterwards this returns at once and conversions never do I/O
+    private void awaitFxRates(long maxWaitMs) {
+        fxRates.start();
+        fxRates.awaitFirstRefresh(maxWaitMs);
+    }
+
+    // USD value of every quote currency, from the inverse of Coinbase's USD rate table
+    private Map<QuoteCurrency, Double> fetchUsdValues() throws IOException {
+        Set<String> codes = new HashSet<>();
+        for (QuoteCurrency currency : QuoteCurrency.values()) {
+            codes.add(currency.name());
+        }
+        Map<String, Double> perUsd = httpFetcher.get(FX_RATES_URL, body -> ResponseParsers.coinbaseRates(body, codes));
+        Map<QuoteCurrency, Double> usdValues = new EnumMap<>(QuoteCurrency.class);
+        for (Map.Entry<String, Double> rate : perUsd.entrySet()) {
+            if (rate.getValue() > 0) {
+                usdValues.put(QuoteCurrency.valueOf(rate.getKey()), 1.0 / rate.getValue());
+            }
+        }
+        return usdValues;
+    }
+
+    // Attach a local history store; live quotes from the history source are recorded into it
+    public void setHistoryStore(TimeSeriesStore store) {
+        if (historyRecorder != null) {
+            removeQuoteListener(historyRecorder);
+            historyRecorder = null;
+        }
+        this.historyStore = store;
+        ExchangeAdapter source = historySource();
+        if (store != null && source != null) {
+            HistoryRecorder recorder = new HistoryRecorder(store, source.getName(), LIVE_HISTORY_INTERVAL_MS);
+            // The store keeps USD prices whatever currency quotes are published in
+            historyRecorder = (exchange, symbol, price, timestampMs) -> recorder.onQuote(exchange, symbol,
+                    fxRates.convert(price, quoteCurrency, QuoteCurrency.USD), timestampMs);
+            addQuoteListener(historyRecorder);
         }
     }
+
+    public TimeSeriesStore getHistoryStore() {
+        return historyStore;
+    }
+
+    // Incrementally maintained spreads and threshold subscriptions for arbitrage monitoring
+    public SpreadEngine getSpreadEngine() {
+        return spreadEngine;
+    }
+
+    public AlertEngine getAlertEngine() {
+        return alertEngine;
+    }
+
+    // Call start() on it to keep watched and alerted symbols fresh within each exchange's budget
+    public AdaptivePollScheduler getPollScheduler() {
+        return pollScheduler;
+    }
+
+    // Hit, miss and coalesce counters live on the cache itself
+    public QuoteCache<?, ?> getQuoteCache() {
+        return quoteCache;
+    }
+
+    public QuoteCache<?, ?> getBookCache() {
+        return bookCache;
+    }
+
+    // Per-exchange latency histograms, bytes, parse time, outcomes and quote age;
+    // switch on with getMetrics().setEnabled(true)
+    public FetchMetrics getMetrics() {
+        return registry.getMetrics();
+    }
+
+    // Per-exchange market listings used to resolve symbols to each exchange's pair id
+    public SymbolRegistry getSymbolRegistry() {
+        return symbolRegistry;
+    }
+
+    // Adapter list, runtime enable/disable and per-adapter statistics
+    public ExchangeRegistry getExchangeRegistry() {
+        return registry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pollScheduler.close();
+        stopRecording();
+        symbolRegistry.close();
+        fxRates.close();
+        registry.close();
+        httpClient.close();
+        connectionManager.close();
+    }
     
     public String findBestExchange(Map<String, Double> prices) {
+        if (getMetrics().isEnabled()) {
+            getMetrics().recordBestExchangeDecision(prices.size(), registry.getEnabledAdapters().size());
+        }
         return prices.entrySet().stream()
                 .min(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse("Unknown");
     }
 
-    private Double getKrakenPrice(String symbol) throws IOException {
-        // Fix Kraken symbol format
-        String krakenSymbol = convertToKrakenSymbol(symbol);
-        String url = "https://api.kraken.com/0/public/Ticker?pair=" + krakenSymbol + "USD";
-        String response = executeHttpGet(url);
-        JsonNode root = mapper.readTree(response);
-        
-        // Check for errors
-        if (root.has("error") && root.get("error").size() > 0) {
-            throw new IOException("Kraken API error: " + root.get("error").toString());
+    public String findBestExchange(QuoteSnapshot snapshot) {
+        if (getMetrics().isEnabled()) {
+            getMetrics().recordBestExchangeDecision(snapshot.count(), registry.getEnabledAdapters().size());
         }
-        
-        // Handle Kraken's specific response format
-        JsonNode result = root.get("result");
-        if (result == null || result.isEmpty()) {
-            throw new IOException("No result data from Kraken API");
+        int best = snapshot.bestSlot();
+        return best < 0 ? "Unknown" : snapshot.getExchange(best);
+    }
+
+    // Venue with the best average fill for the whole quantity: the lowest for a BUY,
+    // the highest for a SELL. Venues too thin to fill it are passed over.
+    public String findBestExchange(DepthComparison depth, OrderSide side, double quantity) {
+        if (getMetrics().isEnabled()) {
+            getMetrics().recordBestExchangeDecision(depth.count(), depth.getStatuses().size());
         }
-        
-        // Kraken uses different pair naming conventions
-        String pairName = null;
-        Iterator<String> fieldNames = result.fieldNames();
-        if (fieldNames.hasNext()) {
-            pairName = fieldNames.next();
-        } else {
-            throw new IOException("No trading pair found in Kraken response");
+        int best = depth.bestSlot(side, quantity);
+        return best < 0 ? "Unknown" : depth.getExchange(best);
+    }
+
+    // Price points for the last N days, oldest first, in the quote currency. With a
+    // history store attached, stored points are reused and only the missing range is fetched.
+    public PriceSeries getHistoricalSeries(String symbol, int days) throws IOException {
+        QuoteCurrency target = quoteCurrency;
+        if (target != QuoteCurrency.USD) {
+            awaitFxRates(FX_FIRST_LOAD_WAIT_MS);
         }
-        
-        return result.get(pairName).get("c").get(0).asDouble();
+        return fromUsd(getUsdHistory(symbol, days), target);
     }
 
-    private String convertToKrakenSymbol(String symbol) {
-        // Kraken has specific symbol formats
-        return switch (symbol.toUpperCase()) {
-            case "BTC" -> "XBT";  // Kraken uses XBT instead of BTC
-            case "DOGE" -> "XDG"; // Kraken uses XDG for Dogecoin
-            case "ADA" -> "ADA";
-            case "ETH" -> "ETH";
-            case "SOL" -> "SOL";
-            case "DOT" -> "DOT";
-            case "XRP" -> "XRP";
-            case "LTC" -> "LTC";
-            case "LINK" -> "LINK";
-            case "UNI" -> "UNI";
-            case "MATIC" -> "MATIC";
-            case "AVAX" -> "AVAX";
-            default -> symbol.toUpperCase();
-        };
+    // History is fetched and stored in USD and converted at the current rate on the way out
+    private PriceSeries fromUsd(PriceSeries usd, QuoteCurrency target) throws IOException {
+        return convert(usd, QuoteCurrency.USD, target);
     }
 
-    private Double getCoinbasePrice(String symbol) throws IOException {
-        String url = "https://api.coinbase.com/v2/prices/" + symbol.toUpperCase() + "-USD/spot";
-        String response = executeHttpGet(url);
-        JsonNode root = mapper.readTree(response);
-        return root.get("data").get("amount").asDouble();
+    private PriceSeries convert(PriceSeries series, QuoteCurrency from, QuoteCurrency to) throws IOException {
+        if (from == to) return series;
+        double rate = fxRates.getRate(from, to);
+        if (Double.isNaN(rate)) {
+            throw new IOException("No " + from + "/" + to + " rate for price history");
+        }
+        PriceSeries converted = new PriceSeries(series.size());
+        for (int i = 0; i < series.size(); i++) {
+            converted.add(series.getTimestamp(i), series.getPrice(i) * rate);
+        }
+        return converted;
     }
 
-    public Map<Date, Double> getHistoricalPrices(String symbol, int days) throws IOException {
-        // Use CoinGecko for historical data
-        String coinId = convertToCoinGeckoId(symbol);
-        long endTime = System.currentTimeMillis() / 1000;
-        long startTime = endTime - TimeUnit.DAYS.toSeconds(days);
+    private PriceSeries getUsdHistory(String symbol, int days) throws IOException {
+        long endMs = System.currentTimeMillis();
+        long startMs = endMs - TimeUnit.DAYS.toMillis(days);
         
-        String url = "https://api.coingecko.com/api/v3/coins/" + coinId + 
-                "/market_chart/range?vs_currency=usd&from=" + startTime + "&to=" + endTime;
+        TimeSeriesStore store = historyStore;
+        if (store == null) {
+            return fetchHistory(symbol, startMs, endMs);
+        }
         
-        String response = executeHttpGet(url);
-        JsonNode root = mapper.readTree(response);
-        JsonNode prices = root.get("prices");
+        // Points can be this far apart at the source's resolution without leaving a gap
+        long tolerance = 2 * historyResolutionMs(days);
+        long coveredFrom = store.coveredFrom(symbol);
+        long backfilledTo = store.backfilledTo(symbol);
+        if (coveredFrom > startMs + tolerance) {
+            // Backfilled data does not reach back far enough: fetch the whole range and merge
+            store.merge(symbol, fetchHistory(symbol, startMs, endMs), startMs, endMs);
+        } else if (endMs - backfilledTo > tolerance) {
+            // Refetch everything since the last backfill, not since the last stored point:
+            // live points recorded after it do not mean the time in between is covered
+            store.merge(symbol, fetchHistory(symbol, backfilledTo + 1, endMs), coveredFrom, endMs);
+        }
+        return store.read(symbol, startMs, endMs);
+    }
+    
+    // CoinGecko's history is aggregated across venues and reaches back years, so it is the
+    // one source charted and stored while enabled. The exchanges' own candles are only
+    // pooled by getHistoricalOhlcAcrossExchanges.
+    private ExchangeAdapter historySource() {
+        if (registry.isEnabled(PRIMARY_HISTORY_SOURCE)
+                && registry.getAdapter(PRIMARY_HISTORY_SOURCE).supports(Capability.HISTORY)) {
+            return registry.getAdapter(PRIMARY_HISTORY_SOURCE);
+        }
+        return registry.findAdapter(Capability.HISTORY);
+    }
+
+    private PriceSeries fetchHistory(String symbol, long startMs, long endMs) throws IOException {
+        ExchangeAdapter adapter = historySource();
+        if (adapter == null) {
+            throw new IOException("No enabled exchange provides price history");
+        }
+        return fetchHistory(adapter, symbol, startMs, endMs);
+    }
+
+    private PriceSeries fetchHistory(ExchangeAdapter adapter, String symbol, long startMs, long endMs)
+            throws IOException {
+        Market market = market(adapter, symbol, QuoteCurrency.USD);
+        long startTime = TimeUnit.MILLISECONDS.toSeconds(startMs);
+        long endTime = TimeUnit.MILLISECONDS.toSeconds(endMs);
         
-        Map<Date, Double> historicalData = new LinkedHashMap<>();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        int days = (int) Math.max(1, TimeUnit.MILLISECONDS.toDays(endMs - startMs));
+        PriceSeries series = new PriceSeries(days * 24 + 1);
+        registry.call(adapter, a -> {
+            a.fetchHistory(market, startTime, endTime, registry.fetcherFor(a, httpFetcher), series::add);
+            return null;
+        });
+        // Binance has no USD pairs, so its USDT candles are converted like its quotes
+        if (market.getQuote() != QuoteCurrency.USD) {
+            awaitFxRates(FX_FIRST_LOAD_WAIT_MS);
+        }
+        return convert(series, market.getQuote(), QuoteCurrency.USD);
+    }
+    
+    // CoinGecko returns 5-minute points within a day, hourly up to 90 days and daily
+    // beyond, and the exchanges' candles are requested at the same spacing
+    private static long historyResolutionMs(int days) {
+        if (days <= 1) return TimeUnit.MINUTES.toMillis(5);
+        if (days <= 90) return TimeUnit.HOURS.toMillis(1);
+        return TimeUnit.DAYS.toMillis(1);
+    }
+
+    // Last N days in buckets of the given resolution, in the quote currency
+    public OhlcSeries getHistoricalOhlc(String symbol, int days, Resolution resolution) throws IOException {
+        return historyAggregator.aggregate(getHistoricalSeries(symbol, days), resolution);
+    }
+
+    // Last N days from every exchange that provides history (CoinGecko plus Binance,
+    // Kraken and Coinbase candles), fetched in parallel and pooled into one set of
+    // buckets. Exchanges that fail, time out or do not list the symbol are left out.
+    // Always fetched; the history store only holds the primary source.
+    public OhlcSeries getHistoricalOhlcAcrossExchanges(String symbol, int days, Resolution resolution,
+                                                      long deadlineMs) throws IOException {
+        QuoteCurrency target = quoteCurrency;
+        if (target != QuoteCurrency.USD) {
+            awaitFxRates(Math.min(deadlineMs, FX_FIRST_LOAD_WAIT_MS));
+        }
+        long endMs = System.currentTimeMillis();
+        long startMs = endMs - TimeUnit.DAYS.toMillis(days);
+        Map<String, ExchangeRegistry.Outcome<PriceSeries>> outcomes = registry.invokeAll(Capability.HISTORY,
+                adapter -> fetchHistory(adapter, symbol, startMs, endMs), deadlineMs);
         
-        for (JsonNode pricePoint : prices) {
-            try {
-                long timestamp = pricePoint.get(0).asLong();
-                double price = pricePoint.get(1).asDouble();
-                
-                Date date = new Date(timestamp);
-                String dateKey = dateFormat.format(date);
-                
-                // Group by day (take the last price of each day)
-                historicalData.put(dateFormat.parse(dateKey), price);
-            } catch (ParseException e) {
-                // Log the error but continue processing other data points
-                System.err.println("Error parsing date: " + e.getMessage());
+        List<PriceSeries> sources = new ArrayList<>();
+        for (Map.Entry<String, ExchangeRegistry.Outcome<PriceSeries>> entry : outcomes.entrySet()) {
+            ExchangeRegistry.Outcome<PriceSeries> outcome = entry.getValue();
+            if (outcome.getStatus() == FetchStatus.OK) {
+                sources.add(fromUsd(outcome.getValue(), target));
+            } else if (outcome.getStatus() == FetchStatus.ERROR) {
+                System.err.println("Error fetching history from " + entry.getKey() + ": " + outcome.getError().getMessage());
             }
         }
+        if (sources.isEmpty()) {
+            throw new IOException("No exchange returned price history for " + symbol);
+        }
+        return historyAggregator.aggregate(sources, resolution);
+    }
+
+    // Closing price of each day (UTC), keyed by the start of the day
+    public Map<Date, Double> getHistoricalPrices(String symbol, int days) throws IOException {
+        OhlcSeries daily = getHistoricalOhlc(symbol, days, Resolution.DAY);
         
+        Map<Date, Double> historicalData = new LinkedHashMap<>();
+        for (int i = 0; i < daily.size(); i++) {
+            historicalData.put(new Date(daily.getStart(i)), daily.getClose(i));
+        }
         return historicalData;
     }
 }
@@ -0,0 +1,63 @@
+package org.studyeasy.service;
+
+import java.util.Arrays;
+
+// Time-ordered price points held in parallel primitive arrays (epoch millis, price)
+public class PriceSeries {
+    private long[] timestamps;
+    private double[] prices;
+    private int size;
+
+    public PriceSeries() {
+        this(64);
+    }
+
+    public PriceSeries(int initialCapacity) {
+        timestamps = new long[Math.max(1, initialCapacity)];
+        prices = new double[Math.max(1, initialCapacity)];
+    }
+
+    public void add(long timestamp, double price) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+        timestamps[size] = timestamp;
+        prices[size] = price;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public double getPrice(int index) {
+        return prices[index];
+    }
+
+    public long getFirstTimestamp() {
+        return size == 0 ? 0 : timestamps[0];
+    }
+
+    public long getLastTimestamp() {
+        return size == 0 ? 0 : timestamps[size - 1];
+    }
+
+    // Backing arrays for tight loops; only the first size() entries are valid
+    public long[] timestampArray() {
+        return timestamps;
+    }
+
+    public double[] priceArray() {
+        return prices;
+    }
+}
@@ -0,0 +1,163 @@
+package org.studyeasy.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache with a fixed time-to-live. Concurrent misses for the same
+// key are coalesced so only one caller runs the loader and the rest wait on it.
+public class QuoteCache<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws IOException;
+    }
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public QuoteCache(long ttlMs, int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        // Access-ordered map evicts the least recently used entry once full
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public V get(K key, Loader<V> loader) throws IOException {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have finished loading between the lookup and claiming the key
+            cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                mine.complete(cached);
+                return cached;
+            }
+
+            misses.incrementAndGet();
+            V value = loader.load();
+            put(key, value);
+            mine.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // Errors too, or callers waiting on this load would block forever
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Returns a fresh value or null, counting the lookup as a hit or a miss
+    public V getIfPresent(K key) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return cached;
+    }
+
+    // Milliseconds since the entry was loaded, or -1 when there is none
+    public long getAgeMs(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry == null ? -1 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.loadedAt);
+        }
+    }
+
+    public void put(K key, V value) {
+        if (value == null) return;
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private V lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) return null;
+            if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    private V await(CompletableFuture<V> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an in-flight request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+}
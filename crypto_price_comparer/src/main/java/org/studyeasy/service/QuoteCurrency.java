@@ -0,0 +1,33 @@
+package org.studyeasy.service;
+
+// Currencies prices can be compared in. Exchanges quote pairs in whichever of
+// these they list, and the service converts to the one selected.
+public enum QuoteCurrency {
+    USD("$"),
+    USDT("USDT "),
+    USDC("USDC "),
+    EUR("€");
+
+    private final String prefix;
+
+    QuoteCurrency(String prefix) {
+        this.prefix = prefix;
+    }
+
+    // Written before amounts, e.g. "$" or "USDT "
+    public String getPrefix() {
+        return prefix;
+    }
+
+    // Currency for an exchange's asset code such as "USDT", or null when it is not one of these
+    public static QuoteCurrency fromCode(String code) {
+        for (QuoteCurrency currency : values()) {
+            if (currency.name().equalsIgnoreCase(code)) return currency;
+        }
+        return null;
+    }
+
+    public boolean isStablecoin() {
+        return this == USDT || this == USDC;
+    }
+}
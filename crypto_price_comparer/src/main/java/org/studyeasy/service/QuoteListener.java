@@ -0,0 +1,7 @@
+package org.studyeasy.service;
+
+// Receives every new exchange quote as it arrives, from REST lookups or streaming feeds
+@FunctionalInterface
+public interface QuoteListener {
+    void onQuote(String exchange, String symbol, double price, long timestampMs);
+}
@@ -0,0 +1,122 @@
+package org.studyeasy.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Latest price and timestamp per exchange for one symbol, stored in primitive
+// arrays indexed by exchange slot. Missing quotes are NaN. The best/worst/spread
+// lookups are plain array scans and allocate nothing.
+public class QuoteSnapshot {
+    private final String symbol;
+    private final String[] exchanges;
+    private final double[] prices;
+    private final long[] timestamps;
+
+    public QuoteSnapshot(String symbol, String[] exchanges) {
+        this.symbol = symbol;
+        this.exchanges = exchanges;
+        this.prices = new double[exchanges.length];
+        this.timestamps = new long[exchanges.length];
+        Arrays.fill(prices, Double.NaN);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return exchanges.length;
+    }
+
+    public String getExchange(int slot) {
+        return exchanges[slot];
+    }
+
+    public int slotOf(String exchange) {
+        for (int i = 0; i < exchanges.length; i++) {
+            if (exchanges[i].equals(exchange)) return i;
+        }
+        return -1;
+    }
+
+    public void set(int slot, double price, long timestamp) {
+        prices[slot] = price;
+        timestamps[slot] = timestamp;
+    }
+
+    public void clear(int slot) {
+        prices[slot] = Double.NaN;
+        timestamps[slot] = 0;
+    }
+
+    public boolean hasPrice(int slot) {
+        return !Double.isNaN(prices[slot]);
+    }
+
+    public double getPrice(int slot) {
+        return prices[slot];
+    }
+
+    public long getTimestamp(int slot) {
+        return timestamps[slot];
+    }
+
+    // Number of exchanges that currently have a quote
+    public int count() {
+        int count = 0;
+        for (double price : prices) {
+            if (!Double.isNaN(price)) count++;
+        }
+        return count;
+    }
+
+    // Slot with the lowest price, or -1 when there are no quotes
+    public int bestSlot() {
+        int best = -1;
+        for (int i = 0; i < prices.length; i++) {
+            if (!Double.isNaN(prices[i]) && (best < 0 || prices[i] < prices[best])) best = i;
+        }
+        return best;
+    }
+
+    // Slot with the highest price, or -1 when there are no quotes
+    public int worstSlot() {
+        int worst = -1;
+        for (int i = 0; i < prices.length; i++) {
+            if (!Double.isNaN(prices[i]) && (worst < 0 || prices[i] > prices[worst])) worst = i;
+        }
+        return worst;
+    }
+
+    // Highest minus lowest price, or NaN with fewer than two quotes
+    public double spread() {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        int count = 0;
+        for (double price : prices) {
+            if (Double.isNaN(price)) continue;
+            if (price < min) min = price;
+            if (price > max) max = price;
+            count++;
+        }
+        return count < 2 ? Double.NaN : max - min;
+    }
+
+    // Spread relative to the lowest price, in basis points
+    public double spreadBps() {
+        int best = bestSlot();
+        double spread = spread();
+        if (best < 0 || Double.isNaN(spread) || prices[best] <= 0) return Double.NaN;
+        return spread / prices[best] * 10000;
+    }
+
+    // Boxed view for callers that still work with exchange -> price maps
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new HashMap<>();
+        for (int i = 0; i < prices.length; i++) {
+            if (!Double.isNaN(prices[i])) map.put(exchanges[i], prices[i]);
+        }
+        return map;
+    }
+}
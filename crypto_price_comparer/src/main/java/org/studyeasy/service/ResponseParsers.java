@@ -0,0 +1,526 @@
+package org.studyeasy.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Streaming parsers for exchange REST responses. Each one reads straight from
+// the response body and pulls out only the fields it needs, skipping everything
+// else without building a String or a JsonNode tree.
+public final class ResponseParsers {
+    // The HTTP client drains and releases the body itself, so parsers must not close it
+    private static final JsonFactory FACTORY = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+    @FunctionalInterface
+    public interface PricePointConsumer {
+        void accept(long timestamp, double price);
+    }
+
+    // One listed pair: base and quote asset as the exchange names them, the exchange's
+    // id for the pair and, where the listing has one, a display name
+    @FunctionalInterface
+    public interface MarketConsumer {
+        void accept(String base, String quote, String id, String name);
+    }
+
+    private ResponseParsers() {
+    }
+
+    // {"symbol":"BTCUSDT","price":"64000.01"}
+    public static double binancePrice(InputStream body) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            if (!seekField(parser, "price")) {
+                throw new IOException("No price in Binance response");
+            }
+            return parser.getValueAsDouble();
+        }
+    }
+
+    // [{"symbol":"BTCUSDT","price":"64000.01"}, ...], keeping only the wanted pairs
+    public static Map<String, Double> binancePrices(InputStream body, Set<String> pairs) throws IOException {
+        Map<String, Double> prices = new HashMap<>();
+        try (JsonParser parser = open(body, JsonToken.START_ARRAY)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String symbol = null;
+                double price = Double.NaN;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("symbol".equals(field)) {
+                        symbol = parser.getText();
+                    } else if ("price".equals(field)) {
+                        price = parser.getValueAsDouble();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (symbol != null && pairs.contains(symbol)) {
+                    prices.put(symbol, price);
+                }
+            }
+        }
+        return prices;
+    }
+
+    // {"bitcoin":{"usd":64000.0},"ethereum":{"usd":3100.0}}
+    public static Map<String, Double> coinGeckoPrices(InputStream body) throws IOException {
+        return coinGeckoPrices(body, "usd");
+    }
+
+    // Same, for the lower-case vs_currency that was requested
+    public static Map<String, Double> coinGeckoPrices(InputStream body, String vsCurrency) throws IOException {
+        Map<String, Double> prices = new HashMap<>();
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String coinId = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && seekField(parser, vsCurrency)) {
+                    prices.put(coinId, parser.getValueAsDouble());
+                    skipRestOfObject(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return prices;
+    }
+
+    // {"error":[],"result":{"XXBTZUSD":{"c":["64000.1","0.01"], ...}}}
+    // Returns the last trade price per Kraken pair name
+    public static Map<String, Double> krakenLastPrices(InputStream body) throws IOException {
+        Map<String, Double> prices = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("error".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        errors.add(parser.getText());
+                    }
+                } else if ("result".equals(field) && token == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String pair = parser.getCurrentName();
+                        if (parser.nextToken() == JsonToken.START_OBJECT && seekField(parser, "c")
+                                && parser.currentToken() == JsonToken.START_ARRAY) {
+                            parser.nextToken();
+                            prices.put(pair, parser.getValueAsDouble());
+                            parser.skipChildren();
+                            // Step past the rest of the "c" array, then the rest of the pair object
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                parser.skipChildren();
+                            }
+                            skipRestOfObject(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (prices.isEmpty() && !errors.isEmpty()) {
+            throw new KrakenApiException(errors);
+        }
+        return prices;
+    }
+
+    // {"data":{"base":"BTC","currency":"USD","amount":"64000.00"}}
+    public static double coinbaseSpotPrice(InputStream body) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            if (!seekField(parser, "data") || parser.currentToken() != JsonToken.START_OBJECT
+                    || !seekField(parser, "amount")) {
+                throw new IOException("No amount in Coinbase response");
+            }
+            return parser.getValueAsDouble();
+        }
+    }
+
+    // {"data":{"currency":"USD","rates":{"BTC":"0.0000156", ...}}}, keeping only the wanted assets
+    public static Map<String, Double> coinbaseRates(InputStream body, Set<String> assets) throws IOException {
+        Map<String, Double> rates = new HashMap<>();
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            if (!seekField(parser, "data") || parser.currentToken() != JsonToken.START_OBJECT
+                    || !seekField(parser, "rates") || parser.currentToken() != JsonToken.START_OBJECT) {
+                throw new IOException("No rates in Coinbase response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String asset = parser.getCurrentName();
+                parser.nextToken();
+                if (assets.contains(asset)) {
+                    rates.put(asset, parser.getValueAsDouble());
+                }
+            }
+        }
+        return rates;
+    }
+
+    // {"prices":[[1700000000000,64000.0], ...],"market_caps":[...],"total_volumes":[...]}
+    public static void coinGeckoHistory(InputStream body, PricePointConsumer consumer) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            if (!seekField(parser, "prices") || parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("No prices in CoinGecko history response");
+            }
+            while (parser.nextToken() == JsonToken.START_ARRAY) {
+                parser.nextToken();
+                long timestamp = parser.getValueAsLong();
+                parser.nextToken();
+                double price = parser.getValueAsDouble();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                }
+                consumer.accept(timestamp, price);
+            }
+        }
+    }
+
+    // [[1700000000000,"64000.0","64100.0","63900.0","64050.0","12.5",1700003599999, ...], ...]
+    // One point per kline: its open time and open price. Returns the number of klines.
+    public static int binanceKlines(InputStream body, PricePointConsumer consumer) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_ARRAY)) {
+            return readCandles(parser, 1, 1, consumer);
+        }
+    }
+
+    // {"error":[],"result":{"XXBTZUSD":[[1700000000,"64000.0","64100.0", ...], ...],"last":1700086400}}
+    // One point per candle: its open time (in seconds on the wire) and open price
+    public static void krakenOhlc(InputStream body, PricePointConsumer consumer) throws IOException {
+        List<String> errors = new ArrayList<>();
+        boolean found = false;
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("error".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        errors.add(parser.getText());
+                    }
+                } else if ("result".equals(field) && token == JsonToken.START_OBJECT) {
+                    // The pair's candles under Kraken's name for it, next to the "last" cursor
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        if (parser.nextToken() == JsonToken.START_ARRAY && !found) {
+                            readCandles(parser, 1000, 1, consumer);
+                            found = true;
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (!found) {
+            if (!errors.isEmpty()) {
+                throw new KrakenApiException(errors);
+            }
+            throw new IOException("No candles in Kraken response");
+        }
+    }
+
+    // [[1700003600,63900.0,64100.0,64000.0,64050.0,12.5], ...] as time, low, high, open,
+    // close, volume, newest first. One point per candle: its open time and open price,
+    // in the order Coinbase sends them.
+    public static void coinbaseCandles(InputStream body, PricePointConsumer consumer) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_ARRAY)) {
+            readCandles(parser, 1000, 3, consumer);
+        }
+    }
+
+    // {"lastUpdateId":1027024,"bids":[["64000.00","0.431"], ...],"asks":[["64000.01","1.2"], ...]}
+    public static OrderBook binanceDepth(InputStream body, OrderBook book) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            readBookSides(parser, book, Integer.MAX_VALUE);
+        }
+        return book;
+    }
+
+    // {"error":[],"result":{"XXBTZUSD":{"asks":[["64000.1","1.000",1700000000], ...],"bids":[...]}}}
+    public static OrderBook krakenDepth(InputStream body, OrderBook book) throws IOException {
+        List<String> errors = new ArrayList<>();
+        boolean found = false;
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("error".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        errors.add(parser.getText());
+                    }
+                } else if ("result".equals(field) && token == JsonToken.START_OBJECT) {
+                    // One pair was requested, under Kraken's own name for it
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        if (parser.nextToken() == JsonToken.START_OBJECT && !found) {
+                            readBookSides(parser, book, Integer.MAX_VALUE);
+                            found = true;
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (!found) {
+            if (!errors.isEmpty()) {
+                throw new KrakenApiException(errors);
+            }
+            throw new IOException("No order book in Kraken response");
+        }
+        return book;
+    }
+
+    // {"bids":[["64000.00","0.5",3], ...],"asks":[...],"sequence":123,"time":"..."}
+    // Level 2 carries the whole aggregated book, so parsing stops once both sides have maxLevels
+    public static OrderBook coinbaseBook(InputStream body, OrderBook book, int maxLevels) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            readBookSides(parser, book, maxLevels);
+        }
+        if (book.levels(OrderSide.BUY) == 0 && book.levels(OrderSide.SELL) == 0) {
+            throw new IOException("No order book in Coinbase response");
+        }
+        return book;
+    }
+
+    // {"symbols":[{"symbol":"BTCUSDT","status":"TRADING","baseAsset":"BTC","quoteAsset":"USDT",
+    // "filters":[...], ...}, ...]}; pairs that are not trading are left out
+    public static void binanceExchangeInfo(InputStream body, MarketConsumer consumer) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            if (!seekField(parser, "symbols") || parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("No symbols in Binance exchangeInfo response");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String status = null;
+                String base = null;
+                String quote = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "symbol" -> id = parser.getText();
+                        case "status" -> status = parser.getText();
+                        case "baseAsset" -> base = parser.getText();
+                        case "quoteAsset" -> quote = parser.getText();
+                        // Filters, order types and permissions make up most of the body
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id != null && base != null && quote != null && "TRADING".equals(status)) {
+                    consumer.accept(base, quote, id, null);
+                }
+            }
+        }
+    }
+
+    // {"error":[],"result":{"XXBTZUSD":{"altname":"XBTUSD","wsname":"XBT/USD","base":"XXBT",
+    // "quote":"ZUSD","status":"online", ...}}}; the id is the result key, which Ticker and
+    // Depth answer under. Pairs without a wsname (dark pools) are left out.
+    public static void krakenAssetPairs(InputStream body, MarketConsumer consumer) throws IOException {
+        List<String> errors = new ArrayList<>();
+        boolean found = false;
+        try (JsonParser parser = open(body, JsonToken.START_OBJECT)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("error".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        errors.add(parser.getText());
+                    }
+                } else if ("result".equals(field) && token == JsonToken.START_OBJECT) {
+                    found = true;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String id = parser.getCurrentName();
+                        String wsname = null;
+                        String status = "online";
+                        if (parser.nextToken() != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String pairField = parser.getCurrentName();
+                            parser.nextToken();
+                            if ("wsname".equals(pairField)) {
+                                wsname = parser.getText();
+                            } else if ("status".equals(pairField)) {
+                                status = parser.getText();
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                        int slash = wsname == null ? -1 : wsname.indexOf('/');
+                        if (slash > 0 && "online".equals(status)) {
+                            consumer.accept(wsname.substring(0, slash), wsname.substring(slash + 1), id, null);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (!found) {
+            if (!errors.isEmpty()) {
+                throw new KrakenApiException(errors);
+            }
+            throw new IOException("No pairs in Kraken response");
+        }
+    }
+
+    // [{"id":"BTC-USD","base_currency":"BTC","quote_currency":"USD","status":"online",
+    // "trading_disabled":false, ...}, ...]
+    public static void coinbaseProducts(InputStream body, MarketConsumer consumer) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_ARRAY)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String base = null;
+                String quote = null;
+                String status = null;
+                boolean disabled = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getText();
+                        case "base_currency" -> base = parser.getText();
+                        case "quote_currency" -> quote = parser.getText();
+                        case "status" -> status = parser.getText();
+                        case "trading_disabled" -> disabled = parser.getValueAsBoolean();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id != null && base != null && quote != null && "online".equals(status) && !disabled) {
+                    consumer.accept(base, quote, id, null);
+                }
+            }
+        }
+    }
+
+    // [{"id":"bitcoin","symbol":"btc","name":"Bitcoin","current_price":64000.0, ...}, ...]
+    // in market-cap order. Coins are priced in any vs_currency, so quote is null.
+    public static void coinGeckoMarkets(InputStream body, MarketConsumer consumer) throws IOException {
+        try (JsonParser parser = open(body, JsonToken.START_ARRAY)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String symbol = null;
+                String name = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getText();
+                        case "symbol" -> symbol = parser.getText();
+                        case "name" -> name = parser.getText();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id != null && symbol != null) {
+                    consumer.accept(symbol.toUpperCase(), null, id, name);
+                }
+            }
+        }
+    }
+
+    private static JsonParser open(InputStream body, JsonToken expected) throws IOException {
+        JsonParser parser = FACTORY.createParser(body);
+        if (parser.nextToken() != expected) {
+            parser.close();
+            throw new IOException("Unexpected response, expected " + expected);
+        }
+        return parser;
+    }
+
+    // Advances through the current object until the named field, leaving the parser
+    // on its value. Returns false once the object ends without finding it.
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static void skipRestOfObject(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    // [[time, ...], ...] from inside the outer array: time times timeScale gives epoch
+    // millis, and the price is the element at priceIndex. Returns the number of candles.
+    private static int readCandles(JsonParser parser, long timeScale, int priceIndex, PricePointConsumer consumer)
+            throws IOException {
+        int candles = 0;
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            parser.nextToken();
+            long timestamp = parser.getValueAsLong() * timeScale;
+            double price = Double.NaN;
+            int index = 1;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (index++ == priceIndex) {
+                    price = parser.getValueAsDouble();
+                }
+                parser.skipChildren();
+            }
+            consumer.accept(timestamp, price);
+            candles++;
+        }
+        return candles;
+    }
+
+    // Reads the "bids" and "asks" arrays of the current object into the book, up to
+    // maxLevels each; returns early, leaving the rest unread, once both sides are full
+    private static void readBookSides(JsonParser parser, OrderBook book, int maxLevels) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            boolean bids = "bids".equals(field);
+            if (token == JsonToken.START_ARRAY && (bids || "asks".equals(field))) {
+                readLevels(parser, book, bids, maxLevels);
+                if (book.levels(OrderSide.BUY) >= maxLevels && book.levels(OrderSide.SELL) >= maxLevels) {
+                    return;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // [[price, size, ...], ...] with prices and sizes as strings or numbers
+    private static void readLevels(JsonParser parser, OrderBook book, boolean bids, int maxLevels) throws IOException {
+        int levels = 0;
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            if (levels >= maxLevels) {
+                parser.skipChildren();
+                continue;
+            }
+            parser.nextToken();
+            double price = parser.getValueAsDouble();
+            parser.nextToken();
+            double size = parser.getValueAsDouble();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+            }
+            if (bids) {
+                book.addBid(price, size);
+            } else {
+                book.addAsk(price, size);
+            }
+            levels++;
+        }
+    }
+}
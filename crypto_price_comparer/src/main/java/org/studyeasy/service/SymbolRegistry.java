@@ -0,0 +1,351 @@
+package org.studyeasy.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.studyeasy.service.exchange.Capability;
+import org.studyeasy.service.exchange.ExchangeAdapter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Which pairs every exchange lists, loaded from the exchanges' own listings (the
+// MARKETS capability) and indexed so a lookup is two hash probes and an array read.
+// Requests for pairs an exchange does not list are never sent.
+//
+// It starts from the cache file when one is set, and from a small bundled listing
+// otherwise; each exchange is then refreshed in the background once its listing is
+// older than refreshMs. A failed refresh keeps that exchange's previous listing.
+public class SymbolRegistry implements AutoCloseable {
+    public static final long DEFAULT_REFRESH_MS = TimeUnit.HOURS.toMillis(12);
+    // How often listing ages are checked, and so the retry delay after a failure
+    private static final long CHECK_INTERVAL_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final String BUNDLED_LISTING = "/symbols/markets.json";
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @FunctionalInterface
+    public interface ListingSource {
+        List<Market> fetchMarkets(ExchangeAdapter adapter) throws IOException;
+    }
+
+    // One exchange's markets; each symbol maps to its markets indexed by QuoteCurrency ordinal
+    private static final class Listing {
+        final long loadedAt;
+        final List<Market> markets;
+        final Map<String, Market[]> bySymbol = new HashMap<>();
+
+        Listing(List<Market> markets, long loadedAt) {
+            this.loadedAt = loadedAt;
+            this.markets = Collections.unmodifiableList(new ArrayList<>(markets));
+            for (Market market : markets) {
+                Market[] byQuote = bySymbol.computeIfAbsent(market.getSymbol(),
+                        s -> new Market[QuoteCurrency.values().length]);
+                // Listings name each pair once; keep the first if one repeats
+                if (byQuote[market.getQuote().ordinal()] == null) {
+                    byQuote[market.getQuote().ordinal()] = market;
+                }
+            }
+        }
+    }
+
+    // Everything lookups read; replaced whole, never modified
+    private static final class Index {
+        final Map<String, Listing> listings;
+        final Map<String, String> names = new HashMap<>();
+        final Map<String, Integer> venues = new HashMap<>();
+        // Named symbols in listing order (market cap on CoinGecko), then the rest alphabetically
+        final List<String> ranked;
+
+        Index(Map<String, Listing> listings) {
+            this.listings = listings;
+            Set<String> named = new LinkedHashSet<>();
+            Set<String> unnamed = new TreeSet<>();
+            for (Listing listing : listings.values()) {
+                for (Market market : listing.markets) {
+                    if (market.getName() != null && names.putIfAbsent(market.getSymbol(), market.getName()) == null) {
+                        named.add(market.getSymbol());
+                    }
+                }
+                for (String symbol : listing.bySymbol.keySet()) {
+                    venues.merge(symbol, 1, Integer::sum);
+                    unnamed.add(symbol);
+                }
+            }
+            unnamed.removeAll(named);
+            List<String> all = new ArrayList<>(named);
+            all.addAll(unnamed);
+            ranked = Collections.unmodifiableList(all);
+        }
+    }
+
+    private final List<ExchangeAdapter> adapters = new ArrayList<>();
+    private final ListingSource source;
+    private final long refreshMs;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile Index index;
+    private volatile Path cacheFile;
+    private volatile boolean started;
+    private ScheduledExecutorService scheduler;
+
+    // Only adapters with MARKETS are refreshed; lookups for the others always miss
+    public SymbolRegistry(List<ExchangeAdapter> adapters, ListingSource source, long refreshMs) {
+        for (ExchangeAdapter adapter : adapters) {
+            if (adapter.supports(Capability.MARKETS)) this.adapters.add(adapter);
+        }
+        this.source = source;
+        this.refreshMs = refreshMs;
+        Map<String, Listing> listings = new LinkedHashMap<>();
+        try (InputStream in = SymbolRegistry.class.getResourceAsStream(BUNDLED_LISTING)) {
+            if (in != null) {
+                read(in, listings);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading bundled market listing: " + e.getMessage());
+        }
+        index = new Index(ordered(listings));
+    }
+
+    // ~/.crypto_price_comparer/markets.json, next to the price history
+    public static Path defaultCacheFile() {
+        return Paths.get(System.getProperty("user.home"), ".crypto_price_comparer", "markets.json");
+    }
+
+    // Loads the listings saved in the file, if it exists, over the current ones and
+    // saves every refresh back to it
+    public void useCacheFile(Path file) {
+        cacheFile = file;
+        if (!Files.exists(file)) return;
+        Map<String, Listing> listings = new LinkedHashMap<>(index.listings);
+        try (InputStream in = Files.newInputStream(file)) {
+            read(in, listings);
+            publish(listings);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading market cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Starts the background refresh, which loads stale listings right away; later calls
+    // do nothing. Does not block.
+    public void start() {
+        if (started) return;
+        synchronized (this) {
+            if (started) return;
+            started = true;
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "symbol-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> refresh(true), 0, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Reloads every exchange's listing now; false when any of them failed
+    public boolean refresh() {
+        return refresh(false);
+    }
+
+    private synchronized boolean refresh(boolean staleOnly) {
+        Map<String, Listing> listings = new LinkedHashMap<>(index.listings);
+        boolean changed = false;
+        boolean ok = true;
+        for (ExchangeAdapter adapter : adapters) {
+            long now = System.currentTimeMillis();
+            Listing current = listings.get(adapter.getName());
+            if (staleOnly && current != null && now - current.loadedAt < refreshMs) continue;
+            try {
+                List<Market> markets = source.fetchMarkets(adapter);
+                if (markets.isEmpty()) {
+                    throw new IOException("Empty listing");
+                }
+                listings.put(adapter.getName(), new Listing(markets, now));
+                changed = true;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error loading markets from " + adapter.getName() + ": " + e.getMessage());
+                ok = false;
+            }
+        }
+        if (changed) {
+            publish(listings);
+            save();
+        }
+        return ok;
+    }
+
+    private void publish(Map<String, Listing> listings) {
+        index = new Index(ordered(listings));
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error in symbol registry listener: " + e.getMessage());
+            }
+        }
+    }
+
+    // Listings in adapter order, so ranking does not depend on which loaded first
+    private Map<String, Listing> ordered(Map<String, Listing> listings) {
+        Map<String, Listing> ordered = new LinkedHashMap<>();
+        for (ExchangeAdapter adapter : adapters) {
+            Listing listing = listings.get(adapter.getName());
+            if (listing != null) ordered.put(adapter.getName(), listing);
+        }
+        return Collections.unmodifiableMap(ordered);
+    }
+
+    // Called on the refresh thread whenever the listings change
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean hasListing(String exchange) {
+        return index.listings.containsKey(exchange);
+    }
+
+    // The exact pair, or null when the exchange does not list it (or has no listing)
+    public Market find(String exchange, String symbol, QuoteCurrency quote) {
+        Listing listing = index.listings.get(exchange);
+        Market[] byQuote = listing == null ? null : listing.bySymbol.get(symbol.toUpperCase());
+        return byQuote == null ? null : byQuote[quote.ordinal()];
+    }
+
+    // Pair to fetch when prices are wanted in target: the target pair when listed,
+    // otherwise the first listed one in the adapter's order of preference. Exchanges
+    // without a listing get the adapter's own naming rule; null means not listed.
+    public Market resolve(ExchangeAdapter adapter, String symbol, QuoteCurrency target) {
+        Listing listing = index.listings.get(adapter.getName());
+        if (listing == null) {
+            QuoteCurrency quote = adapter.nativeQuoteCurrency(target);
+            return new Market(symbol, quote, adapter.toExchangeSymbol(symbol, quote));
+        }
+        Market[] byQuote = listing.bySymbol.get(symbol.toUpperCase());
+        if (byQuote == null) return null;
+        if (byQuote[target.ordinal()] != null) return byQuote[target.ordinal()];
+        for (QuoteCurrency quote : adapter.getQuoteCurrencies()) {
+            if (byQuote[quote.ordinal()] != null) return byQuote[quote.ordinal()];
+        }
+        return null;
+    }
+
+    // Exchanges listing the symbol in any quote currency
+    public Set<String> getExchanges(String symbol) {
+        Set<String> exchanges = new LinkedHashSet<>();
+        String key = symbol.toUpperCase();
+        for (Map.Entry<String, Listing> listing : index.listings.entrySet()) {
+            if (listing.getValue().bySymbol.containsKey(key)) exchanges.add(listing.getKey());
+        }
+        return exchanges;
+    }
+
+    // Symbols listed on at least minExchanges exchanges, largest first where known
+    public List<String> getSymbols(int minExchanges) {
+        Index current = index;
+        List<String> symbols = new ArrayList<>();
+        for (String symbol : current.ranked) {
+            if (current.venues.getOrDefault(symbol, 0) >= minExchanges) symbols.add(symbol);
+        }
+        return symbols;
+    }
+
+    // Display name such as "Bitcoin", or null when no listing names the symbol
+    public String getName(String symbol) {
+        return index.names.get(symbol.toUpperCase());
+    }
+
+    public int getMarketCount(String exchange) {
+        Listing listing = index.listings.get(exchange);
+        return listing == null ? 0 : listing.markets.size();
+    }
+
+    // When the exchange's listing was fetched; 0 for the bundled one, -1 without a listing
+    public long getLoadedAt(String exchange) {
+        Listing listing = index.listings.get(exchange);
+        return listing == null ? -1 : listing.loadedAt;
+    }
+
+    // {"listings":{"Binance":{"loadedAt":1700000000000,"markets":[["BTC","USDT","BTCUSDT"], ...]},
+    // "CoinGecko":{"loadedAt":...,"markets":[["BTC","USD","bitcoin","Bitcoin"], ...]}, ...}}
+    private static void read(InputStream in, Map<String, Listing> into) throws IOException {
+        JsonNode listings = MAPPER.readTree(in).path("listings");
+        Iterator<Map.Entry<String, JsonNode>> exchanges = listings.fields();
+        while (exchanges.hasNext()) {
+            Map.Entry<String, JsonNode> exchange = exchanges.next();
+            List<Market> markets = new ArrayList<>();
+            for (JsonNode row : exchange.getValue().path("markets")) {
+                QuoteCurrency quote = QuoteCurrency.fromCode(row.path(1).asText());
+                if (quote == null) continue;
+                String name = row.has(3) ? row.get(3).asText() : null;
+                markets.add(new Market(row.path(0).asText(), quote, row.path(2).asText(), name));
+            }
+            into.put(exchange.getKey(), new Listing(markets, exchange.getValue().path("loadedAt").asLong()));
+        }
+    }
+
+    // Written to a temporary file and moved into place, so readers never see half a file
+    private void save() {
+        Path file = cacheFile;
+        if (file == null) return;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp);
+                 JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+                json.writeStartObject();
+                json.writeObjectFieldStart("listings");
+                for (Map.Entry<String, Listing> listing : index.listings.entrySet()) {
+                    json.writeObjectFieldStart(listing.getKey());
+                    json.writeNumberField("loadedAt", listing.getValue().loadedAt);
+                    json.writeArrayFieldStart("markets");
+                    for (Market market : listing.getValue().markets) {
+                        json.writeStartArray();
+                        json.writeString(market.getSymbol());
+                        json.writeString(market.getQuote().name());
+                        json.writeString(market.getExchangeSymbol());
+                        if (market.getName() != null) json.writeString(market.getName());
+                        json.writeEndArray();
+                    }
+                    json.writeEndArray();
+                    json.writeEndObject();
+                }
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error saving market cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.studyeasy.service.alert;
+
+import org.studyeasy.service.QuoteCurrency;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One-shot alert registered with the AlertEngine; it is removed once it fires
+public class Alert {
+    private final long id;
+    private final String symbol;
+    private final AlertType type;
+    private final double threshold;
+    private final QuoteCurrency currency;
+    private final AlertListener listener;
+
+    // Index keys, set by the engine while the alert is armed (NaN when not indexed)
+    double upperKey = Double.NaN;
+    double lowerKey = Double.NaN;
+    // Per-exchange prices a percent-move alert is measured from
+    final Map<String, Double> referencePrices = new ConcurrentHashMap<>();
+    boolean active = true;
+
+    Alert(long id, String symbol, AlertType type, double threshold, QuoteCurrency currency, AlertListener listener) {
+        this.id = id;
+        this.symbol = symbol;
+        this.type = type;
+        this.threshold = threshold;
+        this.currency = currency;
+        this.listener = listener;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public AlertType getType() {
+        return type;
+    }
+
+    // Price for price alerts, percent for move alerts, bps for spread alerts
+    public double getThreshold() {
+        return threshold;
+    }
+
+    // Quote currency in effect when the alert was set, which price thresholds are in
+    public QuoteCurrency getCurrency() {
+        return currency;
+    }
+
+    // Price a percent-move alert is measured from on the exchange; NaN until that
+    // exchange has quoted
+    public double getReferencePrice(String exchange) {
+        return referencePrices.getOrDefault(exchange, Double.NaN);
+    }
+
+    AlertListener getListener() {
+        return listener;
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case PRICE_ABOVE -> symbol + " at or above " + currency.getPrefix() + threshold;
+            case PRICE_BELOW -> symbol + " at or below " + currency.getPrefix() + threshold;
+            case PERCENT_MOVE -> symbol + " moves " + threshold + "%";
+            case SPREAD_ABOVE -> symbol + " spread at or above " + threshold + " bps";
+        };
+    }
+}
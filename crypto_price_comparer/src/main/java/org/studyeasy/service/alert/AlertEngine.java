@@ -0,0 +1,288 @@
+package org.studyeasy.service.alert;
+
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.QuoteListener;
+import org.studyeasy.service.spread.SpreadEngine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Price-indexed alerts driven by incoming quotes. Each symbol keeps its armed
+// thresholds in sorted maps, so a quote only visits the alerts it actually
+// crossed: O(log n + k) for n alerts on the symbol and k that fire.
+//
+// Price alerts are checked against every exchange's quote, so "below" fires as
+// soon as the cheapest venue reaches the target and "above" as soon as the dearest does.
+// Percent-move alerts are measured per exchange instead: each venue arms the alert at
+// its own first or latest price, so quotes from a venue that simply trades higher or
+// lower than another are not mistaken for a move. The alert fires on the first venue
+// that moves far enough from its own reference.
+public class AlertEngine implements QuoteListener {
+
+    // Armed thresholds for one symbol; several alerts may share a key
+    private static final class SymbolAlerts {
+        // Fire when price >= key
+        final TreeMap<Double, List<Alert>> upper = new TreeMap<>();
+        // Fire when price <= key
+        final TreeMap<Double, List<Alert>> lower = new TreeMap<>();
+        // Fire when spread bps >= key
+        final TreeMap<Double, List<Alert>> spread = new TreeMap<>();
+        // Armed percent-move alerts, indexed again under each venue that has quoted
+        final List<Alert> moves = new ArrayList<>();
+        final Map<String, Venue> venues = new HashMap<>();
+    }
+
+    // Percent-move thresholds of one exchange, keyed off that exchange's own price
+    private static final class Venue {
+        final TreeMap<Double, List<Alert>> upper = new TreeMap<>();
+        final TreeMap<Double, List<Alert>> lower = new TreeMap<>();
+        double lastPrice = Double.NaN;
+    }
+
+    private final SpreadEngine spreadEngine;
+    private final Supplier<QuoteCurrency> currency;
+    private final Map<String, SymbolAlerts> symbols = new ConcurrentHashMap<>();
+    private final Map<Long, Alert> alerts = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    // Spread alerts read the spread from this engine, which must see each quote first
+    public AlertEngine(SpreadEngine spreadEngine) {
+        this(spreadEngine, () -> QuoteCurrency.USD);
+    }
+
+    // currency is the one quotes are published in; each alert records it when it is set
+    public AlertEngine(SpreadEngine spreadEngine, Supplier<QuoteCurrency> currency) {
+        this.spreadEngine = spreadEngine;
+        this.currency = currency;
+    }
+
+    public Alert priceAbove(String symbol, double price, AlertListener listener) {
+        return add(symbol, AlertType.PRICE_ABOVE, price, listener);
+    }
+
+    public Alert priceBelow(String symbol, double price, AlertListener listener) {
+        return add(symbol, AlertType.PRICE_BELOW, price, listener);
+    }
+
+    // Fires when an exchange's price moves percent up or down from the latest price seen
+    // on that same exchange, or from its next quote if it has not quoted yet
+    public Alert percentMove(String symbol, double percent, AlertListener listener) {
+        if (percent <= 0) {
+            throw new IllegalArgumentException("Percent move must be positive: " + percent);
+        }
+        return add(symbol, AlertType.PERCENT_MOVE, percent, listener);
+    }
+
+    public Alert spreadAbove(String symbol, double spreadBps, AlertListener listener) {
+        return add(symbol, AlertType.SPREAD_ABOVE, spreadBps, listener);
+    }
+
+    private Alert add(String symbol, AlertType type, double threshold, AlertListener listener) {
+        if (Double.isNaN(threshold)) {
+            throw new IllegalArgumentException("Alert threshold must be a number");
+        }
+        String key = symbol.toUpperCase();
+        Alert alert = new Alert(nextId.getAndIncrement(), key, type, threshold, currency.get(), listener);
+        SymbolAlerts state = symbols.computeIfAbsent(key, s -> new SymbolAlerts());
+        synchronized (state) {
+            alerts.put(alert.getId(), alert);
+            switch (type) {
+                case PRICE_ABOVE -> index(state.upper, alert.upperKey = threshold, alert);
+                case PRICE_BELOW -> index(state.lower, alert.lowerKey = threshold, alert);
+                case SPREAD_ABOVE -> index(state.spread, alert.upperKey = threshold, alert);
+                case PERCENT_MOVE -> {
+                    state.moves.add(alert);
+                    for (Map.Entry<String, Venue> venue : state.venues.entrySet()) {
+                        armMove(venue.getKey(), venue.getValue(), alert, venue.getValue().lastPrice);
+                    }
+                }
+            }
+        }
+        return alert;
+    }
+
+    public boolean cancel(Alert alert) {
+        SymbolAlerts state = symbols.get(alert.getSymbol());
+        if (state == null) return false;
+        synchronized (state) {
+            if (!alert.active) return false;
+            disarm(state, alert);
+        }
+        return true;
+    }
+
+    public boolean cancel(long id) {
+        Alert alert = alerts.get(id);
+        return alert != null && cancel(alert);
+    }
+
+    public Alert getAlert(long id) {
+        return alerts.get(id);
+    }
+
+    // Number of armed alerts
+    public int size() {
+        return alerts.size();
+    }
+
+    // Symbols with at least one armed alert, e.g. to decide what to keep refreshing
+    public Set<String> getSymbols() {
+        Set<String> active = ConcurrentHashMap.newKeySet();
+        for (Alert alert : alerts.values()) {
+            active.add(alert.getSymbol());
+        }
+        return active;
+    }
+
+    // How far the exchange's price is from firing the symbol's closest alert, in basis
+    // points: of price for price and move alerts, of spread for spread alerts. NaN
+    // without armed alerts.
+    public double distanceToNearestBps(String symbol, String exchange, double price) {
+        SymbolAlerts state = symbols.get(symbol.toUpperCase());
+        if (state == null || !(price > 0)) return Double.NaN;
+        double nearest = Double.NaN;
+        synchronized (state) {
+            // Everything armed is on the far side of the last price, so the closest
+            // upper key is the smallest and the closest lower key the largest
+            nearest = nearest(nearest, state.upper, state.lower, price);
+            Venue venue = state.venues.get(exchange);
+            if (venue != null) {
+                nearest = nearest(nearest, venue.upper, venue.lower, price);
+            }
+            if (!state.spread.isEmpty()) {
+                double spreadBps = spreadEngine.getSpreadBps(symbol);
+                if (!Double.isNaN(spreadBps)) {
+                    nearest = nearer(nearest, state.spread.firstKey() - spreadBps);
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private static double nearest(double nearest, TreeMap<Double, List<Alert>> upper,
+                                  TreeMap<Double, List<Alert>> lower, double price) {
+        if (!upper.isEmpty()) {
+            nearest = nearer(nearest, (upper.firstKey() - price) / price * 10000);
+        }
+        if (!lower.isEmpty()) {
+            nearest = nearer(nearest, (price - lower.lastKey()) / price * 10000);
+        }
+        return nearest;
+    }
+
+    private static double nearer(double current, double distance) {
+        distance = Math.max(0, distance);
+        return Double.isNaN(current) ? distance : Math.min(current, distance);
+    }
+
+    @Override
+    public void onQuote(String exchange, String symbol, double price, long timestampMs) {
+        SymbolAlerts state = symbols.get(symbol.toUpperCase());
+        if (state == null || Double.isNaN(price)) return;
+
+        List<Alert> fired = null;
+        double spreadBps = Double.NaN;
+        synchronized (state) {
+            Venue venue = state.venues.get(exchange);
+            if (venue == null) {
+                // First quote from this exchange: it becomes the reference for every move alert
+                venue = new Venue();
+                state.venues.put(exchange, venue);
+                for (Alert alert : state.moves) {
+                    armMove(exchange, venue, alert, price);
+                }
+            }
+            venue.lastPrice = price;
+            fired = collect(state, state.upper.headMap(price, true), fired);
+            fired = collect(state, state.lower.tailMap(price, true), fired);
+            fired = collect(state, venue.upper.headMap(price, true), fired);
+            fired = collect(state, venue.lower.tailMap(price, true), fired);
+            if (!state.spread.isEmpty()) {
+                spreadBps = spreadEngine.getSpreadBps(symbol);
+                if (!Double.isNaN(spreadBps)) {
+                    fired = collect(state, state.spread.headMap(spreadBps, true), fired);
+                }
+            }
+        }
+        if (fired == null) return;
+
+        // Listeners run outside the lock so they can add or cancel alerts
+        for (Alert alert : fired) {
+            double value = alert.getType() == AlertType.SPREAD_ABOVE ? spreadBps : price;
+            try {
+                alert.getListener().onAlert(alert, exchange, value, timestampMs);
+            } catch (RuntimeException e) {
+                System.err.println("Error in alert listener: " + e.getMessage());
+            }
+        }
+    }
+
+    // Removes every alert in the crossed range (a view of one index) and disarms it
+    private List<Alert> collect(SymbolAlerts state, NavigableMap<Double, List<Alert>> crossed, List<Alert> fired) {
+        if (crossed.isEmpty()) return fired;
+        List<Alert> hits = new ArrayList<>();
+        Iterator<List<Alert>> buckets = crossed.values().iterator();
+        while (buckets.hasNext()) {
+            hits.addAll(buckets.next());
+            buckets.remove();
+        }
+        for (Alert alert : hits) {
+            // Move alerts sit in both price indexes of every venue; drop the rest too
+            disarm(state, alert);
+        }
+        if (fired == null) return hits;
+        fired.addAll(hits);
+        return fired;
+    }
+
+    private static void armMove(String exchange, Venue venue, Alert alert, double reference) {
+        alert.referencePrices.put(exchange, reference);
+        index(venue.upper, moveUpperKey(alert, reference), alert);
+        index(venue.lower, moveLowerKey(alert, reference), alert);
+    }
+
+    private static double moveUpperKey(Alert alert, double reference) {
+        return reference * (1 + alert.getThreshold() / 100);
+    }
+
+    private static double moveLowerKey(Alert alert, double reference) {
+        return reference * (1 - alert.getThreshold() / 100);
+    }
+
+    private void disarm(SymbolAlerts state, Alert alert) {
+        if (!alert.active) return;
+        alert.active = false;
+        TreeMap<Double, List<Alert>> upperIndex = alert.getType() == AlertType.SPREAD_ABOVE ? state.spread : state.upper;
+        if (!Double.isNaN(alert.upperKey)) unindex(upperIndex, alert.upperKey, alert);
+        if (!Double.isNaN(alert.lowerKey)) unindex(state.lower, alert.lowerKey, alert);
+        if (alert.getType() == AlertType.PERCENT_MOVE) {
+            for (Map.Entry<String, Double> reference : alert.referencePrices.entrySet()) {
+                Venue venue = state.venues.get(reference.getKey());
+                unindex(venue.upper, moveUpperKey(alert, reference.getValue()), alert);
+                unindex(venue.lower, moveLowerKey(alert, reference.getValue()), alert);
+            }
+            state.moves.remove(alert);
+        }
+        alerts.remove(alert.getId());
+    }
+
+    private static void index(TreeMap<Double, List<Alert>> index, double key, Alert alert) {
+        index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(alert);
+    }
+
+    private static void unindex(TreeMap<Double, List<Alert>> index, double key, Alert alert) {
+        List<Alert> bucket = index.get(key);
+        if (bucket == null) return;
+        bucket.remove(alert);
+        if (bucket.isEmpty()) index.remove(key);
+    }
+}
@@ -0,0 +1,8 @@
+package org.studyeasy.service.alert;
+
+// Called once when an alert fires, on the thread that delivered the quote.
+// value is the triggering price, or the spread in bps for spread alerts.
+@FunctionalInterface
+public interface AlertListener {
+    void onAlert(Alert alert, String exchange, double value, long timestampMs);
+}
@@ -0,0 +1,14 @@
+package org.studyeasy.service.alert;
+
+public enum AlertType {
+    // Some exchange quotes the symbol at or above the threshold price
+    PRICE_ABOVE,
+    // Some exchange quotes the symbol at or below the threshold price
+    PRICE_BELOW,
+    // Some exchange's price moved by the threshold percentage, either way, from that
+    // exchange's own reference: its last price when the alert was set, or its first
+    // quote after that
+    PERCENT_MOVE,
+    // The cross-exchange spread reached the threshold in basis points
+    SPREAD_ABOVE
+}
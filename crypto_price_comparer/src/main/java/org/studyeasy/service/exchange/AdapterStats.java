@@ -0,0 +1,42 @@
+package org.studyeasy.service.exchange;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Request counters and latency totals for one adapter
+public class AdapterStats {
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private volatile long lastNanos;
+
+    public void record(long nanos, boolean success) {
+        requests.incrementAndGet();
+        if (!success) failures.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        lastNanos = nanos;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public double getAverageLatencyMs() {
+        long count = requests.get();
+        return count == 0 ? 0 : totalNanos.get() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxLatencyMs() {
+        return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getLastLatencyMs() {
+        return lastNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,148 @@
+package org.studyeasy.service.exchange;
+
+import org.studyeasy.service.Market;
+import org.studyeasy.service.OrderBook;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.ResponseParsers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BinanceAdapter implements ExchangeAdapter {
+    // Most klines one request returns
+    private static final int KLINE_PAGE = 1000;
+
+    @Override
+    public String getName() {
+        return "Binance";
+    }
+
+    @Override
+    public Set<Capability> getCapabilities() {
+        return EnumSet.of(Capability.QUOTE, Capability.BATCH_QUOTE, Capability.HISTORY, Capability.ORDER_BOOK,
+                Capability.MARKETS);
+    }
+
+    @Override
+    public List<QuoteCurrency> getQuoteCurrencies() {
+        // Binance.com has no USD pairs; USDT books are by far the deepest
+        return List.of(QuoteCurrency.USDT, QuoteCurrency.USDC, QuoteCurrency.EUR);
+    }
+
+    @Override
+    public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+        return symbol.toUpperCase() + quote.name();
+    }
+
+    @Override
+    public RateLimit getRateLimit() {
+        // 6000 request weight per minute per IP
+        return new RateLimit(6000, 100);
+    }
+
+    @Override
+    public int getRequestWeight(String url) {
+        if (url.contains("/depth")) {
+            return depthWeight(url);
+        }
+        if (url.contains("/exchangeInfo")) {
+            return 20;
+        }
+        // ticker/price costs 2 for one symbol and 4 for the full list
+        return url.contains("symbol=") ? 2 : 4;
+    }
+
+    // depth costs 5 up to 100 levels, 25 up to 500, 50 up to 1000 and 250 beyond
+    private static int depthWeight(String url) {
+        int limit = 100;
+        int start = url.indexOf("limit=");
+        if (start >= 0) {
+            int end = url.indexOf('&', start);
+            try {
+                limit = Integer.parseInt(url.substring(start + 6, end < 0 ? url.length() : end));
+            } catch (NumberFormatException e) {
+                // Binance falls back to its default of 100
+            }
+        }
+        if (limit <= 100) return 5;
+        if (limit <= 500) return 25;
+        if (limit <= 1000) return 50;
+        return 250;
+    }
+
+    @Override
+    public List<Market> fetchMarkets(HttpFetcher http) throws IOException {
+        List<Market> markets = new ArrayList<>();
+        http.get("https://api.binance.com/api/v3/exchangeInfo", body -> {
+            ResponseParsers.binanceExchangeInfo(body, (base, quote, id, name) -> {
+                QuoteCurrency currency = QuoteCurrency.fromCode(quote);
+                if (currency != null && getQuoteCurrencies().contains(currency)) {
+                    markets.add(new Market(base, currency, id));
+                }
+            });
+            return null;
+        });
+        return markets;
+    }
+
+    @Override
+    public double fetchQuote(Market market, HttpFetcher http) throws IOException {
+        String url = "https://api.binance.com/api/v3/ticker/price?symbol=" + market.getExchangeSymbol();
+        return http.get(url, ResponseParsers::binancePrice);
+    }
+
+    @Override
+    public void fetchHistory(Market market, long fromSeconds, long toSeconds, HttpFetcher http,
+                             ResponseParsers.PricePointConsumer consumer) throws IOException {
+        long step = HistoryIntervals.targetSeconds(fromSeconds, toSeconds);
+        String interval = step >= HistoryIntervals.DAY ? "1d" : step >= HistoryIntervals.HOUR ? "1h" : "5m";
+        long endMs = toSeconds * 1000;
+        long startMs = fromSeconds * 1000;
+        // Pages of up to 1000 klines, each starting after the last one received
+        long[] lastOpen = {Long.MIN_VALUE};
+        while (startMs <= endMs) {
+            String url = "https://api.binance.com/api/v3/klines?symbol=" + market.getExchangeSymbol()
+                    + "&interval=" + interval + "&startTime=" + startMs + "&endTime=" + endMs + "&limit=" + KLINE_PAGE;
+            int klines = http.get(url, body -> ResponseParsers.binanceKlines(body, (timestamp, price) -> {
+                lastOpen[0] = timestamp;
+                consumer.accept(timestamp, price);
+            }));
+            if (klines < KLINE_PAGE) return;
+            startMs = lastOpen[0] + 1;
+        }
+    }
+
+    @Override
+    public OrderBook fetchOrderBook(Market market, int depth, HttpFetcher http) throws IOException {
+        int limit = Math.max(1, Math.min(depth, 5000));
+        String url = "https://api.binance.com/api/v3/depth?symbol=" + market.getExchangeSymbol() + "&limit=" + limit;
+        OrderBook book = new OrderBook(getName(), market.getSymbol(), market.getQuote(), limit,
+                System.currentTimeMillis());
+        return http.get(url, body -> ResponseParsers.binanceDepth(body, book));
+    }
+
+    @Override
+    public Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) throws IOException {
+        Map<String, String> pairToSymbol = new HashMap<>();
+        for (Market market : markets) {
+            pairToSymbol.put(market.getExchangeSymbol(), market.getSymbol());
+        }
+        
+        // The full ticker list is a single request and, unlike symbols=[...],
+        // does not fail as a whole when one pair is not listed
+        Map<String, Double> pairPrices = http.get("https://api.binance.com/api/v3/ticker/price",
+                body -> ResponseParsers.binancePrices(body, pairToSymbol.keySet()));
+        
+        Map<String, Double> prices = new HashMap<>();
+        for (Map.Entry<String, Double> pair : pairPrices.entrySet()) {
+            prices.put(pairToSymbol.get(pair.getKey()), pair.getValue());
+        }
+        return prices;
+    }
+}
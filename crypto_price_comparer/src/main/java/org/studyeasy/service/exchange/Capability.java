@@ -0,0 +1,12 @@
+package org.studyeasy.service.exchange;
+
+// Optional features an exchange adapter can offer beyond a single spot quote
+public enum Capability {
+    QUOTE,
+    BATCH_QUOTE,
+    HISTORY,
+    // Top-of-book depth for fill-price comparisons
+    ORDER_BOOK,
+    // Listing of every tradable pair, for the symbol registry
+    MARKETS
+}
@@ -0,0 +1,120 @@
+package org.studyeasy.service.exchange;
+
+import java.util.concurrent.TimeUnit;
+
+// Stops calling an exchange after repeated failures or slow responses. While open,
+// calls fail fast; after the cooldown a single probe is let through and its result
+// decides whether the circuit closes again or stays open for another cooldown.
+public class CircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_SLOW_CALL_MS = 4000;
+    public static final long DEFAULT_COOLDOWN_MS = 30000;
+
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long cooldownNanos;
+
+    // Handed out by allowRequest() and passed back with the call's result. Only the
+    // half-open probe may close or reopen the circuit, and only calls admitted in the
+    // current closed period count toward tripping it; results from calls that were
+    // already in flight when the state changed are ignored.
+    public static final class Permit {
+        private final long generation;
+        private final boolean probe;
+
+        private Permit(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+    }
+
+    private State state = State.CLOSED;
+    // Bumped on every state change so stale permits can be recognised
+    private long generation;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker() {
+        this(DEFAULT_FAILURE_THRESHOLD, DEFAULT_SLOW_CALL_MS, DEFAULT_COOLDOWN_MS);
+    }
+
+    public CircuitBreaker(int failureThreshold, long slowCallMs, long cooldownMs) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+    }
+
+    // A permit for one call, or null while the circuit is open
+    public synchronized Permit allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return new Permit(generation, false);
+            case OPEN:
+                if (System.nanoTime() - openedAt < cooldownNanos) return null;
+                transition(State.HALF_OPEN);
+                probeInFlight = true;
+                return new Permit(generation, true);
+            default:
+                // Only one probe at a time while half-open
+                if (probeInFlight) return null;
+                probeInFlight = true;
+                return new Permit(generation, true);
+        }
+    }
+
+    // Slow successes count as failures so a degraded venue also trips the breaker
+    public synchronized void record(Permit permit, long nanos, boolean success) {
+        if (permit.generation != generation) return;
+        boolean ok = success && nanos < slowCallNanos;
+        if (permit.probe) {
+            probeInFlight = false;
+            if (ok) {
+                consecutiveFailures = 0;
+                transition(State.CLOSED);
+            } else {
+                open();
+            }
+            return;
+        }
+        if (ok) {
+            consecutiveFailures = 0;
+        } else if (++consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    // The admitted call ended without reaching the exchange, e.g. turned away by our
+    // own rate limiter, so it says nothing about the venue; frees the probe slot
+    public synchronized void release(Permit permit) {
+        if (permit.probe && permit.generation == generation) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized void reset() {
+        transition(State.CLOSED);
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+}
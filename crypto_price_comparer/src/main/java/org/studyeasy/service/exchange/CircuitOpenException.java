@@ -0,0 +1,10 @@
+package org.studyeasy.service.exchange;
+
+import java.io.IOException;
+
+// Thrown instead of calling an exchange whose circuit breaker is open
+public class CircuitOpenException extends IOException {
+    public CircuitOpenException(String exchange) {
+        super("Circuit open for " + exchange);
+    }
+}
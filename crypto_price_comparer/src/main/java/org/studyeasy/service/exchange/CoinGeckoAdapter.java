@@ -0,0 +1,115 @@
+package org.studyeasy.service.exchange;
+
+import org.studyeasy.service.Market;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.ResponseParsers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CoinGeckoAdapter implements ExchangeAdapter {
+    // One page of coins/markets; the public API allows at most 250
+    private static final int LISTED_COINS = 250;
+
+    @Override
+    public String getName() {
+        return "CoinGecko";
+    }
+
+    @Override
+    public Set<Capability> getCapabilities() {
+        return EnumSet.of(Capability.QUOTE, Capability.BATCH_QUOTE, Capability.HISTORY,
+                Capability.MARKETS);
+    }
+
+    @Override
+    public List<QuoteCurrency> getQuoteCurrencies() {
+        return List.of(QuoteCurrency.USD, QuoteCurrency.EUR);
+    }
+
+    // Coin ids come from the listing; without one, guess the lower-case symbol
+    @Override
+    public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+        return symbol.toLowerCase();
+    }
+
+    @Override
+    public RateLimit getRateLimit() {
+        // Public API allows roughly 30 calls per minute
+        return new RateLimit(5, 0.5);
+    }
+
+    // The top coins by market cap, in that order, so the largest coin wins when several
+    // share a ticker symbol. Every coin is priced in every vs_currency.
+    @Override
+    public List<Market> fetchMarkets(HttpFetcher http) throws IOException {
+        List<Market> markets = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String url = "https://api.coingecko.com/api/v3/coins/markets?vs_currency=usd&order=market_cap_desc"
+                + "&per_page=" + LISTED_COINS + "&page=1";
+        http.get(url, body -> {
+            ResponseParsers.coinGeckoMarkets(body, (symbol, quote, id, name) -> {
+                if (!seen.add(symbol)) return;
+                for (QuoteCurrency currency : getQuoteCurrencies()) {
+                    markets.add(new Market(symbol, currency, id, name));
+                }
+            });
+            return null;
+        });
+        return markets;
+    }
+
+    @Override
+    public double fetchQuote(Market market, HttpFetcher http) throws IOException {
+        String coinId = market.getExchangeSymbol();
+        String vsCurrency = market.getQuote().name().toLowerCase();
+        String url = "https://api.coingecko.com/api/v3/simple/price?ids=" + coinId + "&vs_currencies=" + vsCurrency;
+        Double price = http.get(url, body -> ResponseParsers.coinGeckoPrices(body, vsCurrency)).get(coinId);
+        if (price == null) {
+            throw new IOException("No CoinGecko price for " + coinId);
+        }
+        return price;
+    }
+
+    @Override
+    public Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) throws IOException {
+        if (markets.isEmpty()) return new HashMap<>();
+        Map<String, String> idToSymbol = new LinkedHashMap<>();
+        for (Market market : markets) {
+            idToSymbol.put(market.getExchangeSymbol(), market.getSymbol());
+        }
+        
+        String vsCurrency = markets.iterator().next().getQuote().name().toLowerCase();
+        String url = "https://api.coingecko.com/api/v3/simple/price?ids=" + String.join(",", idToSymbol.keySet())
+                + "&vs_currencies=" + vsCurrency;
+        Map<String, Double> coinPrices = http.get(url, body -> ResponseParsers.coinGeckoPrices(body, vsCurrency));
+        
+        Map<String, Double> prices = new HashMap<>();
+        for (Map.Entry<String, String> entry : idToSymbol.entrySet()) {
+            Double price = coinPrices.get(entry.getKey());
+            if (price != null) {
+                prices.put(entry.getValue(), price);
+            }
+        }
+        return prices;
+    }
+
+    @Override
+    public void fetchHistory(Market market, long fromSeconds, long toSeconds, HttpFetcher http,
+                             ResponseParsers.PricePointConsumer consumer) throws IOException {
+        String url = "https://api.coingecko.com/api/v3/coins/" + market.getExchangeSymbol() + 
+                "/market_chart/range?vs_currency=usd&from=" + fromSeconds + "&to=" + toSeconds;
+        http.get(url, body -> {
+            ResponseParsers.coinGeckoHistory(body, consumer);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package org.studyeasy.service.exchange;
+
+import org.studyeasy.service.Market;
+import org.studyeasy.service.OrderBook;
+import org.studyeasy.service.PriceSeries;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.ResponseParsers;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CoinbaseAdapter implements ExchangeAdapter {
+    // Most candles one request returns
+    private static final int CANDLE_PAGE = 300;
+
+    @Override
+    public String getName() {
+        return "Coinbase";
+    }
+
+    @Override
+    public Set<Capability> getCapabilities() {
+        return EnumSet.of(Capability.QUOTE, Capability.BATCH_QUOTE, Capability.HISTORY, Capability.ORDER_BOOK,
+                Capability.MARKETS);
+    }
+
+    @Override
+    public List<QuoteCurrency> getQuoteCurrencies() {
+        // USDC trades on the USD books, so there is no separate USDC price to fetch
+        return List.of(QuoteCurrency.USD, QuoteCurrency.EUR);
+    }
+
+    @Override
+    public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+        return symbol.toUpperCase() + "-" + quote.name();
+    }
+
+    @Override
+    public RateLimit getRateLimit() {
+        // Public endpoints allow 10 requests per second
+        return new RateLimit(10, 10);
+    }
+
+    @Override
+    public List<Market> fetchMarkets(HttpFetcher http) throws IOException {
+        // Tradable products live on the Exchange API, like the order books
+        List<Market> markets = new ArrayList<>();
+        http.get("https://api.exchange.coinbase.com/products", body -> {
+            ResponseParsers.coinbaseProducts(body, (base, quote, id, name) -> {
+                QuoteCurrency currency = QuoteCurrency.fromCode(quote);
+                if (currency != null && getQuoteCurrencies().contains(currency)) {
+                    markets.add(new Market(base, currency, id));
+                }
+            });
+            return null;
+        });
+        return markets;
+    }
+
+    @Override
+    public double fetchQuote(Market market, HttpFetcher http) throws IOException {
+        String url = "https://api.coinbase.com/v2/prices/" + market.getExchangeSymbol() + "/spot";
+        return http.get(url, ResponseParsers::coinbaseSpotPrice);
+    }
+
+    @Override
+    public void fetchHistory(Market market, long fromSeconds, long toSeconds, HttpFetcher http,
+                             ResponseParsers.PricePointConsumer consumer) throws IOException {
+        // Granularity is one of 60, 300, 900, 3600, 21600 or 86400 seconds
+        long step = HistoryIntervals.targetSeconds(fromSeconds, toSeconds);
+        long lastEmitted = Long.MIN_VALUE;
+        for (long start = fromSeconds; start <= toSeconds; start += CANDLE_PAGE * step) {
+            long end = Math.min(toSeconds, start + (CANDLE_PAGE - 1) * step);
+            String url = "https://api.exchange.coinbase.com/products/" + market.getExchangeSymbol()
+                    + "/candles?granularity=" + step + "&start=" + Instant.ofEpochSecond(start)
+                    + "&end=" + Instant.ofEpochSecond(end);
+            // Candles come newest first; a window may repeat the candle its start falls in
+            PriceSeries page = new PriceSeries(CANDLE_PAGE);
+            http.get(url, body -> {
+                ResponseParsers.coinbaseCandles(body, page::add);
+                return null;
+            });
+            for (int i = page.size() - 1; i >= 0; i--) {
+                if (page.getTimestamp(i) > lastEmitted) {
+                    lastEmitted = page.getTimestamp(i);
+                    consumer.accept(lastEmitted, page.getPrice(i));
+                }
+            }
+        }
+    }
+
+    @Override
+    public OrderBook fetchOrderBook(Market market, int depth, HttpFetcher http) throws IOException {
+        // Books live on the Exchange API; level 2 is the aggregated book and has no
+        // size parameter, so only the first depth levels per side are parsed
+        String url = "https://api.exchange.coinbase.com/products/" + market.getExchangeSymbol() + "/book?level=2";
+        OrderBook book = new OrderBook(getName(), market.getSymbol(), market.getQuote(), depth,
+                System.currentTimeMillis());
+        return http.get(url, body -> ResponseParsers.coinbaseBook(body, book, depth));
+    }
+
+    @Override
+    public Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) throws IOException {
+        if (markets.isEmpty()) return new HashMap<>();
+        QuoteCurrency quote = markets.iterator().next().getQuote();
+        Set<String> symbols = new HashSet<>();
+        for (Market market : markets) {
+            symbols.add(market.getSymbol());
+        }
+
+        // Coinbase has no multi-pair spot endpoint, but the exchange-rate table for the
+        // quote currency carries every listed asset, and quote -> asset is the inverse
+        // of the spot price
+        Map<String, Double> rates = http.get("https://api.coinbase.com/v2/exchange-rates?currency=" + quote.name(),
+                body -> ResponseParsers.coinbaseRates(body, symbols));
+        
+        Map<String, Double> prices = new HashMap<>();
+        for (Map.Entry<String, Double> rate : rates.entrySet()) {
+            if (rate.getValue() > 0) {
+                prices.put(rate.getKey(), 1.0 / rate.getValue());
+            }
+        }
+        return prices;
+    }
+}
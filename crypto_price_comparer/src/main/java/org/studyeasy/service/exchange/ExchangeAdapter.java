@@ -0,0 +1,91 @@
+package org.studyeasy.service.exchange;
+
+import org.studyeasy.service.Market;
+import org.studyeasy.service.OrderBook;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.ResponseParsers;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Service provider interface for one exchange. Implementations are discovered
+// with ServiceLoader (META-INF/services), must have a public no-arg constructor
+// and must be stateless: all I/O goes through the HttpFetcher they are given.
+public interface ExchangeAdapter {
+
+    // Display name, also used as the exchange key in results and caches
+    String getName();
+
+    Set<Capability> getCapabilities();
+
+    // Currencies the exchange quotes pairs in, preferred first
+    default List<QuoteCurrency> getQuoteCurrencies() {
+        return List.of(QuoteCurrency.USD);
+    }
+
+    // Pair currency to fetch when prices are wanted in target: the target itself when
+    // listed, otherwise the preferred one, which the caller then converts
+    default QuoteCurrency nativeQuoteCurrency(QuoteCurrency target) {
+        List<QuoteCurrency> listed = getQuoteCurrencies();
+        return listed.contains(target) ? target : listed.get(0);
+    }
+
+    // Every pair the exchange lists in one of getQuoteCurrencies(); requires MARKETS.
+    // The symbol registry loads this in the background and resolves the Market that
+    // the fetch methods below are given.
+    default List<Market> fetchMarkets(HttpFetcher http) throws IOException {
+        throw new UnsupportedOperationException(getName() + " does not list its markets");
+    }
+
+    // The exchange's own pair or id for a plain symbol such as "BTC", used only for
+    // exchanges without MARKETS, where the pair cannot be looked up
+    String toExchangeSymbol(String symbol, QuoteCurrency quote);
+
+    double fetchQuote(Market market, HttpFetcher http) throws IOException;
+
+    // Quotes for many markets sharing one quote currency, keyed by symbol; pairs that
+    // do not come back are omitted. Adapters with BATCH_QUOTE override this with a
+    // single bulk request.
+    default Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) throws IOException {
+        Map<String, Double> prices = new HashMap<>();
+        for (Market market : markets) {
+            try {
+                prices.put(market.getSymbol(), fetchQuote(market, http));
+            } catch (IOException e) {
+                System.err.println("Error fetching " + market.getSymbol() + " from " + getName() + ": " + e.getMessage());
+            }
+        }
+        return prices;
+    }
+
+    // Raw (epoch millis, price) points between two epoch seconds, oldest first, priced in
+    // the market's quote currency; requires HISTORY
+    default void fetchHistory(Market market, long fromSeconds, long toSeconds, HttpFetcher http,
+                              ResponseParsers.PricePointConsumer consumer) throws IOException {
+        throw new UnsupportedOperationException(getName() + " does not provide price history");
+    }
+
+    // Top depth levels per side, best first; requires ORDER_BOOK. Exchanges may
+    // round depth up to the nearest size they offer.
+    default OrderBook fetchOrderBook(Market market, int depth, HttpFetcher http) throws IOException {
+        throw new UnsupportedOperationException(getName() + " does not provide order books");
+    }
+
+    // Published request budget; the registry throttles this adapter's HTTP calls to it
+    default RateLimit getRateLimit() {
+        return new RateLimit(10, 1);
+    }
+
+    // Cost of one request in the units of getRateLimit(), for APIs with weighted endpoints
+    default int getRequestWeight(String url) {
+        return 1;
+    }
+
+    default boolean supports(Capability capability) {
+        return getCapabilities().contains(capability);
+    }
+}
@@ -0,0 +1,319 @@
+package org.studyeasy.service.exchange;
+
+import org.studyeasy.metrics.CountingInputStream;
+import org.studyeasy.metrics.ExchangeMetrics;
+import org.studyeasy.metrics.FetchMetrics;
+import org.studyeasy.service.FetchStatus;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Holds the discovered exchange adapters, runs them in parallel and keeps
+// per-adapter statistics. Adapters can be switched off at runtime so a slow
+// venue stops holding up comparisons.
+public class ExchangeRegistry implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface AdapterCall<T> {
+        T call(ExchangeAdapter adapter) throws IOException;
+    }
+
+    // Result of running one adapter call under a deadline
+    public static class Outcome<T> {
+        private final FetchStatus status;
+        private final T value;
+        private final Throwable error;
+
+        Outcome(FetchStatus status, T value, Throwable error) {
+            this.status = status;
+            this.value = value;
+            this.error = error;
+        }
+
+        public FetchStatus getStatus() {
+            return status;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    // Longest a request will wait for a rate-limit slot before failing instead
+    private static final long MAX_RATE_LIMIT_WAIT_MS = 1000;
+
+    // The call() running on this thread: time its requests spent waiting on our own token
+    // bucket, and whether the bucket turned one away. Neither is the exchange's doing, so
+    // both are kept out of its stats and circuit breaker.
+    private static final class CallContext {
+        long throttleWaitNanos;
+        boolean throttled;
+    }
+
+    private static final ThreadLocal<CallContext> currentCall = new ThreadLocal<>();
+
+    private final List<ExchangeAdapter> adapters;
+    private final Map<String, ExchangeAdapter> byName = new LinkedHashMap<>();
+    private final Map<String, AdapterStats> stats = new LinkedHashMap<>();
+    private final Map<String, TokenBucket> rateLimiters = new LinkedHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new LinkedHashMap<>();
+    private final Set<String> disabled = ConcurrentHashMap.newKeySet();
+    private volatile boolean rateLimitingEnabled = true;
+    private final FetchMetrics metrics;
+    private final ExecutorService executor;
+
+    public ExchangeRegistry(List<ExchangeAdapter> adapters) {
+        this.adapters = Collections.unmodifiableList(new ArrayList<>(adapters));
+        for (ExchangeAdapter adapter : this.adapters) {
+            byName.put(adapter.getName(), adapter);
+            stats.put(adapter.getName(), new AdapterStats());
+            rateLimiters.put(adapter.getName(), new TokenBucket(adapter.getRateLimit()));
+            circuitBreakers.put(adapter.getName(), new CircuitBreaker());
+        }
+        metrics = new FetchMetrics(byName.keySet());
+
+        // Daemon threads so an in-flight fetch never keeps the JVM alive
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "price-fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Discovers every adapter listed in META-INF/services, in file order
+    public static ExchangeRegistry load() {
+        List<ExchangeAdapter> adapters = new ArrayList<>();
+        for (ExchangeAdapter adapter : ServiceLoader.load(ExchangeAdapter.class)) {
+            adapters.add(adapter);
+        }
+        return new ExchangeRegistry(adapters);
+    }
+
+    // All adapters, enabled or not, in a stable order
+    public List<ExchangeAdapter> getAdapters() {
+        return adapters;
+    }
+
+    public List<ExchangeAdapter> getEnabledAdapters() {
+        List<ExchangeAdapter> enabled = new ArrayList<>();
+        for (ExchangeAdapter adapter : adapters) {
+            if (!disabled.contains(adapter.getName())) enabled.add(adapter);
+        }
+        return enabled;
+    }
+
+    public ExchangeAdapter getAdapter(String name) {
+        return byName.get(name);
+    }
+
+    public boolean isEnabled(String name) {
+        return byName.containsKey(name) && !disabled.contains(name);
+    }
+
+    public void setEnabled(String name, boolean enabled) {
+        if (!byName.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown exchange: " + name);
+        }
+        if (enabled) {
+            disabled.remove(name);
+        } else {
+            disabled.add(name);
+        }
+    }
+
+    public AdapterStats getStats(String name) {
+        return stats.get(name);
+    }
+
+    // Client-side throttling is on by default; turn it off only for local stubs and benchmarks
+    public void setRateLimitingEnabled(boolean enabled) {
+        this.rateLimitingEnabled = enabled;
+    }
+
+    // Latency histograms, bytes, parse time and outcome counters; disabled until switched on
+    public FetchMetrics getMetrics() {
+        return metrics;
+    }
+
+    public CircuitBreaker getCircuitBreaker(String name) {
+        return circuitBreakers.get(name);
+    }
+
+    public TokenBucket getRateLimiter(String name) {
+        return rateLimiters.get(name);
+    }
+
+    // Wraps the shared fetcher so every request this adapter makes is charged to its
+    // token bucket, and a 429/418 from the exchange pauses the bucket for Retry-After
+    public HttpFetcher fetcherFor(ExchangeAdapter adapter, HttpFetcher http) {
+        TokenBucket limiter = rateLimiters.get(adapter.getName());
+        ExchangeMetrics exchangeMetrics = metrics.forExchange(adapter.getName());
+        return new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                if (rateLimitingEnabled) {
+                    acquire(url);
+                }
+                try {
+                    if (!metrics.isEnabled()) {
+                        return http.get(url, parser);
+                    }
+                    return measured(url, parser);
+                } catch (RateLimitedException e) {
+                    limiter.pause(e.getRetryAfterMs());
+                    throw e;
+                }
+            }
+
+            private void acquire(String url) throws IOException {
+                CallContext context = currentCall.get();
+                long start = System.nanoTime();
+                try {
+                    limiter.acquire(adapter.getRequestWeight(url), MAX_RATE_LIMIT_WAIT_MS);
+                } catch (RateLimitedException e) {
+                    if (context != null) context.throttled = true;
+                    throw e;
+                } finally {
+                    if (context != null) context.throttleWaitNanos += System.nanoTime() - start;
+                }
+            }
+
+            // Times the request (after any rate-limit wait) and the parse, and counts the body bytes
+            private <T> T measured(String url, ResponseParser<T> parser) throws IOException {
+                long start = System.nanoTime();
+                try {
+                    return http.get(url, body -> {
+                        CountingInputStream counting = new CountingInputStream(body);
+                        long parseStart = System.nanoTime();
+                        T value = parser.parse(counting);
+                        long parseNanos = System.nanoTime() - parseStart;
+                        // The client would drain the rest anyway to reuse the connection
+                        exchangeMetrics.recordParse(parseNanos, counting.drain());
+                        return value;
+                    });
+                } finally {
+                    exchangeMetrics.recordRequest(System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    // First enabled adapter offering the capability, or null
+    public ExchangeAdapter findAdapter(Capability capability) {
+        for (ExchangeAdapter adapter : getEnabledAdapters()) {
+            if (adapter.supports(capability)) return adapter;
+        }
+        return null;
+    }
+
+    // Runs one adapter call on the caller's thread behind its circuit breaker and
+    // records its latency; fails fast while the breaker is open. Time spent waiting for
+    // a rate-limit slot is not counted, and a call our own bucket turned away is not
+    // recorded at all.
+    public <T> T call(ExchangeAdapter adapter, AdapterCall<T> call) throws IOException {
+        CircuitBreaker breaker = circuitBreakers.get(adapter.getName());
+        CircuitBreaker.Permit permit = breaker.allowRequest();
+        if (permit == null) {
+            if (metrics.isEnabled()) metrics.forExchange(adapter.getName()).recordCircuitOpen();
+            throw new CircuitOpenException(adapter.getName());
+        }
+        CallContext outer = currentCall.get();
+        CallContext context = new CallContext();
+        currentCall.set(context);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T value = call.call(adapter);
+            success = true;
+            return value;
+        } finally {
+            currentCall.set(outer);
+            long nanos = System.nanoTime() - start - context.throttleWaitNanos;
+            if (success || !context.throttled) {
+                stats.get(adapter.getName()).record(nanos, success);
+                breaker.record(permit, nanos, success);
+                if (metrics.isEnabled()) metrics.forExchange(adapter.getName()).recordOutcome(success);
+            } else {
+                breaker.release(permit);
+            }
+        }
+    }
+
+    // Runs the call on every enabled adapter at once and waits at most deadlineMs
+    // overall; adapters that have not answered by then are cancelled
+    public <T> Map<String, Outcome<T>> invokeAll(AdapterCall<T> call, long deadlineMs) {
+        return invokeAll(getEnabledAdapters(), call, deadlineMs);
+    }
+
+    // Same, limited to the enabled adapters that offer the capability
+    public <T> Map<String, Outcome<T>> invokeAll(Capability capability, AdapterCall<T> call, long deadlineMs) {
+        List<ExchangeAdapter> capable = new ArrayList<>();
+        for (ExchangeAdapter adapter : getEnabledAdapters()) {
+            if (adapter.supports(capability)) capable.add(adapter);
+        }
+        return invokeAll(capable, call, deadlineMs);
+    }
+
+    private <T> Map<String, Outcome<T>> invokeAll(List<ExchangeAdapter> targets, AdapterCall<T> call, long deadlineMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        Map<String, Future<T>> pending = new LinkedHashMap<>();
+        for (ExchangeAdapter adapter : targets) {
+            pending.put(adapter.getName(), executor.submit(() -> call.call(adapter)));
+        }
+
+        Map<String, Outcome<T>> outcomes = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<T>> entry : pending.entrySet()) {
+            Future<T> future = entry.getValue();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                outcomes.put(entry.getKey(), new Outcome<>(FetchStatus.OK,
+                        future.get(remaining, TimeUnit.NANOSECONDS), null));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                if (metrics.isEnabled()) metrics.forExchange(entry.getKey()).recordTimeout();
+                outcomes.put(entry.getKey(), new Outcome<>(FetchStatus.TIMEOUT, null, e));
+            } catch (ExecutionException e) {
+                FetchStatus status;
+                if (e.getCause() instanceof CircuitOpenException) {
+                    status = FetchStatus.CIRCUIT_OPEN;
+                } else if (e.getCause() instanceof NotListedException) {
+                    status = FetchStatus.NOT_LISTED;
+                } else {
+                    status = FetchStatus.ERROR;
+                }
+                outcomes.put(entry.getKey(), new Outcome<>(status, null, e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                outcomes.put(entry.getKey(), new Outcome<>(FetchStatus.ERROR, null, e));
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        metrics.close();
+    }
+}
@@ -0,0 +1,23 @@
+package org.studyeasy.service.exchange;
+
+import java.util.concurrent.TimeUnit;
+
+// Point spacing for history between two epoch seconds, the same that CoinGecko picks
+// on its own: 5 minutes up to a day, hourly up to 90 days and daily beyond. Exchanges
+// that serve candles request this spacing too, so sources pooled into one set of
+// buckets carry a similar number of points each.
+final class HistoryIntervals {
+    static final long FIVE_MINUTES = TimeUnit.MINUTES.toSeconds(5);
+    static final long HOUR = TimeUnit.HOURS.toSeconds(1);
+    static final long DAY = TimeUnit.DAYS.toSeconds(1);
+
+    private HistoryIntervals() {
+    }
+
+    static long targetSeconds(long fromSeconds, long toSeconds) {
+        long span = toSeconds - fromSeconds;
+        if (span <= DAY) return FIVE_MINUTES;
+        if (span <= 90 * DAY) return HOUR;
+        return DAY;
+    }
+}
@@ -0,0 +1,16 @@
+package org.studyeasy.service.exchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Shared, pooled HTTP GET access handed to adapters by the service
+@FunctionalInterface
+public interface HttpFetcher {
+
+    @FunctionalInterface
+    interface ResponseParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
+    <T> T get(String url, ResponseParser<T> parser) throws IOException;
+}
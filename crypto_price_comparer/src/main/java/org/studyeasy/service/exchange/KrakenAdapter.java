@@ -0,0 +1,146 @@
+package org.studyeasy.service.exchange;
+
+import org.studyeasy.service.KrakenApiException;
+import org.studyeasy.service.Market;
+import org.studyeasy.service.OrderBook;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.ResponseParsers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+public class KrakenAdapter implements ExchangeAdapter {
+    // Kraken's own names for assets that go by a different symbol elsewhere
+    private static final Map<String, String> ASSET_ALIASES = Map.of("XBT", "BTC", "XDG", "DOGE");
+    // OHLC intervals in minutes; only the latest 720 candles of any interval are served
+    private static final int[] OHLC_INTERVALS = {5, 60, 240, 1440, 10080, 21600};
+    private static final int OHLC_MAX_CANDLES = 720;
+
+    @Override
+    public String getName() {
+        return "Kraken";
+    }
+
+    @Override
+    public Set<Capability> getCapabilities() {
+        return EnumSet.of(Capability.QUOTE, Capability.BATCH_QUOTE, Capability.HISTORY, Capability.ORDER_BOOK,
+                Capability.MARKETS);
+    }
+
+    @Override
+    public List<QuoteCurrency> getQuoteCurrencies() {
+        return List.of(QuoteCurrency.USD, QuoteCurrency.EUR, QuoteCurrency.USDT, QuoteCurrency.USDC);
+    }
+
+    @Override
+    public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+        return symbol.toUpperCase() + quote.name();
+    }
+
+    @Override
+    public RateLimit getRateLimit() {
+        // Public endpoints are limited to about one call per second
+        return new RateLimit(3, 1);
+    }
+
+    @Override
+    public List<Market> fetchMarkets(HttpFetcher http) throws IOException {
+        List<Market> markets = new ArrayList<>();
+        http.get("https://api.kraken.com/0/public/AssetPairs", body -> {
+            ResponseParsers.krakenAssetPairs(body, (base, quote, id, name) -> {
+                QuoteCurrency currency = QuoteCurrency.fromCode(quote);
+                if (currency != null && getQuoteCurrencies().contains(currency)) {
+                    markets.add(new Market(ASSET_ALIASES.getOrDefault(base, base), currency, id));
+                }
+            });
+            return null;
+        });
+        return markets;
+    }
+
+    @Override
+    public double fetchQuote(Market market, HttpFetcher http) throws IOException {
+        String url = "https://api.kraken.com/0/public/Ticker?pair=" + market.getExchangeSymbol();
+        Map<String, Double> prices = http.get(url, ResponseParsers::krakenLastPrices);
+        
+        // One pair was requested, so take whichever name it came back under
+        if (prices.isEmpty()) {
+            throw new IOException("No trading pair found in Kraken response");
+        }
+        return prices.values().iterator().next();
+    }
+
+    @Override
+    public void fetchHistory(Market market, long fromSeconds, long toSeconds, HttpFetcher http,
+                             ResponseParsers.PricePointConsumer consumer) throws IOException {
+        // No paging, so the spacing widens until the whole range fits in one response
+        long target = HistoryIntervals.targetSeconds(fromSeconds, toSeconds);
+        int interval = OHLC_INTERVALS[OHLC_INTERVALS.length - 1];
+        for (int minutes : OHLC_INTERVALS) {
+            if (minutes * 60L >= target && (toSeconds - fromSeconds) / (minutes * 60L) < OHLC_MAX_CANDLES) {
+                interval = minutes;
+                break;
+            }
+        }
+        long fromMs = fromSeconds * 1000;
+        long toMs = toSeconds * 1000;
+        String url = "https://api.kraken.com/0/public/OHLC?pair=" + market.getExchangeSymbol()
+                + "&interval=" + interval + "&since=" + (fromSeconds - 1);
+        http.get(url, body -> {
+            ResponseParsers.krakenOhlc(body, (timestamp, price) -> {
+                if (timestamp >= fromMs && timestamp <= toMs) {
+                    consumer.accept(timestamp, price);
+                }
+            });
+            return null;
+        });
+    }
+
+    @Override
+    public OrderBook fetchOrderBook(Market market, int depth, HttpFetcher http) throws IOException {
+        // Depth allows at most 500 levels per side
+        int count = Math.max(1, Math.min(depth, 500));
+        String url = "https://api.kraken.com/0/public/Depth?pair=" + market.getExchangeSymbol() + "&count=" + count;
+        OrderBook book = new OrderBook(getName(), market.getSymbol(), market.getQuote(), count,
+                System.currentTimeMillis());
+        return http.get(url, body -> ResponseParsers.krakenDepth(body, book));
+    }
+
+    @Override
+    public Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) throws IOException {
+        StringJoiner pairs = new StringJoiner(",");
+        for (Market market : markets) {
+            pairs.add(market.getExchangeSymbol());
+        }
+        
+        // Pairs are requested by their AssetPairs key, which is also the key they come back under
+        Map<String, Double> pairPrices;
+        try {
+            pairPrices = http.get("https://api.kraken.com/0/public/Ticker?pair=" + pairs,
+                    ResponseParsers::krakenLastPrices);
+        } catch (KrakenApiException e) {
+            // One pair delisted since the last listing refresh rejects the whole batch,
+            // so fall back to the full ticker list. Anything else, rate limits and
+            // timeouts included, goes to the caller: retrying with a bigger request
+            // would only add load to an exchange that is already struggling.
+            if (!e.hasError(KrakenApiException.UNKNOWN_ASSET_PAIR)) throw e;
+            pairPrices = http.get("https://api.kraken.com/0/public/Ticker", ResponseParsers::krakenLastPrices);
+        }
+        
+        Map<String, Double> prices = new HashMap<>();
+        for (Market market : markets) {
+            Double price = pairPrices.get(market.getExchangeSymbol());
+            if (price != null) {
+                prices.put(market.getSymbol(), price);
+            }
+        }
+        return prices;
+    }
+}
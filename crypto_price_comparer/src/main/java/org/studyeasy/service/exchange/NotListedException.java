@@ -0,0 +1,10 @@
+package org.studyeasy.service.exchange;
+
+import java.io.IOException;
+
+// Thrown instead of calling an exchange whose listing does not have the symbol
+public class NotListedException extends IOException {
+    public NotListedException(String exchange, String symbol) {
+        super(symbol + " is not listed on " + exchange);
+    }
+}
@@ -0,0 +1,21 @@
+package org.studyeasy.service.exchange;
+
+// Token-bucket parameters for one exchange: burst capacity and sustained refill rate,
+// both in the exchange's own request-weight units
+public class RateLimit {
+    private final int capacity;
+    private final double refillPerSecond;
+
+    public RateLimit(int capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public double getRefillPerSecond() {
+        return refillPerSecond;
+    }
+}
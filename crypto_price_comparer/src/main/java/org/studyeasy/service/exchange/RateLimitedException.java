@@ -0,0 +1,18 @@
+package org.studyeasy.service.exchange;
+
+import java.io.IOException;
+
+// Thrown when a request would exceed an exchange's rate limit, either locally or
+// because the exchange itself answered 429/418
+public class RateLimitedException extends IOException {
+    private final long retryAfterMs;
+
+    public RateLimitedException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
@@ -0,0 +1,67 @@
+package org.studyeasy.service.exchange;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Client-side rate limiter. Requests take tokens equal to their weight; callers
+// wait briefly for a refill, or fail straight away if the wait would be too long.
+public class TokenBucket {
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+    private long pausedUntil;
+
+    public TokenBucket(RateLimit limit) {
+        this.capacity = limit.getCapacity();
+        this.refillPerNano = limit.getRefillPerSecond() / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire(int weight, long maxWaitMs) throws IOException {
+        double needed = Math.min(weight, capacity);
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                refill(now);
+                if (now < pausedUntil) {
+                    waitNanos = pausedUntil - now;
+                } else if (tokens >= needed) {
+                    tokens -= needed;
+                    return;
+                } else {
+                    waitNanos = (long) Math.ceil((needed - tokens) / refillPerNano);
+                }
+            }
+            if (waitNanos > maxWaitNanos) {
+                throw new RateLimitedException("Rate limit reached, next slot in "
+                        + TimeUnit.NANOSECONDS.toMillis(waitNanos) + " ms", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a rate limit slot", e);
+            }
+        }
+    }
+
+    // Stops handing out tokens for a while, e.g. after the exchange answered 429
+    public synchronized void pause(long millis) {
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+        tokens = 0;
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,123 @@
+package org.studyeasy.service.history;
+
+import org.studyeasy.service.PriceSeries;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Buckets price series into OhlcSeries. Series longer than chunkPoints are split into
+// chunks that are bucketed in parallel on a fork-join pool and joined in one pass;
+// only the bucket spanning each chunk boundary needs combining. Several sources, such
+// as one series per exchange, can be pooled into one set of buckets.
+public class HistoryAggregator {
+    // A year of minute points is ~525k, so multi-year ranges get a few dozen chunks
+    public static final int DEFAULT_CHUNK_POINTS = 1 << 15;
+
+    private final ForkJoinPool pool;
+    private final int chunkPoints;
+
+    public HistoryAggregator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_POINTS);
+    }
+
+    public HistoryAggregator(ForkJoinPool pool, int chunkPoints) {
+        if (chunkPoints < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkPoints);
+        }
+        this.pool = pool;
+        this.chunkPoints = chunkPoints;
+    }
+
+    // The series must be in time order, as PriceSeries from the service and the store are
+    public OhlcSeries aggregate(PriceSeries series, Resolution resolution) {
+        if (series.size() <= chunkPoints) {
+            return bucket(series, 0, series.size(), resolution);
+        }
+        return pool.invoke(new AggregateTask(List.of(series), resolution));
+    }
+
+    // Every source's points pooled per bucket: open from the earliest point in the
+    // bucket across sources, close from the latest, mean over all of them
+    public OhlcSeries aggregate(Collection<PriceSeries> sources, Resolution resolution) {
+        if (sources.size() == 1) {
+            return aggregate(sources.iterator().next(), resolution);
+        }
+        return pool.invoke(new AggregateTask(new ArrayList<>(sources), resolution));
+    }
+
+    // Points [from, to) straight into buckets; NaN prices are skipped
+    private static OhlcSeries bucket(PriceSeries series, int from, int to, Resolution resolution) {
+        long[] timestamps = series.timestampArray();
+        double[] prices = series.priceArray();
+        int buckets = to <= from ? 1
+                : (int) Math.min(to - from, (timestamps[to - 1] - timestamps[from]) / resolution.getMillis() + 1);
+        OhlcSeries result = new OhlcSeries(resolution, buckets);
+        for (int i = from; i < to; i++) {
+            if (!Double.isNaN(prices[i])) {
+                result.add(timestamps[i], prices[i]);
+            }
+        }
+        return result;
+    }
+
+    // Forks one task per chunk of every source, joins each source's chunks in order
+    // and merges the sources
+    private final class AggregateTask extends RecursiveTask<OhlcSeries> {
+        private final List<PriceSeries> sources;
+        private final Resolution resolution;
+
+        AggregateTask(List<PriceSeries> sources, Resolution resolution) {
+            this.sources = sources;
+            this.resolution = resolution;
+        }
+
+        @Override
+        protected OhlcSeries compute() {
+            List<List<ChunkTask>> chunks = new ArrayList<>();
+            List<ChunkTask> all = new ArrayList<>();
+            for (PriceSeries source : sources) {
+                List<ChunkTask> sourceChunks = new ArrayList<>();
+                for (int from = 0; from < source.size(); from += chunkPoints) {
+                    sourceChunks.add(new ChunkTask(source, from, Math.min(source.size(), from + chunkPoints), resolution));
+                }
+                chunks.add(sourceChunks);
+                all.addAll(sourceChunks);
+            }
+            invokeAll(all);
+
+            List<OhlcSeries> parts = new ArrayList<>();
+            for (List<ChunkTask> sourceChunks : chunks) {
+                List<OhlcSeries> bucketed = new ArrayList<>();
+                for (ChunkTask chunk : sourceChunks) {
+                    bucketed.add(chunk.join());
+                }
+                if (!bucketed.isEmpty()) {
+                    parts.add(OhlcSeries.concat(bucketed, resolution));
+                }
+            }
+            return parts.isEmpty() ? new OhlcSeries(resolution, 1) : OhlcSeries.merge(parts, resolution);
+        }
+    }
+
+    private static final class ChunkTask extends RecursiveTask<OhlcSeries> {
+        private final PriceSeries series;
+        private final int from;
+        private final int to;
+        private final Resolution resolution;
+
+        ChunkTask(PriceSeries series, int from, int to, Resolution resolution) {
+            this.series = series;
+            this.from = from;
+            this.to = to;
+            this.resolution = resolution;
+        }
+
+        @Override
+        protected OhlcSeries compute() {
+            return bucket(series, from, to, resolution);
+        }
+    }
+}
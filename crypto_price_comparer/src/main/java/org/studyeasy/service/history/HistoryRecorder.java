@@ -0,0 +1,37 @@
+package org.studyeasy.service.history;
+
+import org.studyeasy.service.QuoteListener;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Appends live quotes from one exchange to the history store, at most one point
+// per symbol per interval so fast refreshes do not bloat the files
+public class HistoryRecorder implements QuoteListener {
+    private final TimeSeriesStore store;
+    private final String exchange;
+    private final long minIntervalMs;
+    private final Map<String, Long> lastRecorded = new ConcurrentHashMap<>();
+
+    public HistoryRecorder(TimeSeriesStore store, String exchange, long minIntervalMs) {
+        this.store = store;
+        this.exchange = exchange;
+        this.minIntervalMs = minIntervalMs;
+    }
+
+    @Override
+    public void onQuote(String exchange, String symbol, double price, long timestampMs) {
+        if (!this.exchange.equals(exchange)) return;
+        Long last = lastRecorded.get(symbol);
+        if (last != null && timestampMs - last < minIntervalMs) return;
+
+        try {
+            if (store.append(symbol, timestampMs, price)) {
+                lastRecorded.put(symbol, timestampMs);
+            }
+        } catch (IOException e) {
+            System.err.println("Error recording " + symbol + " history: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.studyeasy.service.history;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Price points bucketed by time: open, high, low, close, mean and point count per
+// bucket, held in parallel primitive arrays ordered by bucket start. High and low are
+// the bucket's maximum and minimum price. Buckets without points are left out.
+public class OhlcSeries {
+    private final Resolution resolution;
+    private long[] starts;
+    // Times of each bucket's first and last point, so merged buckets keep the right open and close
+    private long[] firstTimes;
+    private long[] lastTimes;
+    private double[] opens;
+    private double[] highs;
+    private double[] lows;
+    private double[] closes;
+    private double[] sums;
+    private int[] counts;
+    private int size;
+
+    OhlcSeries(Resolution resolution, int initialCapacity) {
+        this.resolution = resolution;
+        int capacity = Math.max(1, initialCapacity);
+        starts = new long[capacity];
+        firstTimes = new long[capacity];
+        lastTimes = new long[capacity];
+        opens = new double[capacity];
+        highs = new double[capacity];
+        lows = new double[capacity];
+        closes = new double[capacity];
+        sums = new double[capacity];
+        counts = new int[capacity];
+    }
+
+    // Adds a point to the last bucket, or opens a new one; points must arrive in time order
+    void add(long timestamp, double price) {
+        long start = resolution.bucketStart(timestamp);
+        int last = size - 1;
+        if (last >= 0 && starts[last] == start) {
+            if (price > highs[last]) highs[last] = price;
+            if (price < lows[last]) lows[last] = price;
+            closes[last] = price;
+            lastTimes[last] = timestamp;
+            sums[last] += price;
+            counts[last]++;
+            return;
+        }
+        ensureCapacity();
+        starts[size] = start;
+        firstTimes[size] = timestamp;
+        lastTimes[size] = timestamp;
+        opens[size] = price;
+        highs[size] = price;
+        lows[size] = price;
+        closes[size] = price;
+        sums[size] = price;
+        counts[size] = 1;
+        size++;
+    }
+
+    // Appends bucket i of other, folding it into the last bucket when both have the same start
+    private void append(OhlcSeries other, int i) {
+        int last = size - 1;
+        if (last >= 0 && starts[last] == other.starts[i]) {
+            if (other.firstTimes[i] < firstTimes[last]) {
+                firstTimes[last] = other.firstTimes[i];
+                opens[last] = other.opens[i];
+            }
+            if (other.lastTimes[i] >= lastTimes[last]) {
+                lastTimes[last] = other.lastTimes[i];
+                closes[last] = other.closes[i];
+            }
+            highs[last] = Math.max(highs[last], other.highs[i]);
+            lows[last] = Math.min(lows[last], other.lows[i]);
+            sums[last] += other.sums[i];
+            counts[last] += other.counts[i];
+            return;
+        }
+        ensureCapacity();
+        starts[size] = other.starts[i];
+        firstTimes[size] = other.firstTimes[i];
+        lastTimes[size] = other.lastTimes[i];
+        opens[size] = other.opens[i];
+        highs[size] = other.highs[i];
+        lows[size] = other.lows[i];
+        closes[size] = other.closes[i];
+        sums[size] = other.sums[i];
+        counts[size] = other.counts[i];
+        size++;
+    }
+
+    // Joins consecutive chunks of one series; only the bucket spanning each boundary is combined
+    static OhlcSeries concat(List<OhlcSeries> chunks, Resolution resolution) {
+        if (chunks.size() == 1) return chunks.get(0);
+        int total = 0;
+        for (OhlcSeries chunk : chunks) {
+            total += chunk.size;
+        }
+        OhlcSeries joined = new OhlcSeries(resolution, total);
+        for (OhlcSeries chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                joined.append(chunk, i);
+            }
+        }
+        return joined;
+    }
+
+    // Combines overlapping series of one resolution bucket by bucket, e.g. one series
+    // per exchange. O(buckets x parts), so meant for a handful of parts.
+    static OhlcSeries merge(List<OhlcSeries> parts, Resolution resolution) {
+        if (parts.size() == 1) return parts.get(0);
+        int total = 0;
+        for (OhlcSeries part : parts) {
+            total += part.size;
+        }
+        OhlcSeries merged = new OhlcSeries(resolution, total);
+        int[] next = new int[parts.size()];
+        while (true) {
+            int pick = -1;
+            for (int p = 0; p < next.length; p++) {
+                OhlcSeries part = parts.get(p);
+                if (next[p] < part.size && (pick < 0 || part.starts[next[p]] < parts.get(pick).starts[next[pick]])) {
+                    pick = p;
+                }
+            }
+            if (pick < 0) return merged;
+            merged.append(parts.get(pick), next[pick]++);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size < starts.length) return;
+        int capacity = size * 2;
+        starts = Arrays.copyOf(starts, capacity);
+        firstTimes = Arrays.copyOf(firstTimes, capacity);
+        lastTimes = Arrays.copyOf(lastTimes, capacity);
+        opens = Arrays.copyOf(opens, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        closes = Arrays.copyOf(closes, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Epoch millis the bucket starts at
+    public long getStart(int index) {
+        return starts[index];
+    }
+
+    public double getOpen(int index) {
+        return opens[index];
+    }
+
+    public double getHigh(int index) {
+        return highs[index];
+    }
+
+    public double getLow(int index) {
+        return lows[index];
+    }
+
+    public double getClose(int index) {
+        return closes[index];
+    }
+
+    public double getMean(int index) {
+        return sums[index] / counts[index];
+    }
+
+    // Points that fell into the bucket, across every source
+    public int getCount(int index) {
+        return counts[index];
+    }
+}
@@ -0,0 +1,45 @@
+package org.studyeasy.service.history;
+
+import java.util.concurrent.TimeUnit;
+
+// Bucket sizes for aggregated history. Buckets are aligned to the epoch, so days
+// run from midnight UTC, and finding a point's bucket is one floorMod.
+public enum Resolution {
+    MINUTE("1m", TimeUnit.MINUTES.toMillis(1)),
+    HOUR("1h", TimeUnit.HOURS.toMillis(1)),
+    DAY("1d", TimeUnit.DAYS.toMillis(1));
+
+    private final String label;
+    private final long millis;
+
+    Resolution(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    // Start of the bucket holding timestampMs
+    public long bucketStart(long timestampMs) {
+        return timestampMs - Math.floorMod(timestampMs, millis);
+    }
+
+    // Resolution for a label such as "1h", or null when it is not one of these
+    public static Resolution fromLabel(String label) {
+        for (Resolution resolution : values()) {
+            if (resolution.label.equalsIgnoreCase(label)) return resolution;
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
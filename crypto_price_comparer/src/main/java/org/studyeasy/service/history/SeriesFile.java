@@ -0,0 +1,254 @@
+package org.studyeasy.service.history;
+
+import org.studyeasy.service.PriceSeries;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// One symbol's price history as a memory-mapped file of fixed-width records.
+//
+// Layout: a 32-byte header (magic, version, record count, covered-from and
+// backfilled-to epoch millis) followed by 16-byte (epoch millis, price) records in
+// ascending time order. Backfills are complete over [coveredFrom, backfilledTo];
+// live points appended after that may have gaps, e.g. while the app was closed.
+// The file is grown in chunks and remapped, so appends are plain buffer writes.
+// Merges rewrite the affected records in place rather than replacing the file,
+// and old mappings are released explicitly: Windows will not resize or replace a
+// file while a view of it is still mapped.
+class SeriesFile implements AutoCloseable {
+    private static final int MAGIC = 0x43505453; // "CPTS"
+    private static final int VERSION = 2;
+    // Had no backfilled-to watermark, so its coverage cannot be trusted
+    private static final int VERSION_WITHOUT_WATERMARK = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int RECORD_BYTES = 16;
+    private static final int GROW_RECORDS = 4096;
+
+    private static final int COUNT_OFFSET = 8;
+    private static final int COVERED_FROM_OFFSET = 16;
+    private static final int BACKFILLED_TO_OFFSET = 24;
+
+    // Unsafe.invokeCleaner unmaps a buffer now instead of whenever it is collected
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Unavailable: old mappings are released by the garbage collector
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+
+    SeriesFile(Path path) throws IOException {
+        this.path = path;
+        open();
+    }
+
+    private void open() throws IOException {
+        boolean existed = Files.exists(path) && Files.size(path) >= HEADER_BYTES;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (existed) {
+            map(Math.max(0, (int) ((channel.size() - HEADER_BYTES) / RECORD_BYTES)));
+            int version = buffer.getInt(4);
+            if (buffer.getInt(0) != MAGIC || (version != VERSION && version != VERSION_WITHOUT_WATERMARK)) {
+                close();
+                throw new IOException("Not a price history file: " + path);
+            }
+            count = (int) Math.min(buffer.getLong(COUNT_OFFSET), capacity);
+            if (version == VERSION_WITHOUT_WATERMARK) {
+                // Keep the points but have the next request backfill its whole range
+                setCoverage(Long.MAX_VALUE, Long.MIN_VALUE);
+                buffer.putInt(4, VERSION);
+            }
+        } else {
+            map(GROW_RECORDS);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(COUNT_OFFSET, 0);
+            setCoverage(Long.MAX_VALUE, Long.MIN_VALUE);
+            count = 0;
+        }
+    }
+
+    // Maps the header and the given number of records, growing the file if needed
+    private void map(int records) throws IOException {
+        MappedByteBuffer previous = buffer;
+        buffer = null;
+        unmap(previous);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) records * RECORD_BYTES);
+            capacity = records;
+        } catch (IOException e) {
+            // Keep the file usable at its old size, e.g. when the disk is full
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+            throw e;
+        }
+    }
+
+    private static void unmap(MappedByteBuffer mapped) {
+        if (mapped == null || INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, mapped);
+        } catch (ReflectiveOperationException e) {
+            // Left to the garbage collector
+        }
+    }
+
+    synchronized int size() {
+        return count;
+    }
+
+    synchronized long firstTimestamp() {
+        return count == 0 ? Long.MAX_VALUE : timestampAt(0);
+    }
+
+    synchronized long lastTimestamp() {
+        return count == 0 ? Long.MIN_VALUE : timestampAt(count - 1);
+    }
+
+    // Earliest time backfilled data is complete from, Long.MAX_VALUE before any backfill
+    synchronized long coveredFrom() {
+        return buffer.getLong(COVERED_FROM_OFFSET);
+    }
+
+    // Latest time backfilled data is complete to, Long.MIN_VALUE before any backfill.
+    // Only merges move it; appended live points do not.
+    synchronized long backfilledTo() {
+        return buffer.getLong(BACKFILLED_TO_OFFSET);
+    }
+
+    // Appends a point if it is newer than the last one; older points are ignored
+    synchronized boolean append(long timestamp, double price) throws IOException {
+        if (count > 0 && timestamp <= timestampAt(count - 1)) return false;
+        write(timestamp, price);
+        return true;
+    }
+
+    private void write(long timestamp, double price) throws IOException {
+        if (count == capacity) {
+            map(capacity + GROW_RECORDS);
+        }
+        int offset = HEADER_BYTES + count * RECORD_BYTES;
+        buffer.putLong(offset, timestamp);
+        buffer.putDouble(offset + 8, price);
+        count++;
+        // Publish the record before the count that makes it visible
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    // Points with from <= timestamp <= to
+    synchronized PriceSeries read(long from, long to) {
+        int start = lowerBound(from);
+        int end = lowerBound(to == Long.MAX_VALUE ? to : to + 1);
+        PriceSeries series = new PriceSeries(Math.max(1, end - start));
+        for (int i = start; i < end; i++) {
+            int offset = HEADER_BYTES + i * RECORD_BYTES;
+            series.add(buffer.getLong(offset), buffer.getDouble(offset + 8));
+        }
+        return series;
+    }
+
+    // Merges a backfill complete over [coveredFrom, backfilledTo] (points in time order)
+    // into the stored ones; on equal timestamps the new point wins. The backfill must
+    // overlap or adjoin the stored coverage, if any. Only the records from the first
+    // new timestamp on are rewritten, in place, and the count and coverage are cut back
+    // to them first, so a crash part-way leaves a shorter but consistent file.
+    synchronized void merge(PriceSeries incoming, long coveredFrom, long backfilledTo) throws IOException {
+        long mergedCoveredFrom = Math.min(coveredFrom(), coveredFrom);
+        long mergedBackfilledTo = Math.max(backfilledTo(), backfilledTo);
+        if (incoming.isEmpty()) {
+            setCoverage(mergedCoveredFrom, mergedBackfilledTo);
+            return;
+        }
+        int from = lowerBound(incoming.getTimestamp(0));
+        PriceSeries existing = read(incoming.getTimestamp(0), Long.MAX_VALUE);
+        long kept = from == 0 ? Long.MIN_VALUE : timestampAt(from - 1);
+        if (coveredFrom() > kept) {
+            setCoverage(Long.MAX_VALUE, Long.MIN_VALUE);
+        } else {
+            setCoverage(coveredFrom(), Math.min(backfilledTo(), kept));
+        }
+        count = from;
+        buffer.putLong(COUNT_OFFSET, count);
+
+        int i = 0;
+        int j = 0;
+        while (i < existing.size() || j < incoming.size()) {
+            long timestamp;
+            double price;
+            if (j >= incoming.size()
+                    || (i < existing.size() && existing.getTimestamp(i) < incoming.getTimestamp(j))) {
+                timestamp = existing.getTimestamp(i);
+                price = existing.getPrice(i);
+                i++;
+            } else {
+                if (i < existing.size() && existing.getTimestamp(i) == incoming.getTimestamp(j)) i++;
+                timestamp = incoming.getTimestamp(j);
+                price = incoming.getPrice(j);
+                j++;
+            }
+            if (count == 0 || timestamp > timestampAt(count - 1)) {
+                write(timestamp, price);
+            }
+        }
+        setCoverage(mergedCoveredFrom, mergedBackfilledTo);
+        buffer.force();
+    }
+
+    private void setCoverage(long coveredFrom, long backfilledTo) {
+        buffer.putLong(COVERED_FROM_OFFSET, coveredFrom);
+        buffer.putLong(BACKFILLED_TO_OFFSET, backfilledTo);
+    }
+
+    private long timestampAt(int index) {
+        return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    // First index whose timestamp is >= the given time
+    private int lowerBound(long timestamp) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestampAt(mid) < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) return;
+        buffer.force();
+        MappedByteBuffer mapped = buffer;
+        buffer = null;
+        unmap(mapped);
+        channel.close();
+        channel = null;
+    }
+}
@@ -0,0 +1,91 @@
+package org.studyeasy.service.history;
+
+import org.studyeasy.service.PriceSeries;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+// On-disk, append-only price history with one memory-mapped file per symbol.
+// History survives restarts, so callers only need to fetch what is missing.
+public class TimeSeriesStore implements AutoCloseable {
+    private final Path directory;
+    private final Map<String, SeriesFile> files = new HashMap<>();
+
+    public TimeSeriesStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    // ~/.crypto_price_comparer/history
+    public static TimeSeriesStore openDefault() throws IOException {
+        return new TimeSeriesStore(Paths.get(System.getProperty("user.home"), ".crypto_price_comparer", "history"));
+    }
+
+    public boolean isEmpty(String symbol) throws IOException {
+        return file(symbol).size() == 0;
+    }
+
+    public long firstTimestamp(String symbol) throws IOException {
+        return file(symbol).firstTimestamp();
+    }
+
+    public long lastTimestamp(String symbol) throws IOException {
+        return file(symbol).lastTimestamp();
+    }
+
+    // Backfilled history is complete from coveredFrom to backfilledTo; live points
+    // appended after that may have gaps. Long.MAX_VALUE and Long.MIN_VALUE before the
+    // first backfill.
+    public long coveredFrom(String symbol) throws IOException {
+        return file(symbol).coveredFrom();
+    }
+
+    public long backfilledTo(String symbol) throws IOException {
+        return file(symbol).backfilledTo();
+    }
+
+    public boolean append(String symbol, long timestamp, double price) throws IOException {
+        return file(symbol).append(timestamp, price);
+    }
+
+    // Appends the points newer than the last stored one
+    public void append(String symbol, PriceSeries series) throws IOException {
+        SeriesFile file = file(symbol);
+        for (int i = 0; i < series.size(); i++) {
+            file.append(series.getTimestamp(i), series.getPrice(i));
+        }
+    }
+
+    // Merges a backfill complete over [coveredFrom, backfilledTo]; it may reach before
+    // the stored data and must overlap or adjoin the stored coverage
+    public void merge(String symbol, PriceSeries series, long coveredFrom, long backfilledTo) throws IOException {
+        file(symbol).merge(series, coveredFrom, backfilledTo);
+    }
+
+    public PriceSeries read(String symbol, long fromMs, long toMs) throws IOException {
+        return file(symbol).read(fromMs, toMs);
+    }
+
+    private synchronized SeriesFile file(String symbol) throws IOException {
+        String key = symbol.toUpperCase();
+        SeriesFile file = files.get(key);
+        if (file == null) {
+            // Symbols become file names, so keep only safe characters
+            file = new SeriesFile(directory.resolve(key.replaceAll("[^A-Z0-9_-]", "_") + ".ts"));
+            files.put(key, file);
+        }
+        return file;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (SeriesFile file : files.values()) {
+            file.close();
+        }
+        files.clear();
+    }
+}
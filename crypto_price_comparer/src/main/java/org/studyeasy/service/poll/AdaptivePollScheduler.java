@@ -0,0 +1,410 @@
+package org.studyeasy.service.poll;
+
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.QuoteListener;
+import org.studyeasy.service.QuoteSnapshot;
+import org.studyeasy.service.alert.AlertEngine;
+import org.studyeasy.service.exchange.Capability;
+import org.studyeasy.service.exchange.ExchangeAdapter;
+import org.studyeasy.service.exchange.RateLimitedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Polls every (exchange, symbol) pair that someone cares about on its own interval.
+// A pair is polled faster the more watchers its symbol has, the more its price has
+// been moving and the closer it is to an armed alert; symbols nobody watches and
+// with no alerts are not polled at all.
+//
+// Each exchange gets a share of its published rate limit. When the pairs on an
+// exchange want more requests than that, all their intervals are stretched by the
+// same factor, so quiet symbols give way to busy ones instead of hot symbols
+// starving. Batch-capable exchanges fetch every due symbol in one request and take
+// along those at least half-way to due, so their pairs line up over time.
+//
+// Any published quote counts as a poll, so pairs a live feed keeps fresh (and
+// symbols someone just compared) are skipped until they go quiet again.
+public class AdaptivePollScheduler implements QuoteListener, AutoCloseable {
+    public static final long DEFAULT_MIN_INTERVAL_MS = 2000;
+    public static final long DEFAULT_MAX_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    // Fraction of each exchange's rate limit the scheduler may use; the rest is
+    // left for comparisons, order books and history
+    public static final double DEFAULT_BUDGET_SHARE = 0.5;
+
+    private static final long TICK_MS = 250;
+
+    // Moves of this size per sqrt(minute) add one to a pair's priority
+    private static final double VOLATILITY_REFERENCE_BPS = 10;
+    // Weight of the newest volatility sample in the moving average
+    private static final double VOLATILITY_ALPHA = 0.3;
+    // Quotes closer together than this only update the price, not the volatility,
+    // so a burst of streamed ticks does not look like a volatile market
+    private static final long MIN_VOLATILITY_SAMPLE_MS = 1000;
+    // An alert this far away adds one to a pair's priority, ten times closer adds ten
+    private static final double ALERT_REFERENCE_BPS = 50;
+    // Each watcher beyond the first
+    private static final double EXTRA_WATCHER_WEIGHT = 0.5;
+
+    // Interest in a symbol registered with watch(); cancel() withdraws it
+    public class Watch {
+        private final String symbol;
+        private final long maxIntervalMs;
+
+        Watch(String symbol, long maxIntervalMs) {
+            this.symbol = symbol;
+            this.maxIntervalMs = maxIntervalMs;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public long getMaxIntervalMs() {
+            return maxIntervalMs;
+        }
+
+        public void cancel() {
+            synchronized (AdaptivePollScheduler.this) {
+                watches.remove(this);
+            }
+        }
+    }
+
+    // Why a symbol is polled and how stale it may get at most
+    private record Interest(int watchers, long maxIntervalMs) {
+    }
+
+    // One (exchange, symbol) pair
+    private static final class Target {
+        double lastPrice = Double.NaN;
+        // Local time of the last quote or poll attempt
+        long lastSeenAt;
+        // Moving average of absolute moves in bps per sqrt(minute); NaN until measured
+        double volatilityBps = Double.NaN;
+        double sampleStartPrice = Double.NaN;
+        long sampleStartAt;
+        long quoteTimestamp;
+        long intervalMs;
+    }
+
+    private static final class ExchangeState {
+        final String name;
+        final boolean batch;
+        // Sustained requests per second allowed and the resulting spacing between them
+        final double budgetPerSecond;
+        final long minGapMs;
+        final Map<String, Target> targets = new HashMap<>();
+        boolean inFlight;
+        long nextRequestAt;
+
+        ExchangeState(ExchangeAdapter adapter, double budgetShare) {
+            name = adapter.getName();
+            batch = adapter.supports(Capability.BATCH_QUOTE);
+            // Weight of an unparameterized request, the dearest kind on weighted APIs
+            int weight = Math.max(1, adapter.getRequestWeight(""));
+            budgetPerSecond = adapter.getRateLimit().getRefillPerSecond() * budgetShare / weight;
+            minGapMs = (long) Math.ceil(1000 / budgetPerSecond);
+        }
+    }
+
+    private final PriceComparisonService service;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final double budgetShare;
+    // Local time in epoch millis; replaced in tests to drive plan() through simulated time
+    private final LongSupplier clock;
+
+    // Everything below is guarded by this
+    private final List<Watch> watches = new ArrayList<>();
+    private final Map<String, ExchangeState> exchanges = new HashMap<>();
+    private QuoteCurrency currency;
+    private ScheduledExecutorService ticker;
+    private ExecutorService workers;
+    private boolean closed;
+
+    private final AtomicLong pollCount = new AtomicLong();
+
+    public AdaptivePollScheduler(PriceComparisonService service) {
+        this(service, DEFAULT_MIN_INTERVAL_MS, DEFAULT_MAX_INTERVAL_MS, DEFAULT_BUDGET_SHARE);
+    }
+
+    public AdaptivePollScheduler(PriceComparisonService service, long minIntervalMs, long maxIntervalMs,
+                                 double budgetShare) {
+        this(service, minIntervalMs, maxIntervalMs, budgetShare, System::currentTimeMillis);
+    }
+
+    AdaptivePollScheduler(PriceComparisonService service, long minIntervalMs, long maxIntervalMs,
+                          double budgetShare, LongSupplier clock) {
+        if (minIntervalMs <= 0 || maxIntervalMs < minIntervalMs) {
+            throw new IllegalArgumentException("Invalid poll interval bounds: " + minIntervalMs + "-" + maxIntervalMs);
+        }
+        if (!(budgetShare > 0 && budgetShare <= 1)) {
+            throw new IllegalArgumentException("Budget share must be in (0, 1]: " + budgetShare);
+        }
+        this.service = service;
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = maxIntervalMs;
+        this.budgetShare = budgetShare;
+        this.clock = clock;
+    }
+
+    // Starts polling on daemon threads; later calls do nothing
+    public synchronized void start() {
+        if (ticker != null) return;
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "poll-scheduler"));
+        // At most one request in flight per exchange
+        workers = Executors.newCachedThreadPool(runnable -> daemon(runnable, "poll-worker"));
+        ticker.scheduleWithFixedDelay(this::tick, 0, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Keeps the symbol polled on every exchange, at least every maxIntervalMs while
+    // the exchange budgets allow it
+    public synchronized Watch watch(String symbol, long maxIntervalMs) {
+        Watch watch = new Watch(symbol.toUpperCase(), Math.max(minIntervalMs, maxIntervalMs));
+        watches.add(watch);
+        return watch;
+    }
+
+    public Watch watch(String symbol) {
+        return watch(symbol, maxIntervalMs);
+    }
+
+    // Latest polled or published price of the symbol on every exchange being polled
+    // for it, in the current quote currency; empty slots have no price yet
+    public synchronized QuoteSnapshot getSnapshot(String symbol) {
+        String key = symbol.toUpperCase();
+        List<ExchangeAdapter> adapters = service.getExchangeRegistry().getAdapters();
+        String[] names = new String[adapters.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = adapters.get(i).getName();
+        }
+        QuoteSnapshot snapshot = new QuoteSnapshot(key, names);
+        for (ExchangeState state : exchanges.values()) {
+            Target target = state.targets.get(key);
+            if (target != null && !Double.isNaN(target.lastPrice)) {
+                snapshot.set(snapshot.slotOf(state.name), target.lastPrice, target.quoteTimestamp);
+            }
+        }
+        return snapshot;
+    }
+
+    // Current poll interval of the pair after budget stretching, or -1 when it is not polled
+    public synchronized long getIntervalMs(String exchange, String symbol) {
+        ExchangeState state = exchanges.get(exchange);
+        Target target = state == null ? null : state.targets.get(symbol.toUpperCase());
+        return target == null ? -1 : target.intervalMs;
+    }
+
+    // Smoothed volatility the scheduler measured for the pair, in bps per sqrt(minute)
+    public synchronized double getVolatilityBps(String exchange, String symbol) {
+        ExchangeState state = exchanges.get(exchange);
+        Target target = state == null ? null : state.targets.get(symbol.toUpperCase());
+        return target == null ? Double.NaN : target.volatilityBps;
+    }
+
+    // Requests the scheduler has issued
+    public long getPollCount() {
+        return pollCount.get();
+    }
+
+    @Override
+    public synchronized void onQuote(String exchange, String symbol, double price, long timestampMs) {
+        ExchangeState state = exchanges.get(exchange);
+        Target target = state == null ? null : state.targets.get(symbol);
+        if (target == null || !(price > 0)) return;
+
+        long now = clock.getAsLong();
+        if (Double.isNaN(target.sampleStartPrice)) {
+            target.sampleStartPrice = price;
+            target.sampleStartAt = now;
+        } else if (now - target.sampleStartAt >= MIN_VOLATILITY_SAMPLE_MS) {
+            double moveBps = Math.abs(price / target.sampleStartPrice - 1) * 10000;
+            double minutes = (now - target.sampleStartAt) / 60000.0;
+            double sample = moveBps / Math.sqrt(minutes);
+            target.volatilityBps = Double.isNaN(target.volatilityBps)
+                    ? sample
+                    : VOLATILITY_ALPHA * sample + (1 - VOLATILITY_ALPHA) * target.volatilityBps;
+            target.sampleStartPrice = price;
+            target.sampleStartAt = now;
+        }
+        target.lastPrice = price;
+        target.quoteTimestamp = timestampMs;
+        target.lastSeenAt = now;
+    }
+
+    private void tick() {
+        try {
+            for (Runnable poll : plan(clock.getAsLong())) {
+                workers.execute(poll);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Error in poll scheduler: " + e.getMessage());
+        }
+    }
+
+    // Updates targets and intervals and picks the requests to send now; the caller
+    // runs them
+    synchronized List<Runnable> plan(long now) {
+        List<Runnable> polls = new ArrayList<>();
+        if (closed) return polls;
+
+        // Prices already held are in the old currency; start over in the new one
+        QuoteCurrency current = service.getQuoteCurrency();
+        if (current != currency) {
+            currency = current;
+            for (ExchangeState state : exchanges.values()) {
+                state.targets.clear();
+            }
+        }
+
+        Map<String, Interest> interests = collectInterests();
+        AlertEngine alerts = service.getAlertEngine();
+        Set<String> enabled = new HashSet<>();
+        for (ExchangeAdapter adapter : service.getExchangeRegistry().getEnabledAdapters()) {
+            if (!adapter.supports(Capability.QUOTE)) continue;
+            enabled.add(adapter.getName());
+            ExchangeState state = exchanges.computeIfAbsent(adapter.getName(),
+                    name -> new ExchangeState(adapter, budgetShare));
+
+            state.targets.keySet().retainAll(interests.keySet());
+            for (String symbol : interests.keySet()) {
+                state.targets.computeIfAbsent(symbol, s -> new Target());
+            }
+            if (state.targets.isEmpty()) continue;
+
+            updateIntervals(state, interests, alerts);
+            if (state.inFlight || now < state.nextRequestAt) continue;
+            Set<String> due = dueSymbols(state, now);
+            if (due.isEmpty()) continue;
+
+            state.inFlight = true;
+            state.nextRequestAt = now + state.minGapMs;
+            polls.add(() -> poll(state, due));
+        }
+        exchanges.keySet().retainAll(enabled);
+        return polls;
+    }
+
+    private Map<String, Interest> collectInterests() {
+        Map<String, Interest> interests = new HashMap<>();
+        for (Watch watch : watches) {
+            interests.merge(watch.symbol, new Interest(1, watch.maxIntervalMs),
+                    (a, b) -> new Interest(a.watchers() + 1, Math.min(a.maxIntervalMs(), b.maxIntervalMs())));
+        }
+        for (String symbol : service.getAlertEngine().getSymbols()) {
+            interests.putIfAbsent(symbol, new Interest(0, maxIntervalMs));
+        }
+        return interests;
+    }
+
+    // Interval from the pair's priority, then stretched so the exchange stays in budget
+    private void updateIntervals(ExchangeState state, Map<String, Interest> interests, AlertEngine alerts) {
+        double demand = 0;
+        long shortest = Long.MAX_VALUE;
+        for (Map.Entry<String, Target> entry : state.targets.entrySet()) {
+            Interest interest = interests.get(entry.getKey());
+            Target target = entry.getValue();
+
+            double priority = 1 + EXTRA_WATCHER_WEIGHT * Math.max(0, interest.watchers() - 1);
+            if (!Double.isNaN(target.volatilityBps)) {
+                priority += target.volatilityBps / VOLATILITY_REFERENCE_BPS;
+            }
+            double alertDistance = alerts.distanceToNearestBps(entry.getKey(), state.name, target.lastPrice);
+            if (!Double.isNaN(alertDistance)) {
+                priority += ALERT_REFERENCE_BPS / Math.max(1, alertDistance);
+            }
+            target.intervalMs = Math.max(minIntervalMs, (long) (interest.maxIntervalMs() / priority));
+            demand += 1000.0 / target.intervalMs;
+            shortest = Math.min(shortest, target.intervalMs);
+        }
+
+        // A batch exchange sends one request per round however many symbols are due
+        if (state.batch) {
+            demand = 1000.0 / shortest;
+        }
+        if (demand > state.budgetPerSecond) {
+            double stretch = demand / state.budgetPerSecond;
+            for (Target target : state.targets.values()) {
+                target.intervalMs = (long) Math.ceil(target.intervalMs * stretch);
+            }
+        }
+    }
+
+    // Every overdue symbol plus, on batch exchanges, those at least half-way due;
+    // one symbol per request, the most overdue, on the others
+    private Set<String> dueSymbols(ExchangeState state, long now) {
+        Set<String> due = new LinkedHashSet<>();
+        Set<String> early = new LinkedHashSet<>();
+        String mostOverdue = null;
+        double mostOverdueRatio = 0;
+        for (Map.Entry<String, Target> entry : state.targets.entrySet()) {
+            Target target = entry.getValue();
+            double ratio = (double) (now - target.lastSeenAt) / target.intervalMs;
+            if (ratio >= 1) {
+                due.add(entry.getKey());
+                if (ratio > mostOverdueRatio) {
+                    mostOverdue = entry.getKey();
+                    mostOverdueRatio = ratio;
+                }
+            } else if (ratio >= 0.5) {
+                early.add(entry.getKey());
+            }
+        }
+        if (due.isEmpty()) return due;
+        if (!state.batch) return Set.of(mostOverdue);
+        due.addAll(early);
+        return due;
+    }
+
+    // Runs on a worker; prices come back through onQuote as the service publishes them
+    private void poll(ExchangeState state, Set<String> symbols) {
+        long retryAfterMs = 0;
+        try {
+            pollCount.incrementAndGet();
+            service.pollQuotes(state.name, symbols);
+        } catch (RateLimitedException e) {
+            retryAfterMs = e.getRetryAfterMs();
+            System.err.println("Error polling " + state.name + ": " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error polling " + state.name + ": " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                long now = clock.getAsLong();
+                state.inFlight = false;
+                state.nextRequestAt = Math.max(state.nextRequestAt, now + retryAfterMs);
+                // Symbols the exchange did not return wait a full interval like the rest
+                for (String symbol : symbols) {
+                    Target target = state.targets.get(symbol);
+                    if (target != null) target.lastSeenAt = now;
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (ticker == null) return;
+        ticker.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,171 @@
+package org.studyeasy.service.replay;
+
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Recorded exchange traffic: a GZIP stream of tagged records in the order they happened.
+//
+//   header    int magic "CPRL", byte version
+//   NAME      byte 1, short id, UTF name       each exchange and symbol, once, before first use
+//   RESPONSE  byte 2, long timestampMs, UTF url, int length, body
+//   QUOTE     byte 3, long timestampMs, short exchange, short symbol, byte currency, double price
+//
+// A quote record is 22 bytes before compression, so long captures stay small.
+public final class ReplayLog {
+    private static final int MAGIC = 0x4350524C;
+    private static final byte VERSION = 1;
+    private static final byte NAME = 1;
+    private static final byte RESPONSE = 2;
+    private static final byte QUOTE = 3;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Receives a log's records in order
+    public interface Handler {
+        void onResponse(long timestampMs, String url, byte[] body) throws IOException;
+
+        void onQuote(long timestampMs, String exchange, String symbol, QuoteCurrency currency, double price)
+                throws IOException;
+    }
+
+    private ReplayLog() {
+    }
+
+    // Reads the whole log into handler; a log cut off mid-record (e.g. by a crash while
+    // recording) ends at the last complete record
+    public static void read(Path file, Handler handler) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+            int magic;
+            byte version;
+            try {
+                magic = in.readInt();
+                version = in.readByte();
+            } catch (EOFException e) {
+                // Cut off before the first record
+                return;
+            }
+            if (magic != MAGIC) {
+                throw new IOException(file + " is not a replay log");
+            }
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay log version " + version + " in " + file);
+            }
+            List<String> names = new ArrayList<>();
+            QuoteCurrency[] currencies = QuoteCurrency.values();
+            while (true) {
+                try {
+                    // A gzip stream cut off mid-block fails here too, not just inside a record
+                    int tag = in.read();
+                    if (tag < 0) return;
+                    switch (tag) {
+                        case NAME -> {
+                            int id = in.readShort();
+                            while (names.size() <= id) names.add(null);
+                            names.set(id, in.readUTF());
+                        }
+                        case RESPONSE -> {
+                            long timestampMs = in.readLong();
+                            String url = in.readUTF();
+                            byte[] body = new byte[in.readInt()];
+                            in.readFully(body);
+                            handler.onResponse(timestampMs, url, body);
+                        }
+                        case QUOTE -> {
+                            long timestampMs = in.readLong();
+                            String exchange = names.get(in.readShort());
+                            String symbol = names.get(in.readShort());
+                            QuoteCurrency currency = currencies[in.readByte()];
+                            handler.onQuote(timestampMs, exchange, symbol, currency, in.readDouble());
+                        }
+                        default -> throw new IOException("Corrupt replay log " + file + ": unknown record " + tag);
+                    }
+                } catch (EOFException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Appends records; safe to share between threads. Writes after close are dropped.
+    static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final Map<String, Short> ids = new HashMap<>();
+        private long records;
+        private boolean closed;
+
+        Writer(Path file) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+
+        synchronized void writeResponse(long timestampMs, String url, byte[] body) throws IOException {
+            if (closed) return;
+            out.writeByte(RESPONSE);
+            out.writeLong(timestampMs);
+            out.writeUTF(url);
+            out.writeInt(body.length);
+            out.write(body);
+            records++;
+        }
+
+        synchronized void writeQuote(long timestampMs, String exchange, String symbol, QuoteCurrency currency,
+                                     double price) throws IOException {
+            if (closed) return;
+            short exchangeId = idOf(exchange);
+            short symbolId = idOf(symbol);
+            out.writeByte(QUOTE);
+            out.writeLong(timestampMs);
+            out.writeShort(exchangeId);
+            out.writeShort(symbolId);
+            out.writeByte(currency.ordinal());
+            out.writeDouble(price);
+            records++;
+        }
+
+        private short idOf(String name) throws IOException {
+            Short id = ids.get(name);
+            if (id != null) return id;
+            if (ids.size() > Short.MAX_VALUE) {
+                throw new IOException("Too many distinct names in one replay log");
+            }
+            short next = (short) ids.size();
+            out.writeByte(NAME);
+            out.writeShort(next);
+            out.writeUTF(name);
+            ids.put(name, next);
+            return next;
+        }
+
+        synchronized long getRecordCount() {
+            return records;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.studyeasy.service.replay;
+
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.QuoteListener;
+import org.studyeasy.service.exchange.HttpFetcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+
+// Writes a replay log while the service runs: every raw HTTP response passing through
+// the transport returned by recording(), and every quote published to the listeners,
+// which includes streamed feed quotes. Quotes are logged in the currency they were
+// published in, as reported by the supplier.
+public class ReplayRecorder implements QuoteListener, AutoCloseable {
+    private final ReplayLog.Writer writer;
+    private final Supplier<QuoteCurrency> currency;
+
+    public ReplayRecorder(Path file, Supplier<QuoteCurrency> currency) throws IOException {
+        this.writer = new ReplayLog.Writer(file);
+        this.currency = currency;
+    }
+
+    // Transport that logs each response body before handing it to the parser. The
+    // body is read into memory first, so parsers still see a plain stream.
+    public HttpFetcher recording(HttpFetcher transport) {
+        return new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                return transport.get(url, body -> {
+                    byte[] bytes = body.readAllBytes();
+                    // A full disk should not fail the request
+                    try {
+                        writer.writeResponse(System.currentTimeMillis(), url, bytes);
+                    } catch (IOException e) {
+                        System.err.println("Error recording response from " + url + ": " + e.getMessage());
+                    }
+                    return parser.parse(new ByteArrayInputStream(bytes));
+                });
+            }
+        };
+    }
+
+    @Override
+    public void onQuote(String exchange, String symbol, double price, long timestampMs) {
+        try {
+            writer.writeQuote(timestampMs, exchange, symbol, currency.get(), price);
+        } catch (IOException e) {
+            System.err.println("Error recording " + symbol + " quote: " + e.getMessage());
+        }
+    }
+
+    // Responses and quotes written so far
+    public long getRecordCount() {
+        return writer.getRecordCount();
+    }
+
+    // Flushes the log; later responses and quotes are not recorded
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
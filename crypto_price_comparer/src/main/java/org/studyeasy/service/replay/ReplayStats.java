@@ -0,0 +1,43 @@
+package org.studyeasy.service.replay;
+
+// What one replay run played and how fast
+public class ReplayStats {
+    private final long quotes;
+    private final long responses;
+    private final long recordedSpanMs;
+    private final long elapsedNanos;
+
+    public ReplayStats(long quotes, long responses, long recordedSpanMs, long elapsedNanos) {
+        this.quotes = quotes;
+        this.responses = responses;
+        this.recordedSpanMs = recordedSpanMs;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getQuotes() {
+        return quotes;
+    }
+
+    public long getResponses() {
+        return responses;
+    }
+
+    // Time between the first and last record when they were captured
+    public long getRecordedSpanMs() {
+        return recordedSpanMs;
+    }
+
+    public long getElapsedMs() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getQuotesPerSecond() {
+        return elapsedNanos == 0 ? 0 : quotes * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d quotes and %d responses covering %d ms, replayed in %d ms (%.0f quotes/s)",
+                quotes, responses, recordedSpanMs, getElapsedMs(), getQuotesPerSecond());
+    }
+}
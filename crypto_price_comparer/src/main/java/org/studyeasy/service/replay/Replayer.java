@@ -0,0 +1,105 @@
+package org.studyeasy.service.replay;
+
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.exchange.HttpFetcher;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Drives a service from a replay log with no network. While the replayer is open the
+// service's HTTP transport answers each URL with its most recently replayed response,
+// so comparisons, order books and history run against the captured data; replayed
+// quotes go to the quote listeners (spread engine, alerts, charts) with their
+// recorded timestamps. Closing it puts the previous transport back.
+public class Replayer implements AutoCloseable {
+    // Plays records back to back without waiting
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private final PriceComparisonService service;
+    private final HttpFetcher previousTransport;
+    private final Map<String, byte[]> responses = new ConcurrentHashMap<>();
+
+    public Replayer(PriceComparisonService service) {
+        this.service = service;
+        previousTransport = service.getHttpTransport();
+        service.setHttpTransport(new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                byte[] body = responses.get(url);
+                if (body == null) {
+                    throw new IOException("No recorded response for " + url);
+                }
+                return parser.parse(new ByteArrayInputStream(body));
+            }
+        });
+    }
+
+    // Plays the log into the service and returns when it ends. speed 1 keeps the recorded
+    // pacing, N plays N times faster and MAX_SPEED does not wait between records.
+    public ReplayStats replay(Path log, double speed) throws IOException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        Playback playback = new Playback(speed);
+        ReplayLog.read(log, playback);
+        long span = playback.quotes + playback.responses == 0 ? 0 : playback.lastTimestamp - playback.firstTimestamp;
+        return new ReplayStats(playback.quotes, playback.responses, span, System.nanoTime() - playback.startNanos);
+    }
+
+    private final class Playback implements ReplayLog.Handler {
+        final double speed;
+        final long startNanos = System.nanoTime();
+        long firstTimestamp = Long.MIN_VALUE;
+        long lastTimestamp;
+        long quotes;
+        long responses;
+
+        Playback(double speed) {
+            this.speed = speed;
+        }
+
+        @Override
+        public void onResponse(long timestampMs, String url, byte[] body) throws IOException {
+            pace(timestampMs);
+            Replayer.this.responses.put(url, body);
+            responses++;
+        }
+
+        @Override
+        public void onQuote(long timestampMs, String exchange, String symbol, QuoteCurrency currency, double price)
+                throws IOException {
+            pace(timestampMs);
+            service.publishRecordedQuote(exchange, symbol, price, currency, timestampMs);
+            quotes++;
+        }
+
+        // Waits until the record is due at this speed
+        private void pace(long timestampMs) throws InterruptedIOException {
+            if (firstTimestamp == Long.MIN_VALUE) {
+                firstTimestamp = timestampMs;
+            }
+            lastTimestamp = Math.max(lastTimestamp, timestampMs);
+            if (speed == MAX_SPEED) return;
+            long dueNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(timestampMs - firstTimestamp) / speed);
+            long waitNanos = dueNanos - System.nanoTime();
+            if (waitNanos <= 0) return;
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Replay interrupted");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        service.setHttpTransport(previousTransport);
+    }
+}
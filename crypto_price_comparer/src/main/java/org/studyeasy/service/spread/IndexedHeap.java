@@ -0,0 +1,108 @@
+package org.studyeasy.service.spread;
+
+import java.util.Arrays;
+
+// Binary heap over small integer slots (one per exchange) with a position index,
+// so a slot's key can be changed or removed in O(log n) without allocating.
+// Keeps the lowest key on top, or the highest when built with max = true.
+final class IndexedHeap {
+    private final boolean max;
+    private double[] keys;
+    private int[] heap;
+    private int[] position;
+    private int size;
+
+    IndexedHeap(int capacity, boolean max) {
+        this.max = max;
+        keys = new double[capacity];
+        heap = new int[capacity];
+        position = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Slot on top of the heap, or -1 when empty
+    int top() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    double topKey() {
+        return keys[heap[0]];
+    }
+
+    // Inserts the slot or moves it to its new place after a key change
+    void set(int slot, double key) {
+        if (slot >= position.length) grow(slot + 1);
+        int index = position[slot];
+        if (index < 0) {
+            keys[slot] = key;
+            heap[size] = slot;
+            position[slot] = size;
+            siftUp(size++);
+            return;
+        }
+        double previous = keys[slot];
+        keys[slot] = key;
+        if (before(key, previous)) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    void remove(int slot) {
+        if (slot >= position.length || position[slot] < 0) return;
+        int index = position[slot];
+        int last = heap[--size];
+        position[slot] = -1;
+        if (index == size) return;
+        heap[index] = last;
+        position[last] = index;
+        siftUp(index);
+        siftDown(position[last]);
+    }
+
+    private boolean before(double a, double b) {
+        return max ? a > b : a < b;
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(keys[slot], keys[heap[parent]])) break;
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = slot;
+        position[slot] = index;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(keys[heap[child + 1]], keys[heap[child]])) child++;
+            if (!before(keys[heap[child]], keys[slot])) break;
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = slot;
+        position[slot] = index;
+    }
+
+    private void grow(int capacity) {
+        int newCapacity = Math.max(capacity, position.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        heap = Arrays.copyOf(heap, newCapacity);
+        int oldLength = position.length;
+        position = Arrays.copyOf(position, newCapacity);
+        Arrays.fill(position, oldLength, newCapacity, -1);
+    }
+}
@@ -0,0 +1,81 @@
+package org.studyeasy.service.spread;
+
+// Point-in-time view of one symbol across exchanges. Prices are last trades, so
+// the cheapest venue is where to buy and the dearest is where to sell.
+public class Spread {
+    private final String symbol;
+    private final String bestExchange;
+    private final double bestPrice;
+    private final String worstExchange;
+    private final double worstPrice;
+    private final int quotes;
+    private final long oldestQuoteTimestamp;
+    private final long updatedAt;
+
+    public Spread(String symbol, String bestExchange, double bestPrice, String worstExchange, double worstPrice,
+                  int quotes, long oldestQuoteTimestamp, long updatedAt) {
+        this.symbol = symbol;
+        this.bestExchange = bestExchange;
+        this.bestPrice = bestPrice;
+        this.worstExchange = worstExchange;
+        this.worstPrice = worstPrice;
+        this.quotes = quotes;
+        this.oldestQuoteTimestamp = oldestQuoteTimestamp;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    // Lowest price: the venue to buy on
+    public String getBestExchange() {
+        return bestExchange;
+    }
+
+    public double getBestPrice() {
+        return bestPrice;
+    }
+
+    // Highest price: the venue to sell on
+    public String getWorstExchange() {
+        return worstExchange;
+    }
+
+    public double getWorstPrice() {
+        return worstPrice;
+    }
+
+    public int getQuoteCount() {
+        return quotes;
+    }
+
+    // Highest minus lowest price, or NaN with fewer than two quotes
+    public double getSpread() {
+        return quotes < 2 ? Double.NaN : worstPrice - bestPrice;
+    }
+
+    // Spread relative to the lowest price, in basis points
+    public double getSpreadBps() {
+        return quotes < 2 || bestPrice <= 0 ? Double.NaN : (worstPrice - bestPrice) / bestPrice * 10000;
+    }
+
+    public long getOldestQuoteTimestamp() {
+        return oldestQuoteTimestamp;
+    }
+
+    // Time of the quote that produced this view
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getOldestQuoteAgeMs(long now) {
+        return now - oldestQuoteTimestamp;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s buy %s @ %.8f, sell %s @ %.8f, spread %.2f bps", symbol,
+                bestExchange, bestPrice, worstExchange, worstPrice, getSpreadBps());
+    }
+}
@@ -0,0 +1,209 @@
+package org.studyeasy.service.spread;
+
+import org.studyeasy.service.QuoteListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Keeps the cheapest and dearest venue, the spread and the oldest quote for every
+// symbol, updated as each quote arrives. Each symbol holds indexed heaps over its
+// exchanges, so a tick costs O(log n) in the number of exchanges and allocates
+// nothing unless a subscription fires.
+//
+// The clock is the timestamp of the incoming quote, so staleness is checked as
+// quotes arrive; a symbol that stops ticking entirely is re-checked on its next quote.
+public class SpreadEngine implements QuoteListener {
+    private static final int INITIAL_EXCHANGES = 8;
+
+    // Threshold-crossing subscription; cancel() stops further callbacks
+    public class Subscription {
+        private final String symbol;
+        private final double minSpreadBps;
+        private final long maxQuoteAgeMs;
+        private final SpreadListener listener;
+        // Symbols currently above the threshold, so only crossings are reported
+        private final Set<String> open = ConcurrentHashMap.newKeySet();
+
+        Subscription(String symbol, double minSpreadBps, long maxQuoteAgeMs, SpreadListener listener) {
+            this.symbol = symbol;
+            this.minSpreadBps = minSpreadBps;
+            this.maxQuoteAgeMs = maxQuoteAgeMs;
+            this.listener = listener;
+        }
+
+        boolean covers(String symbol) {
+            return this.symbol == null || this.symbol.equals(symbol);
+        }
+
+        public boolean isOpen(String symbol) {
+            return open.contains(symbol);
+        }
+
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+    }
+
+    // One symbol's quotes by exchange slot
+    private static final class SymbolState {
+        final String symbol;
+        double[] prices = new double[INITIAL_EXCHANGES];
+        final IndexedHeap lowest = new IndexedHeap(INITIAL_EXCHANGES, false);
+        final IndexedHeap highest = new IndexedHeap(INITIAL_EXCHANGES, true);
+        final IndexedHeap oldest = new IndexedHeap(INITIAL_EXCHANGES, false);
+        long updatedAt;
+
+        SymbolState(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void set(int slot, double price, long timestamp) {
+            if (slot >= prices.length) {
+                prices = Arrays.copyOf(prices, Math.max(slot + 1, prices.length * 2));
+            }
+            prices[slot] = price;
+            updatedAt = Math.max(updatedAt, timestamp);
+            lowest.set(slot, price);
+            highest.set(slot, price);
+            oldest.set(slot, timestamp);
+        }
+
+        void remove(int slot) {
+            lowest.remove(slot);
+            highest.remove(slot);
+            oldest.remove(slot);
+        }
+
+        int count() {
+            return lowest.size();
+        }
+
+        double spreadBps() {
+            if (count() < 2) return Double.NaN;
+            double best = lowest.topKey();
+            return best <= 0 ? Double.NaN : (highest.topKey() - best) / best * 10000;
+        }
+
+        long oldestTimestamp() {
+            return count() == 0 ? Long.MAX_VALUE : (long) oldest.topKey();
+        }
+    }
+
+    // Exchange names share one slot numbering across all symbols
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final List<String> exchanges = new CopyOnWriteArrayList<>();
+    private final Map<String, SymbolState> states = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void onQuote(String exchange, String symbol, double price, long timestampMs) {
+        if (Double.isNaN(price)) return;
+        SymbolState state = states.computeIfAbsent(symbol.toUpperCase(), SymbolState::new);
+        int slot = slotOf(exchange);
+        synchronized (state) {
+            state.set(slot, price, timestampMs);
+            evaluate(state, timestampMs);
+        }
+    }
+
+    // Drops an exchange's quote for a symbol, e.g. when its feed disconnects
+    public void removeQuote(String exchange, String symbol, long now) {
+        SymbolState state = states.get(symbol.toUpperCase());
+        Integer slot = slots.get(exchange);
+        if (state == null || slot == null) return;
+        synchronized (state) {
+            state.remove(slot);
+            evaluate(state, now);
+        }
+    }
+
+    // Current view of one symbol, or null before its first quote
+    public Spread getSpread(String symbol) {
+        SymbolState state = states.get(symbol.toUpperCase());
+        if (state == null) return null;
+        synchronized (state) {
+            return state.count() == 0 ? null : toSpread(state, state.updatedAt);
+        }
+    }
+
+    // Spread in bps without building a Spread, or NaN with fewer than two quotes
+    public double getSpreadBps(String symbol) {
+        SymbolState state = states.get(symbol.toUpperCase());
+        if (state == null) return Double.NaN;
+        synchronized (state) {
+            return state.spreadBps();
+        }
+    }
+
+    public List<Spread> getSpreads() {
+        List<Spread> spreads = new ArrayList<>();
+        for (String symbol : states.keySet()) {
+            Spread spread = getSpread(symbol);
+            if (spread != null) spreads.add(spread);
+        }
+        return spreads;
+    }
+
+    // Reports when the symbol's spread rises above minSpreadBps while every quote is
+    // at most maxQuoteAgeMs old, and again when that stops being true. A null symbol
+    // subscribes to every symbol.
+    public Subscription subscribe(String symbol, double minSpreadBps, long maxQuoteAgeMs, SpreadListener listener) {
+        Subscription subscription = new Subscription(
+                symbol == null ? null : symbol.toUpperCase(), minSpreadBps, maxQuoteAgeMs, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    private int slotOf(String exchange) {
+        Integer slot = slots.get(exchange);
+        if (slot != null) return slot;
+        synchronized (slots) {
+            return slots.computeIfAbsent(exchange, name -> {
+                exchanges.add(name);
+                return exchanges.size() - 1;
+            });
+        }
+    }
+
+    // Runs with the symbol locked; compares primitives and only builds a Spread for a crossing
+    private void evaluate(SymbolState state, long now) {
+        if (subscriptions.isEmpty()) return;
+        double spreadBps = state.spreadBps();
+        long oldestAge = now - state.oldestTimestamp();
+        Spread spread = null;
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.covers(state.symbol)) continue;
+            boolean above = spreadBps > subscription.minSpreadBps && oldestAge <= subscription.maxQuoteAgeMs;
+            boolean wasAbove = subscription.open.contains(state.symbol);
+            if (above == wasAbove) continue;
+
+            if (spread == null) spread = toSpread(state, now);
+            try {
+                if (above) {
+                    subscription.open.add(state.symbol);
+                    subscription.listener.onSpreadOpened(spread);
+                } else {
+                    subscription.open.remove(state.symbol);
+                    subscription.listener.onSpreadClosed(spread);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error in spread listener: " + e.getMessage());
+            }
+        }
+    }
+
+    private Spread toSpread(SymbolState state, long updatedAt) {
+        if (state.count() == 0) {
+            return new Spread(state.symbol, null, Double.NaN, null, Double.NaN, 0, Long.MAX_VALUE, updatedAt);
+        }
+        int best = state.lowest.top();
+        int worst = state.highest.top();
+        return new Spread(state.symbol, exchanges.get(best), state.prices[best], exchanges.get(worst),
+                state.prices[worst], state.count(), state.oldestTimestamp(), updatedAt);
+    }
+}
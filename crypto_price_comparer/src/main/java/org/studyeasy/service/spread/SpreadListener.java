@@ -0,0 +1,12 @@
+package org.studyeasy.service.spread;
+
+// Told when a subscribed symbol's spread crosses its threshold. Called on the
+// thread that delivered the quote while the symbol is locked, so keep it short.
+public interface SpreadListener {
+    // Spread rose above the threshold with every quote fresh enough
+    void onSpreadOpened(Spread spread);
+
+    // Spread fell back, or a quote went stale or dropped out
+    default void onSpreadClosed(Spread spread) {
+    }
+}
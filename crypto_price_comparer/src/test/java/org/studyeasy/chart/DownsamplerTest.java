@@ -0,0 +1,85 @@
+package org.studyeasy.chart;
+
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.PriceSeries;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplerTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000;
+
+    @Test
+    void keepsFirstAndLastPointsAndReturnsMaxPoints() {
+        PriceSeries series = randomWalk(10_000, 1);
+        for (int maxPoints : new int[]{3, 4, 100, 999, 9_999}) {
+            PriceSeries sampled = Downsampler.lttb(series, maxPoints);
+            assertEquals(maxPoints, sampled.size(), "maxPoints " + maxPoints);
+            assertEquals(series.getTimestamp(0), sampled.getTimestamp(0));
+            assertEquals(series.getPrice(0), sampled.getPrice(0));
+            assertEquals(series.getLastTimestamp(), sampled.getLastTimestamp());
+            assertEquals(series.getPrice(series.size() - 1), sampled.getPrice(sampled.size() - 1));
+        }
+    }
+
+    @Test
+    void keepsOriginalPointsInTimeOrder() {
+        PriceSeries series = randomWalk(5_000, 2);
+        Map<Long, Double> original = new HashMap<>();
+        for (int i = 0; i < series.size(); i++) {
+            original.put(series.getTimestamp(i), series.getPrice(i));
+        }
+        PriceSeries sampled = Downsampler.lttb(series, 250);
+        for (int i = 0; i < sampled.size(); i++) {
+            assertEquals(original.get(sampled.getTimestamp(i)), sampled.getPrice(i), "point " + i);
+            if (i > 0) assertTrue(sampled.getTimestamp(i) > sampled.getTimestamp(i - 1), "point " + i);
+        }
+    }
+
+    @Test
+    void spikesAndDipsSurvive() {
+        PriceSeries series = new PriceSeries();
+        for (int i = 0; i < 10_000; i++) {
+            double price = 100 + Math.sin(i / 500.0);
+            if (i == 3_333) price = 150;
+            if (i == 6_789) price = 60;
+            series.add(START + i * MINUTE, price);
+        }
+        PriceSeries sampled = Downsampler.lttb(series, 100);
+
+        double highest = Double.NEGATIVE_INFINITY;
+        double lowest = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < sampled.size(); i++) {
+            highest = Math.max(highest, sampled.getPrice(i));
+            lowest = Math.min(lowest, sampled.getPrice(i));
+        }
+        assertEquals(150, highest);
+        assertEquals(60, lowest);
+    }
+
+    @Test
+    void shortSeriesIsReturnedAsIs() {
+        PriceSeries series = randomWalk(100, 3);
+        assertSame(series, Downsampler.lttb(series, 100));
+        assertSame(series, Downsampler.lttb(series, 1_000));
+        // Fewer than three points leave no room between the ends
+        assertSame(series, Downsampler.lttb(series, 2));
+    }
+
+    private static PriceSeries randomWalk(int points, long seed) {
+        Random random = new Random(seed);
+        PriceSeries series = new PriceSeries(points);
+        double price = 100;
+        for (int i = 0; i < points; i++) {
+            price *= 1 + random.nextGaussian() * 0.001;
+            series.add(START + i * MINUTE, price);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,103 @@
+package org.studyeasy.feed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingPriceFeedTest {
+    private static final long MAX_QUOTE_AGE_MS = 300;
+
+    private WebSocketStubServer stub;
+    private StreamingPriceFeed feed;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new WebSocketStubServer();
+        feed = new StreamingPriceFeed(List.of(new BinanceStream(stub.getUri())), MAX_QUOTE_AGE_MS);
+        feed.start(List.of("btc"));
+        assertTrue(stub.awaitReceived(1, 5000), "no subscription");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        feed.close();
+        stub.close();
+    }
+
+    @Test
+    void subscribesAndRecordsPushedPrices() throws Exception {
+        assertTrue(stub.getReceived().get(0).contains("btcusdt@miniTicker"));
+        assertTrue(feed.isConnected("Binance"));
+
+        stub.broadcast(ticker("BTCUSDT", "50000.5"));
+        assertTrue(await(() -> feed.getPrice("Binance", "BTC") != null, 2000));
+        assertEquals(50000.5, feed.getPrice("Binance", "BTC"));
+        assertEquals(50000.5, feed.snapshot("btc").get("Binance"));
+    }
+
+    @Test
+    void stalePricesAreNotServed() throws Exception {
+        stub.broadcast(ticker("BTCUSDT", "50000"));
+        assertTrue(await(() -> feed.getPrice("Binance", "BTC") != null, 2000));
+
+        Thread.sleep(MAX_QUOTE_AGE_MS + 100);
+        assertNull(feed.getPrice("Binance", "BTC"));
+        assertTrue(feed.snapshot("BTC").isEmpty());
+        // The last quote itself is still there for callers that want it regardless of age
+        assertNotNull(feed.getQuote("Binance", "BTC"));
+    }
+
+    @Test
+    void reconnectsAndResubscribesAfterDrop() throws Exception {
+        stub.dropConnections();
+        assertTrue(await(() -> !feed.isConnected("Binance"), 2000), "drop not noticed");
+
+        // First retry comes after the initial backoff of about a second
+        assertTrue(stub.awaitReceived(2, 5000), "no resubscription after reconnect");
+        assertEquals(2, stub.getAccepted());
+        assertTrue(stub.getReceived().get(1).contains("btcusdt@miniTicker"));
+        assertTrue(await(() -> feed.isConnected("Binance"), 2000));
+
+        stub.broadcast(ticker("BTCUSDT", "51000"));
+        assertTrue(await(() -> Double.valueOf(51000).equals(feed.getPrice("Binance", "BTC")), 2000));
+    }
+
+    @Test
+    void backsOffWhileTheExchangeRefusesConnections() throws Exception {
+        stub.setRefusing(true);
+        stub.dropConnections();
+        long droppedAt = System.nanoTime();
+        assertTrue(await(() -> stub.getHandshakes() >= 3, 6000), "not retrying");
+
+        // Retries wait about 1s, then 2s (plus up to a quarter of jitter)
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - droppedAt);
+        assertTrue(elapsedMs >= 3000, "retried too fast: " + elapsedMs + " ms");
+        assertFalse(feed.isConnected("Binance"));
+
+        stub.setRefusing(false);
+        assertTrue(stub.awaitReceived(2, 10000), "no resubscription once the exchange is back");
+    }
+
+    private static String ticker(String pair, String close) {
+        return "{\"e\":\"24hrMiniTicker\",\"E\":1,\"s\":\"" + pair + "\",\"c\":\"" + close + "\"}";
+    }
+
+    private static boolean await(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,248 @@
+package org.studyeasy.feed;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Minimal local WebSocket server for driving the streaming feed: accepts the upgrade
+// handshake, records the text messages clients send (subscriptions) and pushes text
+// frames to every open client. Connections can be dropped abruptly and handshakes
+// refused, so reconnects and backoff can be exercised without the real exchanges.
+class WebSocketStubServer implements AutoCloseable {
+    private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger handshakes = new AtomicInteger();
+    private final AtomicInteger accepted = new AtomicInteger();
+    private volatile boolean refusing;
+    private volatile boolean closed;
+
+    WebSocketStubServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "ws-stub-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    URI getUri() {
+        return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/ws");
+    }
+
+    // Upgrade requests seen, refused ones included
+    int getHandshakes() {
+        return handshakes.get();
+    }
+
+    // Connections that completed the handshake
+    int getAccepted() {
+        return accepted.get();
+    }
+
+    List<String> getReceived() {
+        return new ArrayList<>(received);
+    }
+
+    // While refusing, upgrade requests get a 503 instead of a WebSocket
+    void setRefusing(boolean refusing) {
+        this.refusing = refusing;
+    }
+
+    // Sends one text frame to every open client
+    void broadcast(String text) {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        for (Socket client : clients) {
+            try {
+                writeFrame(client.getOutputStream(), 0x1, payload);
+            } catch (IOException e) {
+                clients.remove(client);
+            }
+        }
+    }
+
+    // Closes every client socket without a close frame, like a network drop
+    void dropConnections() {
+        for (Socket client : clients) {
+            closeQuietly(client);
+        }
+        clients.clear();
+    }
+
+    // Waits until at least count text messages have been received
+    boolean awaitReceived(int count, long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (received.size() < count) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        dropConnections();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread reader = new Thread(() -> serve(socket), "ws-stub-client");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Error accepting stub connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            if (!handshake(in, socket.getOutputStream())) {
+                closeQuietly(socket);
+                return;
+            }
+            clients.add(socket);
+            accepted.incrementAndGet();
+            readFrames(new DataInputStream(in), socket);
+        } catch (IOException e) {
+            // Dropped by the test or by the client
+        } finally {
+            clients.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private boolean handshake(InputStream in, OutputStream out) throws IOException {
+        // Read byte by byte so no frame data is buffered away from the frame reader
+        StringBuilder request = new StringBuilder();
+        while (request.length() < 4 || request.lastIndexOf("\r\n\r\n") != request.length() - 4) {
+            int b = in.read();
+            if (b < 0) return false;
+            request.append((char) b);
+        }
+        String key = null;
+        for (String line : request.toString().split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        handshakes.incrementAndGet();
+        if (key == null || refusing) {
+            out.write("HTTP/1.1 503 Service Unavailable\r\nContent-Length: 0\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            return false;
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+        out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+        return true;
+    }
+
+    private void readFrames(DataInputStream in, Socket socket) throws IOException {
+        StringBuilder message = new StringBuilder();
+        while (true) {
+            int first = in.readUnsignedByte();
+            int second = in.readUnsignedByte();
+            boolean fin = (first & 0x80) != 0;
+            int opcode = first & 0x0F;
+            long length = second & 0x7F;
+            if (length == 126) {
+                length = in.readUnsignedShort();
+            } else if (length == 127) {
+                length = in.readLong();
+            }
+            byte[] mask = new byte[4];
+            if ((second & 0x80) != 0) {
+                in.readFully(mask);
+            }
+            byte[] payload = new byte[(int) length];
+            in.readFully(payload);
+            for (int i = 0; i < payload.length; i++) {
+                payload[i] ^= mask[i & 3];
+            }
+
+            switch (opcode) {
+                case 0x0, 0x1 -> {
+                    message.append(new String(payload, StandardCharsets.UTF_8));
+                    if (fin) {
+                        received.add(message.toString());
+                        message.setLength(0);
+                    }
+                }
+                case 0x8 -> {
+                    writeFrame(socket.getOutputStream(), 0x8, payload);
+                    return;
+                }
+                case 0x9 -> writeFrame(socket.getOutputStream(), 0xA, payload);
+                default -> {
+                    // Pongs and anything else are ignored
+                }
+            }
+        }
+    }
+
+    private static void writeFrame(OutputStream out, int opcode, byte[] payload) throws IOException {
+        synchronized (out) {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length < 65536) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >>> shift));
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1")
+                    .digest((key + ACCEPT_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already closed
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.studyeasy.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    // One part in 64: the width of a sub-bucket relative to its power of two
+    private static final double RELATIVE_ERROR = 1.0 / 64;
+
+    @Test
+    void valuesBelow128AreExact() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.highestValueIn((int) value));
+        }
+    }
+
+    @Test
+    void bucketBoundariesAroundPowersOfTwo() {
+        // 127 is the last exact bucket; 128 starts pairs of values
+        assertEquals(127, LatencyHistogram.bucketOf(127));
+        assertEquals(128, LatencyHistogram.bucketOf(128));
+        assertEquals(128, LatencyHistogram.bucketOf(129));
+        assertEquals(129, LatencyHistogram.highestValueIn(128));
+        // 255 closes the first split octave; 256 starts buckets four values wide
+        assertEquals(191, LatencyHistogram.bucketOf(255));
+        assertEquals(255, LatencyHistogram.highestValueIn(191));
+        assertEquals(192, LatencyHistogram.bucketOf(256));
+        assertEquals(192, LatencyHistogram.bucketOf(259));
+        assertEquals(193, LatencyHistogram.bucketOf(260));
+        assertEquals(259, LatencyHistogram.highestValueIn(192));
+    }
+
+    @Test
+    void everyBucketHoldsAContiguousRangeWithinTheStatedError() {
+        int last = LatencyHistogram.bucketOf(LatencyHistogram.MAX_VALUE);
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestValueIn(last));
+        for (int bucket = 1; bucket <= last; bucket++) {
+            long low = LatencyHistogram.highestValueIn(bucket - 1) + 1;
+            long high = LatencyHistogram.highestValueIn(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(low), "low end of bucket " + bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(high), "high end of bucket " + bucket);
+            assertTrue(high - low <= low * RELATIVE_ERROR, "bucket " + bucket + " spans " + low + "-" + high);
+        }
+    }
+
+    @Test
+    void valuesAboveTheMaximumAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long huge = LatencyHistogram.MAX_VALUE * 4;
+        histogram.record(huge);
+        assertEquals(huge, histogram.getMax());
+        // Reported as the top of the last bucket, not the true value
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void percentilesAreWithinTheStatedError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(11);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // Log-uniform from 1 to about 10^7, like request latencies in micros
+            values[i] = (long) Math.exp(random.nextDouble() * 16);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{1, 25, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact, "p" + percentile + " " + reported + " < " + exact);
+            assertTrue(reported - exact <= exact * RELATIVE_ERROR, "p" + percentile + " " + reported + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    void emptyAndResetHistogramsReportZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        histogram.record(1000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,183 @@
+package org.studyeasy.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.Market;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.exchange.Capability;
+import org.studyeasy.service.exchange.ExchangeAdapter;
+import org.studyeasy.service.exchange.ExchangeRegistry;
+import org.studyeasy.service.exchange.HttpFetcher;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A real server on an ephemeral port over two fake exchanges
+class QuoteServerTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PriceComparisonService service;
+    private QuoteServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ExchangeRegistry registry = new ExchangeRegistry(List.of(
+                new FixedExchange("Alpha", Map.of("BTC", 100.0, "ETH", 10.0)),
+                new FixedExchange("Beta", Map.of("BTC", 101.0))));
+        registry.setRateLimitingEnabled(false);
+        service = new PriceComparisonService(4, 1000, 1000, 1000, 100, registry);
+        service.setHttpTransport(new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                throw new IOException("offline");
+            }
+        });
+        // Port 0 picks a free one; the long refresh keeps the first snapshot for the whole test
+        server = new QuoteServer(service, List.of("btc", "ETH", "SOL"), 0, 60_000, 2);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        service.close();
+    }
+
+    @Test
+    void quotesListEveryExchangeWithAPrice() throws Exception {
+        HttpResponse<String> response = get("/quotes/btc");
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+
+        JsonNode body = MAPPER.readTree(response.body());
+        assertEquals("BTC", body.get("symbol").asText());
+        assertEquals("USD", body.get("currency").asText());
+        assertTrue(body.get("updated").asLong() > 0);
+        JsonNode quotes = body.get("quotes");
+        assertEquals(2, quotes.size());
+        assertEquals(100.0, quotes.get("Alpha").get("price").asDouble());
+        assertEquals(101.0, quotes.get("Beta").get("price").asDouble());
+        assertTrue(quotes.get("Alpha").get("timestamp").asLong() > 0);
+
+        // ETH trades on Alpha only, SOL nowhere
+        assertEquals(1, MAPPER.readTree(get("/quotes/ETH").body()).get("quotes").size());
+        HttpResponse<String> unquoted = get("/quotes/SOL");
+        assertEquals(200, unquoted.statusCode());
+        assertEquals(0, MAPPER.readTree(unquoted.body()).get("quotes").size());
+    }
+
+    @Test
+    void bestPicksTheCheapestExchange() throws Exception {
+        JsonNode best = MAPPER.readTree(get("/best/BTC").body());
+        assertEquals("Alpha", best.get("exchange").asText());
+        assertEquals(100.0, best.get("price").asDouble());
+
+        JsonNode none = MAPPER.readTree(get("/best/SOL").body());
+        assertTrue(none.get("exchange").isNull());
+        assertTrue(none.get("price").isNull());
+    }
+
+    @Test
+    void spreadSkipsSymbolsWithFewerThanTwoQuotes() throws Exception {
+        HttpResponse<String> response = get("/spread");
+        assertEquals(200, response.statusCode());
+        JsonNode spreads = MAPPER.readTree(response.body()).get("spreads");
+        assertEquals(1, spreads.size());
+        JsonNode btc = spreads.get(0);
+        assertEquals("BTC", btc.get("symbol").asText());
+        assertEquals("Alpha", btc.get("best").asText());
+        assertEquals("Beta", btc.get("worst").asText());
+        assertEquals(1.0, btc.get("spread").asDouble(), 1e-9);
+        assertEquals(100.0, btc.get("spreadBps").asDouble(), 1e-9);
+    }
+
+    @Test
+    void unknownSymbolIsNotFound() throws Exception {
+        HttpResponse<String> response = get("/quotes/DOGE");
+        assertEquals(404, response.statusCode());
+        assertEquals("Unknown symbol DOGE", MAPPER.readTree(response.body()).get("error").asText());
+        assertEquals(404, get("/best/DOGE").statusCode());
+    }
+
+    @Test
+    void onlyGetIsAllowed() throws Exception {
+        for (String path : List.of("/quotes/BTC", "/best/BTC", "/spread")) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(uri(path))
+                    .POST(HttpRequest.BodyPublishers.ofString("{}")).build());
+            assertEquals(405, response.statusCode(), path);
+            assertEquals("Only GET is supported", MAPPER.readTree(response.body()).get("error").asText());
+        }
+        assertEquals(405, send(HttpRequest.newBuilder(uri("/spread")).DELETE().build()).statusCode());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).GET().build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private static final class FixedExchange implements ExchangeAdapter {
+        private final String name;
+        private final Map<String, Double> prices;
+
+        FixedExchange(String name, Map<String, Double> prices) {
+            this.name = name;
+            this.prices = prices;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Set<Capability> getCapabilities() {
+            return EnumSet.of(Capability.QUOTE, Capability.BATCH_QUOTE);
+        }
+
+        @Override
+        public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+            return symbol + quote.name();
+        }
+
+        @Override
+        public double fetchQuote(Market market, HttpFetcher http) throws IOException {
+            Double price = prices.get(market.getSymbol());
+            if (price == null) throw new IOException("No " + name + " price for " + market.getSymbol());
+            return price;
+        }
+
+        @Override
+        public Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) {
+            Map<String, Double> quotes = new HashMap<>();
+            for (Market market : markets) {
+                Double price = prices.get(market.getSymbol());
+                if (price != null) quotes.put(market.getSymbol(), price);
+            }
+            return quotes;
+        }
+    }
+}
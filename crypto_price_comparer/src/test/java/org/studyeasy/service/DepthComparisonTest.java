@@ -0,0 +1,94 @@
+package org.studyeasy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DepthComparisonTest {
+    private static final Map<String, FetchStatus> STATUSES = Map.of(
+            "Binance", FetchStatus.OK, "Kraken", FetchStatus.OK, "Coinbase", FetchStatus.ERROR);
+
+    // Binance in USDT at 1.01 USD, Kraken in USD, Coinbase failed
+    private static DepthComparison depth(double usdtRate) {
+        OrderBook binance = new OrderBook("Binance", "BTC", QuoteCurrency.USDT, 4, 1000);
+        binance.addAsk(99, 1);
+        binance.addAsk(102, 5);
+        binance.addBid(98, 2);
+        binance.addBid(97, 5);
+        OrderBook kraken = new OrderBook("Kraken", "BTC", QuoteCurrency.USD, 4, 2000);
+        kraken.addAsk(100.5, 2);
+        kraken.addAsk(101, 1);
+        kraken.addBid(99.5, 1);
+        kraken.addBid(97.5, 3);
+        return new DepthComparison("BTC", QuoteCurrency.USD, new String[]{"Binance", "Kraken", "Coinbase"},
+                new OrderBook[]{binance, kraken, null}, new double[]{usdtRate, 1, Double.NaN}, STATUSES, 10);
+    }
+
+    @Test
+    void fillPricesAreConvertedPerVenue() {
+        DepthComparison depth = depth(1.01);
+        assertEquals(99 * 1.01, depth.fillPrice(0, OrderSide.BUY, 1), 1e-9);
+        assertEquals(100.5, depth.fillPrice(1, OrderSide.BUY, 1));
+        assertTrue(Double.isNaN(depth.fillPrice(2, OrderSide.BUY, 1)));
+        assertEquals(2, depth.count());
+        assertTrue(depth.isPartial());
+    }
+
+    @Test
+    void bestVenueDependsOnSideAndSize() {
+        DepthComparison depth = depth(1.01);
+        // 99.99 on Binance beats 100.5 on Kraken for one unit
+        assertEquals(0, depth.bestSlot(OrderSide.BUY, 1));
+        // Two units cost (99 + 102) * 1.01 / 2 = 101.505 on Binance, 100.5 on Kraken
+        assertEquals(1, depth.bestSlot(OrderSide.BUY, 2));
+        // Kraken's asks run out at 3, Binance fills up to 6
+        assertEquals(0, depth.bestSlot(OrderSide.BUY, 4));
+        assertEquals(-1, depth.bestSlot(OrderSide.BUY, 7));
+        // Selling one unit: 98.98 on Binance, 99.5 on Kraken
+        assertEquals(1, depth.bestSlot(OrderSide.SELL, 1));
+        assertEquals(0, depth.bestSlot(OrderSide.SELL, 5));
+    }
+
+    @Test
+    void consolidatedFillTakesTheBestLevelAcrossVenues() {
+        DepthComparison depth = depth(1.01);
+        // Buy 4: 1 at 99.99 (Binance), 2 at 100.5 (Kraken), 1 at 101 (Kraken)
+        assertEquals((99.99 + 2 * 100.5 + 101) / 4, depth.consolidatedFillPrice(OrderSide.BUY, 4), 1e-9);
+        // Buy 5 takes 1 more from Binance's second level at 102 * 1.01
+        assertEquals((99.99 + 2 * 100.5 + 101 + 103.02) / 5, depth.consolidatedFillPrice(OrderSide.BUY, 5), 1e-9);
+        // Sell 3: 1 at 99.5 (Kraken), 2 at 98.98 (Binance)
+        assertEquals((99.5 + 2 * 98.98) / 3, depth.consolidatedFillPrice(OrderSide.SELL, 3), 1e-9);
+        // Cursors are reset between calls
+        assertEquals((99.99 + 2 * 100.5 + 101) / 4, depth.consolidatedFillPrice(OrderSide.BUY, 4), 1e-9);
+        // Both books together hold 9 asks
+        assertTrue(Double.isNaN(depth.consolidatedFillPrice(OrderSide.BUY, 9.5)));
+        assertTrue(Double.isNaN(depth.consolidatedFillPrice(OrderSide.BUY, 0)));
+    }
+
+    @Test
+    void venuesWithoutAnFxRateAreLeftOut() {
+        DepthComparison depth = depth(Double.NaN);
+        assertTrue(Double.isNaN(depth.getRate(0)));
+        assertTrue(Double.isNaN(depth.fillPrice(0, OrderSide.BUY, 1)));
+        assertEquals(1, depth.bestSlot(OrderSide.BUY, 1));
+        assertEquals((2 * 100.5 + 101) / 3, depth.consolidatedFillPrice(OrderSide.BUY, 3), 1e-9);
+        assertTrue(Double.isNaN(depth.consolidatedFillPrice(OrderSide.BUY, 4)));
+    }
+
+    @Test
+    void fillPricesFillASnapshotWithTheSameSlots() {
+        DepthComparison depth = depth(1.01);
+        QuoteSnapshot snapshot = new QuoteSnapshot("BTC", new String[]{"Binance", "Kraken", "Coinbase"});
+        depth.fillPrices(OrderSide.BUY, 3, snapshot);
+        assertEquals(2, snapshot.count());
+        assertEquals((2 * 100.5 + 101) / 3, snapshot.getPrice(1), 1e-9);
+        assertEquals(2000, snapshot.getTimestamp(1));
+
+        depth.fillPrices(OrderSide.BUY, 5, snapshot);
+        assertEquals(1, snapshot.count());
+        assertEquals(0, snapshot.bestSlot());
+    }
+}
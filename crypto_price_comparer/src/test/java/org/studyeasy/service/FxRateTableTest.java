@@ -0,0 +1,101 @@
+package org.studyeasy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FxRateTableTest {
+    // Answers refreshes in order: a map of USD values, or null for a failed request
+    private final Deque<Map<QuoteCurrency, Double>> answers = new ArrayDeque<>();
+    private final FxRateTable table = new FxRateTable(() -> {
+        Map<QuoteCurrency, Double> next = answers.poll();
+        if (next == null) throw new IOException("rates unavailable");
+        return next;
+    }, 60_000);
+
+    private void answer(Object... currencyValuePairs) {
+        Map<QuoteCurrency, Double> values = new HashMap<>();
+        for (int i = 0; i < currencyValuePairs.length; i += 2) {
+            values.put((QuoteCurrency) currencyValuePairs[i], (Double) currencyValuePairs[i + 1]);
+        }
+        answers.add(values);
+    }
+
+    @Test
+    void stablecoinsArePeggedUntilTheFirstRefresh() {
+        assertEquals(1.0, table.getRate(QuoteCurrency.USDT, QuoteCurrency.USD));
+        assertEquals(1.0, table.getRate(QuoteCurrency.USD, QuoteCurrency.USDC));
+        assertEquals(250.0, table.convert(250, QuoteCurrency.USDT, QuoteCurrency.USDC));
+        assertTrue(Double.isNaN(table.getRate(QuoteCurrency.EUR, QuoteCurrency.USD)));
+        assertTrue(Double.isNaN(table.convert(1, QuoteCurrency.USD, QuoteCurrency.EUR)));
+        // A currency always converts to itself, known or not
+        assertEquals(1.0, table.getRate(QuoteCurrency.EUR, QuoteCurrency.EUR));
+        assertEquals(0, table.getUpdatedAt());
+    }
+
+    @Test
+    void convertsThroughUsdValues() {
+        answer(QuoteCurrency.EUR, 1.10, QuoteCurrency.USDT, 0.998);
+        assertTrue(table.refresh());
+
+        assertEquals(110, table.convert(100, QuoteCurrency.EUR, QuoteCurrency.USD), 1e-9);
+        assertEquals(100 / 1.10, table.convert(100, QuoteCurrency.USD, QuoteCurrency.EUR), 1e-9);
+        assertEquals(0.998 / 1.10, table.getRate(QuoteCurrency.USDT, QuoteCurrency.EUR), 1e-12);
+        // USDC was not in the answer and keeps its peg
+        assertEquals(0.998, table.getRate(QuoteCurrency.USDT, QuoteCurrency.USDC), 1e-12);
+        assertEquals(1.10, table.getUsdValue(QuoteCurrency.EUR));
+        assertTrue(table.getUpdatedAt() > 0);
+    }
+
+    @Test
+    void badValuesAndUsdItselfAreIgnored() {
+        answer(QuoteCurrency.EUR, 1.10);
+        table.refresh();
+        answer(QuoteCurrency.EUR, 0.0, QuoteCurrency.USDT, -1.0, QuoteCurrency.USD, 2.0, QuoteCurrency.USDC, null);
+        assertTrue(table.refresh());
+
+        assertEquals(1.10, table.getUsdValue(QuoteCurrency.EUR));
+        assertEquals(1.0, table.getUsdValue(QuoteCurrency.USDT));
+        assertEquals(1.0, table.getUsdValue(QuoteCurrency.USD));
+        assertEquals(1.0, table.getUsdValue(QuoteCurrency.USDC));
+    }
+
+    @Test
+    void failedRefreshKeepsTheLastGoodRates() throws InterruptedException {
+        answer(QuoteCurrency.EUR, 1.10);
+        table.refresh();
+        long updatedAt = table.getUpdatedAt();
+        Thread.sleep(5);
+
+        assertFalse(table.refresh());
+        assertEquals(110, table.convert(100, QuoteCurrency.EUR, QuoteCurrency.USD), 1e-9);
+        // The timestamp still says when the rates were last good, so callers can tell they are stale
+        assertEquals(updatedAt, table.getUpdatedAt());
+
+        answer(QuoteCurrency.EUR, 1.05);
+        assertTrue(table.refresh());
+        assertEquals(105, table.convert(100, QuoteCurrency.EUR, QuoteCurrency.USD), 1e-9);
+        assertTrue(table.getUpdatedAt() > updatedAt);
+    }
+
+    @Test
+    void firstRefreshReleasesWaitersEvenWhenItFails() {
+        assertFalse(table.awaitFirstRefresh(1));
+        table.start();
+        try {
+            assertTrue(table.awaitFirstRefresh(5000));
+            assertTrue(Double.isNaN(table.getUsdValue(QuoteCurrency.EUR)));
+            assertEquals(0, table.getUpdatedAt());
+        } finally {
+            table.close();
+        }
+    }
+}
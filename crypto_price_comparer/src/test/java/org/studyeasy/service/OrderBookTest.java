@@ -0,0 +1,69 @@
+package org.studyeasy.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+    // Asks 100 x 1, 101 x 2, 103 x 1; bids 99 x 1.5, 98 x 1, 95 x 3
+    private static OrderBook book() {
+        OrderBook book = new OrderBook("Kraken", "BTC", QuoteCurrency.USD, 2, 1000);
+        book.addAsk(100, 1);
+        book.addAsk(101, 2);
+        book.addAsk(103, 1);
+        book.addBid(99, 1.5);
+        book.addBid(98, 1);
+        book.addBid(95, 3);
+        return book;
+    }
+
+    @Test
+    void fillWithinTheTopLevelIsTheTopPrice() {
+        OrderBook book = book();
+        assertEquals(100, book.fillPrice(OrderSide.BUY, 0.5));
+        assertEquals(100, book.fillPrice(OrderSide.BUY, 1));
+        assertEquals(99, book.fillPrice(OrderSide.SELL, 1.5));
+        assertEquals(0, book.slippageBps(OrderSide.BUY, 1));
+    }
+
+    @Test
+    void partialFinalLevelIsWeightedByTheSizeTaken() {
+        OrderBook book = book();
+        // 1 at 100, then 1.5 of the 2 at 101
+        assertEquals((100 + 1.5 * 101) / 2.5, book.fillPrice(OrderSide.BUY, 2.5), 1e-9);
+        // All four asks, half of the last level
+        assertEquals((100 + 2 * 101 + 0.5 * 103) / 3.5, book.fillPrice(OrderSide.BUY, 3.5), 1e-9);
+        assertEquals((100 + 2 * 101 + 0.5 * 103) / 3.5 - 100, book.slippageBps(OrderSide.BUY, 3.5) / 100, 1e-9);
+    }
+
+    @Test
+    void bidsAndAsksAreWalkedSeparately() {
+        OrderBook book = book();
+        assertEquals(3, book.levels(OrderSide.BUY));
+        assertEquals(3, book.levels(OrderSide.SELL));
+        assertEquals(4, book.depth(OrderSide.BUY));
+        assertEquals(5.5, book.depth(OrderSide.SELL));
+        // 1.5 at 99, 1 at 98, 0.5 at 95
+        assertEquals((1.5 * 99 + 98 + 0.5 * 95) / 3, book.fillPrice(OrderSide.SELL, 3), 1e-9);
+        assertEquals(99.5, book.mid());
+        assertTrue(book.fillPrice(OrderSide.SELL, 3) < book.bestBid());
+        assertTrue(book.fillPrice(OrderSide.BUY, 3) > book.bestAsk());
+    }
+
+    @Test
+    void sizesBeyondTheBookOrNotPositiveHaveNoFill() {
+        OrderBook book = book();
+        assertEquals((100 + 2 * 101 + 103) / 4.0, book.fillPrice(OrderSide.BUY, 4), 1e-9);
+        assertTrue(Double.isNaN(book.fillPrice(OrderSide.BUY, 4.01)));
+        assertTrue(Double.isNaN(book.fillPrice(OrderSide.SELL, 6)));
+        assertTrue(Double.isNaN(book.slippageBps(OrderSide.SELL, 6)));
+        assertTrue(Double.isNaN(book.fillPrice(OrderSide.BUY, 0)));
+        assertTrue(Double.isNaN(book.fillPrice(OrderSide.BUY, -1)));
+        assertTrue(Double.isNaN(book.fillPrice(OrderSide.BUY, Double.NaN)));
+
+        OrderBook empty = new OrderBook("Kraken", "BTC", QuoteCurrency.USD, 10, 1000);
+        assertTrue(Double.isNaN(empty.fillPrice(OrderSide.BUY, 1)));
+        assertTrue(Double.isNaN(empty.bestAsk()));
+    }
+}
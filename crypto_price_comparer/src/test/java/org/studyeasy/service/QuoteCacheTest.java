@@ -0,0 +1,158 @@
+package org.studyeasy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class QuoteCacheTest {
+
+    private static final int CALLERS = 8;
+
+    @Test
+    void entriesExpireAfterTheTtl() throws Exception {
+        QuoteCache<String, Double> cache = new QuoteCache<>(50, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals(1.0, cache.get("BTC", () -> (double) loads.incrementAndGet()));
+        assertEquals(1.0, cache.get("BTC", () -> (double) loads.incrementAndGet()));
+        assertEquals(1, cache.getHits());
+
+        Thread.sleep(80);
+        assertNull(cache.getIfPresent("BTC"));
+        assertEquals(2.0, cache.get("BTC", () -> (double) loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() throws Exception {
+        QuoteCache<String, Double> cache = new QuoteCache<>(60_000, 2);
+        cache.put("BTC", 1.0);
+        cache.put("ETH", 2.0);
+        // Touching BTC makes ETH the eldest
+        assertEquals(1.0, cache.getIfPresent("BTC"));
+        cache.put("SOL", 3.0);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.getIfPresent("ETH"));
+        assertEquals(1.0, cache.getIfPresent("BTC"));
+        assertEquals(3.0, cache.getIfPresent("SOL"));
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        QuoteCache<String, Double> cache = new QuoteCache<>(60_000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Double>> results = callConcurrently(cache, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return 42.0;
+        }, release);
+
+        for (Future<Double> result : results) {
+            assertEquals(42.0, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(CALLERS - 1, cache.getCoalesced());
+    }
+
+    @Test
+    void loaderExceptionReachesEveryWaiter() throws Exception {
+        QuoteCache<String, Double> cache = new QuoteCache<>(60_000, 10);
+        IOException failure = new IOException("exchange down");
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Double>> results = callConcurrently(cache, () -> {
+            await(release);
+            throw failure;
+        }, release);
+
+        for (Future<Double> result : results) {
+            assertSame(failure, causeOf(result));
+        }
+        // Nothing is cached and the next caller loads again
+        assertEquals(7.0, cache.get("BTC", () -> 7.0));
+    }
+
+    @Test
+    void loaderErrorReachesEveryWaiter() throws Exception {
+        QuoteCache<String, Double> cache = new QuoteCache<>(60_000, 10);
+        StackOverflowError failure = new StackOverflowError();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Double>> results = callConcurrently(cache, () -> {
+            await(release);
+            throw failure;
+        }, release);
+
+        for (Future<Double> result : results) {
+            assertSame(failure, causeOf(result));
+        }
+        assertThrows(IllegalStateException.class, () -> cache.get("BTC", () -> {
+            throw new IllegalStateException("still failing");
+        }));
+    }
+
+    // Starts CALLERS threads on the same key, waits until all but the loader are parked
+    // on the in-flight load, then lets the loader finish
+    private static List<Future<Double>> callConcurrently(QuoteCache<String, Double> cache,
+                                                         QuoteCache.Loader<Double> loader,
+                                                         CountDownLatch release) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Double>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> cache.get("BTC", loader)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.getCoalesced() < CALLERS - 1) {
+                if (System.nanoTime() > deadline) fail("callers never coalesced");
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<Double> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException ignored) {
+                    // Checked by the caller
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Throwable causeOf(Future<Double> result) {
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
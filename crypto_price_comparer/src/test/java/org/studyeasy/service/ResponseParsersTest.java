@@ -0,0 +1,243 @@
+package org.studyeasy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every parser against a recorded-style payload from src/test/resources/fixtures,
+// plus the edge cases each exchange actually sends: fields missing or added, API
+// errors in place of data and empty results
+class ResponseParsersTest {
+
+    private static InputStream fixture(String name) {
+        InputStream in = ResponseParsersTest.class.getResourceAsStream("/fixtures/" + name);
+        assertNotNull(in, "missing fixture " + name);
+        return in;
+    }
+
+    private static InputStream json(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> markets(Parser parser, InputStream body) throws IOException {
+        List<String> markets = new ArrayList<>();
+        parser.parse(body, (base, quote, id, name) -> markets.add(base + "/" + quote + " " + id + " " + name));
+        return markets;
+    }
+
+    private interface Parser {
+        void parse(InputStream body, ResponseParsers.MarketConsumer consumer) throws IOException;
+    }
+
+    private static List<String> points(PointParser parser, InputStream body) throws IOException {
+        List<String> points = new ArrayList<>();
+        parser.parse(body, (timestamp, price) -> points.add(timestamp + "=" + price));
+        return points;
+    }
+
+    private interface PointParser {
+        void parse(InputStream body, ResponseParsers.PricePointConsumer consumer) throws IOException;
+    }
+
+    // Binance
+
+    @Test
+    void binancePrice() throws IOException {
+        assertEquals(64000.01, ResponseParsers.binancePrice(fixture("binance-price.json")));
+        assertEquals(1.5, ResponseParsers.binancePrice(json("{\"extra\":{\"price\":\"9\"},\"price\":\"1.5\",\"more\":[1]}")));
+        assertThrows(IOException.class, () -> ResponseParsers.binancePrice(json("{\"symbol\":\"BTCUSDT\"}")));
+        assertThrows(IOException.class,
+                () -> ResponseParsers.binancePrice(json("{\"code\":-1121,\"msg\":\"Invalid symbol.\"}")));
+        assertThrows(IOException.class, () -> ResponseParsers.binancePrice(json("[]")));
+    }
+
+    @Test
+    void binancePrices() throws IOException {
+        Map<String, Double> prices = ResponseParsers.binancePrices(fixture("binance-prices.json"),
+                Set.of("BTCUSDT", "SOLUSDT", "XRPUSDT"));
+        assertEquals(Map.of("BTCUSDT", 64000.01, "SOLUSDT", 150.25), prices);
+        assertTrue(ResponseParsers.binancePrices(json("[]"), Set.of("BTCUSDT")).isEmpty());
+        assertThrows(IOException.class, () -> ResponseParsers.binancePrices(json("{\"code\":-1003}"), Set.of()));
+    }
+
+    @Test
+    void binanceDepth() throws IOException {
+        OrderBook book = ResponseParsers.binanceDepth(fixture("binance-depth.json"), book(2));
+        assertEquals(3, book.levels(OrderSide.BUY));
+        assertEquals(2, book.levels(OrderSide.SELL));
+        assertEquals(64000.01, book.bestAsk());
+        assertEquals(64000.00, book.bestBid());
+        assertEquals(3.0, book.getSize(OrderSide.BUY, 2));
+
+        OrderBook empty = ResponseParsers.binanceDepth(json("{\"lastUpdateId\":1,\"bids\":[],\"asks\":[]}"), book(2));
+        assertEquals(0, empty.levels(OrderSide.BUY));
+    }
+
+    @Test
+    void binanceKlines() throws IOException {
+        assertEquals(List.of("1700000000000=64000.0", "1700003600000=64050.0"),
+                points((body, consumer) -> ResponseParsers.binanceKlines(body, consumer), fixture("binance-klines.json")));
+        assertEquals(0, ResponseParsers.binanceKlines(json("[]"), (timestamp, price) -> { }));
+        assertThrows(IOException.class, () -> ResponseParsers.binanceKlines(json("{\"code\":-1120}"), (t, p) -> { }));
+    }
+
+    @Test
+    void binanceExchangeInfo() throws IOException {
+        // Halted pairs and entries without assets are left out
+        assertEquals(List.of("BTC/USDT BTCUSDT null", "ETH/EUR ETHEUR null"),
+                markets(ResponseParsers::binanceExchangeInfo, fixture("binance-exchange-info.json")));
+        assertTrue(markets(ResponseParsers::binanceExchangeInfo, json("{\"symbols\":[]}")).isEmpty());
+        assertThrows(IOException.class, () -> markets(ResponseParsers::binanceExchangeInfo, json("{\"timezone\":\"UTC\"}")));
+    }
+
+    // Kraken
+
+    @Test
+    void krakenLastPrices() throws IOException {
+        assertEquals(Map.of("XXBTZUSD", 64000.1, "XETHZUSD", 3100.5),
+                ResponseParsers.krakenLastPrices(fixture("kraken-ticker.json")));
+        assertTrue(ResponseParsers.krakenLastPrices(json("{\"error\":[],\"result\":{}}")).isEmpty());
+        // A pair without a last trade is skipped, not misread
+        assertEquals(Map.of("B", 2.0), ResponseParsers.krakenLastPrices(
+                json("{\"error\":[],\"result\":{\"A\":{\"o\":\"1\"},\"B\":{\"c\":[\"2\",\"1\"]}}}")));
+    }
+
+    @Test
+    void krakenErrorsCarryTheErrorArray() {
+        KrakenApiException e = assertThrows(KrakenApiException.class,
+                () -> ResponseParsers.krakenLastPrices(fixture("kraken-ticker-error.json")));
+        assertTrue(e.hasError(KrakenApiException.UNKNOWN_ASSET_PAIR));
+        assertEquals(List.of("EQuery:Unknown asset pair"), e.getErrors());
+
+        String busy = "{\"error\":[\"EService:Unavailable\"],\"result\":{}}";
+        assertEquals(List.of("EService:Unavailable"), assertThrows(KrakenApiException.class,
+                () -> ResponseParsers.krakenDepth(json(busy), book(10))).getErrors());
+        assertThrows(KrakenApiException.class, () -> ResponseParsers.krakenOhlc(json(busy), (t, p) -> { }));
+        assertThrows(KrakenApiException.class,
+                () -> markets(ResponseParsers::krakenAssetPairs, json("{\"error\":[\"EGeneral:Internal error\"]}")));
+    }
+
+    @Test
+    void krakenDepth() throws IOException {
+        OrderBook book = ResponseParsers.krakenDepth(fixture("kraken-depth.json"), book(10));
+        assertEquals(2, book.levels(OrderSide.BUY));
+        assertEquals(1, book.levels(OrderSide.SELL));
+        assertEquals(64000.5, book.getPrice(OrderSide.BUY, 1));
+        assertEquals(0.75, book.getSize(OrderSide.SELL, 0));
+
+        IOException e = assertThrows(IOException.class,
+                () -> ResponseParsers.krakenDepth(json("{\"error\":[],\"result\":{}}"), book(10)));
+        assertEquals("No order book in Kraken response", e.getMessage());
+    }
+
+    @Test
+    void krakenOhlc() throws IOException {
+        assertEquals(List.of("1700000000000=64000.0", "1700003600000=64050.0"),
+                points(ResponseParsers::krakenOhlc, fixture("kraken-ohlc.json")));
+        assertTrue(points(ResponseParsers::krakenOhlc,
+                json("{\"error\":[],\"result\":{\"XXBTZUSD\":[],\"last\":0}}")).isEmpty());
+        assertThrows(IOException.class, () -> points(ResponseParsers::krakenOhlc, json("{\"error\":[],\"result\":{}}")));
+    }
+
+    @Test
+    void krakenAssetPairs() throws IOException {
+        // Dark pools (no wsname) and delisted pairs are left out; a missing status means online
+        assertEquals(List.of("XBT/USD XXBTZUSD null", "ETH/EUR XETHZEUR null"),
+                markets(ResponseParsers::krakenAssetPairs, fixture("kraken-asset-pairs.json")));
+        assertTrue(markets(ResponseParsers::krakenAssetPairs, json("{\"error\":[],\"result\":{}}")).isEmpty());
+    }
+
+    // Coinbase
+
+    @Test
+    void coinbaseSpotPrice() throws IOException {
+        assertEquals(64000.0, ResponseParsers.coinbaseSpotPrice(fixture("coinbase-spot.json")));
+        assertEquals(2.5, ResponseParsers.coinbaseSpotPrice(json("{\"warnings\":[{}],\"data\":{\"amount\":\"2.5\"}}")));
+        assertThrows(IOException.class, () -> ResponseParsers.coinbaseSpotPrice(
+                json("{\"errors\":[{\"id\":\"not_found\",\"message\":\"Invalid base currency\"}]}")));
+        assertThrows(IOException.class, () -> ResponseParsers.coinbaseSpotPrice(json("{\"data\":{\"base\":\"BTC\"}}")));
+    }
+
+    @Test
+    void coinbaseRates() throws IOException {
+        Map<String, Double> rates = ResponseParsers.coinbaseRates(fixture("coinbase-rates.json"), Set.of("BTC", "SOL", "XYZ"));
+        assertEquals(Map.of("BTC", 0.000015625, "SOL", 0.0066666667), rates);
+        assertTrue(ResponseParsers.coinbaseRates(json("{\"data\":{\"currency\":\"USD\",\"rates\":{}}}"), Set.of("BTC")).isEmpty());
+        assertThrows(IOException.class,
+                () -> ResponseParsers.coinbaseRates(json("{\"data\":{\"currency\":\"USD\"}}"), Set.of("BTC")));
+    }
+
+    @Test
+    void coinbaseBookStopsAtMaxLevels() throws IOException {
+        OrderBook book = ResponseParsers.coinbaseBook(fixture("coinbase-book.json"), book(2), 2);
+        assertEquals(2, book.levels(OrderSide.BUY));
+        assertEquals(2, book.levels(OrderSide.SELL));
+        assertEquals(64002.0, book.getPrice(OrderSide.BUY, 1));
+
+        OrderBook full = ResponseParsers.coinbaseBook(fixture("coinbase-book.json"), book(2), 50);
+        assertEquals(3, full.levels(OrderSide.SELL));
+        assertThrows(IOException.class,
+                () -> ResponseParsers.coinbaseBook(json("{\"message\":\"NotFound\"}"), book(2), 2));
+    }
+
+    @Test
+    void coinbaseCandlesComeNewestFirst() throws IOException {
+        assertEquals(List.of("1700003600000=64050.0", "1700000000000=64000.0"),
+                points(ResponseParsers::coinbaseCandles, fixture("coinbase-candles.json")));
+        assertTrue(points(ResponseParsers::coinbaseCandles, json("[]")).isEmpty());
+        assertThrows(IOException.class, () -> points(ResponseParsers::coinbaseCandles, json("{\"message\":\"NotFound\"}")));
+    }
+
+    @Test
+    void coinbaseProducts() throws IOException {
+        // Delisted and trading-disabled products are left out
+        assertEquals(List.of("BTC/USD BTC-USD null", "ETH/EUR ETH-EUR null"),
+                markets(ResponseParsers::coinbaseProducts, fixture("coinbase-products.json")));
+        assertTrue(markets(ResponseParsers::coinbaseProducts, json("[]")).isEmpty());
+    }
+
+    // CoinGecko
+
+    @Test
+    void coinGeckoPrices() throws IOException {
+        assertEquals(Map.of("bitcoin", 64000.0, "ethereum", 3100.5),
+                ResponseParsers.coinGeckoPrices(fixture("coingecko-prices.json")));
+        assertEquals(Map.of("bitcoin", 59000.0, "ethereum", 2900.0, "dogecoin", 0.15),
+                ResponseParsers.coinGeckoPrices(fixture("coingecko-prices.json"), "eur"));
+        assertTrue(ResponseParsers.coinGeckoPrices(json("{}")).isEmpty());
+        assertTrue(ResponseParsers.coinGeckoPrices(json("{\"status\":{\"error_code\":429}}")).isEmpty());
+    }
+
+    @Test
+    void coinGeckoHistory() throws IOException {
+        assertEquals(List.of("1700000000000=64000.0", "1700003600000=64100.5", "1700007200000=63950.25"),
+                points(ResponseParsers::coinGeckoHistory, fixture("coingecko-history.json")));
+        assertTrue(points(ResponseParsers::coinGeckoHistory, json("{\"prices\":[],\"market_caps\":[]}")).isEmpty());
+        assertThrows(IOException.class,
+                () -> points(ResponseParsers::coinGeckoHistory, json("{\"error\":\"coin not found\"}")));
+    }
+
+    @Test
+    void coinGeckoMarkets() throws IOException {
+        // Symbols are upper-cased; entries without an id are left out
+        assertEquals(List.of("BTC/null bitcoin Bitcoin", "ETH/null ethereum Ethereum", "NML/null nameless null"),
+                markets(ResponseParsers::coinGeckoMarkets, fixture("coingecko-markets.json")));
+        assertTrue(markets(ResponseParsers::coinGeckoMarkets, json("[]")).isEmpty());
+    }
+
+    private static OrderBook book(int depth) {
+        return new OrderBook("Test", "BTC", QuoteCurrency.USD, depth, 1000);
+    }
+}
@@ -0,0 +1,93 @@
+package org.studyeasy.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.exchange.BinanceAdapter;
+import org.studyeasy.service.exchange.CoinGeckoAdapter;
+import org.studyeasy.service.exchange.CoinbaseAdapter;
+import org.studyeasy.service.exchange.ExchangeAdapter;
+import org.studyeasy.service.exchange.KrakenAdapter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Lookups against the listing bundled in symbols/markets.json; nothing is fetched
+class SymbolRegistryTest {
+    private final ExchangeAdapter binance = new BinanceAdapter();
+    private final ExchangeAdapter coinGecko = new CoinGeckoAdapter();
+    private final ExchangeAdapter kraken = new KrakenAdapter();
+    private final ExchangeAdapter coinbase = new CoinbaseAdapter();
+
+    private final SymbolRegistry registry = new SymbolRegistry(List.of(binance, coinGecko, kraken, coinbase),
+            adapter -> {
+                throw new IOException("offline");
+            }, SymbolRegistry.DEFAULT_REFRESH_MS);
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    void bundledListingCoversEveryExchange() {
+        for (ExchangeAdapter adapter : List.of(binance, coinGecko, kraken, coinbase)) {
+            assertTrue(registry.hasListing(adapter.getName()), adapter.getName());
+            assertEquals(0, registry.getLoadedAt(adapter.getName()), adapter.getName());
+            assertTrue(registry.getMarketCount(adapter.getName()) > 0, adapter.getName());
+        }
+    }
+
+    @Test
+    void resolvesEachExchangesOwnPairId() {
+        assertEquals("XXBTZUSD", registry.resolve(kraken, "btc", QuoteCurrency.USD).getExchangeSymbol());
+        // Kraken's ids do not follow a naming rule
+        assertEquals("XDGUSD", registry.resolve(kraken, "DOGE", QuoteCurrency.USD).getExchangeSymbol());
+        assertEquals("XETHZEUR", registry.resolve(kraken, "ETH", QuoteCurrency.EUR).getExchangeSymbol());
+        assertEquals("BTC-EUR", registry.resolve(coinbase, "BTC", QuoteCurrency.EUR).getExchangeSymbol());
+        assertEquals("ripple", registry.resolve(coinGecko, "XRP", QuoteCurrency.USD).getExchangeSymbol());
+        assertEquals("BTCEUR", registry.resolve(binance, "BTC", QuoteCurrency.EUR).getExchangeSymbol());
+    }
+
+    @Test
+    void unlistedTargetFallsBackToTheAdaptersPreferredQuote() {
+        // Binance has no USD pairs and prefers USDT
+        Market market = registry.resolve(binance, "BTC", QuoteCurrency.USD);
+        assertEquals(QuoteCurrency.USDT, market.getQuote());
+        assertEquals("BTCUSDT", market.getExchangeSymbol());
+        // Coinbase does not list XRP against USDT, so its first choice, USD, is used
+        assertNull(registry.find("Coinbase", "XRP", QuoteCurrency.USDT));
+        assertEquals("XRP-USD", registry.resolve(coinbase, "XRP", QuoteCurrency.USDT).getExchangeSymbol());
+    }
+
+    @Test
+    void symbolAnExchangeDoesNotListResolvesToNull() {
+        assertEquals("BNBUSDT", registry.resolve(binance, "BNB", QuoteCurrency.USD).getExchangeSymbol());
+        assertNull(registry.resolve(kraken, "BNB", QuoteCurrency.USD));
+        assertNull(registry.resolve(coinbase, "BNB", QuoteCurrency.USD));
+        assertNull(registry.resolve(binance, "NOTACOIN", QuoteCurrency.USDT));
+        assertEquals(Set.of("Binance", "CoinGecko"), registry.getExchanges("bnb"));
+    }
+
+    @Test
+    void namesAndRankingComeFromTheListings() {
+        assertEquals("Bitcoin", registry.getName("btc"));
+        assertNull(registry.getName("NOTACOIN"));
+        List<String> everywhere = registry.getSymbols(4);
+        assertEquals("BTC", everywhere.get(0));
+        assertFalse(everywhere.contains("BNB"));
+        assertTrue(registry.getSymbols(2).contains("BNB"));
+    }
+
+    @Test
+    void failedRefreshKeepsTheBundledListing() {
+        assertFalse(registry.refresh());
+        assertEquals("XXBTZUSD", registry.resolve(kraken, "BTC", QuoteCurrency.USD).getExchangeSymbol());
+        assertEquals(0, registry.getLoadedAt("Kraken"));
+    }
+}
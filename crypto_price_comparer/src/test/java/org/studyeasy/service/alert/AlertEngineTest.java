@@ -0,0 +1,154 @@
+package org.studyeasy.service.alert;
+
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.spread.SpreadEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlertEngineTest {
+    private final SpreadEngine spreads = new SpreadEngine();
+    private final AlertEngine engine = new AlertEngine(spreads);
+    private final List<String> fired = new ArrayList<>();
+
+    private final AlertListener record = (alert, exchange, value, timestampMs) ->
+            fired.add(alert.getId() + "@" + exchange + "=" + value);
+
+    // The service feeds the spread engine before the alerts, as here
+    private void quote(String exchange, String symbol, double price) {
+        spreads.onQuote(exchange, symbol, price, 1000);
+        engine.onQuote(exchange, symbol, price, 1000);
+    }
+
+    @Test
+    void priceAlertsFireOnlyWhenTheirThresholdIsCrossed() {
+        Alert above100 = engine.priceAbove("btc", 100, record);
+        Alert above105 = engine.priceAbove("BTC", 105, record);
+        Alert alsoAbove100 = engine.priceAbove("BTC", 100, record);
+        Alert below90 = engine.priceBelow("BTC", 90, record);
+        Alert below95 = engine.priceBelow("BTC", 95, record);
+        assertEquals(5, engine.size());
+
+        quote("Binance", "BTC", 97);
+        assertEquals(List.of(), fired);
+
+        quote("Binance", "BTC", 102);
+        assertEquals(List.of(above100.getId() + "@Binance=102.0", alsoAbove100.getId() + "@Binance=102.0"), fired);
+
+        // Fired alerts are gone; the rest stay armed
+        fired.clear();
+        quote("Kraken", "BTC", 101);
+        assertEquals(List.of(), fired);
+        quote("Kraken", "BTC", 90);
+        assertEquals(List.of(below90.getId() + "@Kraken=90.0", below95.getId() + "@Kraken=90.0"), fired);
+        assertEquals(1, engine.size());
+        assertEquals(above105, engine.getAlert(above105.getId()));
+    }
+
+    @Test
+    void alertsKeepTheCurrencyTheyWereSetIn() {
+        QuoteCurrency[] currency = {QuoteCurrency.EUR};
+        AlertEngine euros = new AlertEngine(spreads, () -> currency[0]);
+        Alert below = euros.priceBelow("BTC", 50000, record);
+        currency[0] = QuoteCurrency.USDT;
+        Alert above = euros.priceAbove("BTC", 70000, record);
+
+        assertEquals(QuoteCurrency.EUR, below.getCurrency());
+        assertEquals("BTC at or below €50000.0", below.toString());
+        assertEquals("BTC at or above USDT 70000.0", above.toString());
+        assertEquals("BTC at or above $1.0", engine.priceAbove("BTC", 1, record).toString());
+    }
+
+    @Test
+    void cancelledAlertsDoNotFire() {
+        Alert above = engine.priceAbove("ETH", 10, record);
+        Alert move = engine.percentMove("ETH", 5, record);
+        quote("Binance", "ETH", 9);
+        assertTrue(engine.cancel(above.getId()));
+        assertTrue(engine.cancel(move));
+        assertFalse(engine.cancel(move));
+        assertEquals(0, engine.size());
+        assertTrue(engine.getSymbols().isEmpty());
+
+        quote("Binance", "ETH", 11);
+        quote("Binance", "ETH", 1);
+        assertEquals(List.of(), fired);
+    }
+
+    @Test
+    void percentMovesAreMeasuredPerExchange() {
+        Alert move = engine.percentMove("BTC", 1, record);
+        quote("Binance", "BTC", 100);
+        quote("Kraken", "BTC", 102);
+        quote("Coinbase", "BTC", 98);
+        // The venues are 2% apart, but none of them has moved
+        assertEquals(List.of(), fired);
+        assertEquals(100, move.getReferencePrice("Binance"));
+        assertEquals(102, move.getReferencePrice("Kraken"));
+        assertTrue(Double.isNaN(move.getReferencePrice("CoinGecko")));
+
+        quote("Binance", "BTC", 100.5);
+        quote("Kraken", "BTC", 101.5);
+        assertEquals(List.of(), fired);
+
+        quote("Kraken", "BTC", 100.9);
+        assertEquals(List.of(move.getId() + "@Kraken=100.9"), fired);
+
+        // One-shot: disarmed on every venue, not just the one that fired
+        quote("Binance", "BTC", 90);
+        quote("Coinbase", "BTC", 110);
+        assertEquals(1, fired.size());
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void percentMovesAddedLaterUseEachExchangesLatestPrice() {
+        engine.priceAbove("SOL", 1000, record);
+        quote("Binance", "SOL", 50);
+        quote("Kraken", "SOL", 52);
+        quote("Binance", "SOL", 51);
+
+        Alert move = engine.percentMove("SOL", 2, record);
+        assertEquals(51, move.getReferencePrice("Binance"));
+        assertEquals(52, move.getReferencePrice("Kraken"));
+
+        quote("Binance", "SOL", 52);
+        assertEquals(List.of(), fired);
+        quote("Binance", "SOL", 52.1);
+        assertEquals(List.of(move.getId() + "@Binance=52.1"), fired);
+    }
+
+    @Test
+    void spreadAlertsReadTheSpreadEngine() {
+        Alert spread = engine.spreadAbove("BTC", 100, record);
+        quote("Binance", "BTC", 100);
+        quote("Kraken", "BTC", 100.5);
+        assertEquals(List.of(), fired);
+
+        quote("Kraken", "BTC", 101.5);
+        assertEquals(1, fired.size());
+        assertTrue(fired.get(0).startsWith(spread.getId() + "@Kraken=150.0"));
+    }
+
+    @Test
+    void distanceUsesTheExchangesOwnMoveThresholds() {
+        assertTrue(Double.isNaN(engine.distanceToNearestBps("BTC", "Binance", 100)));
+        engine.percentMove("BTC", 1, record);
+        quote("Binance", "BTC", 100);
+        quote("Kraken", "BTC", 200);
+
+        assertEquals(100, engine.distanceToNearestBps("BTC", "Binance", 100), 1e-6);
+        assertEquals(0.5 / 100.5 * 10000, engine.distanceToNearestBps("BTC", "Binance", 100.5), 1e-6);
+        assertEquals(100, engine.distanceToNearestBps("BTC", "Kraken", 200), 1e-6);
+
+        engine.priceBelow("BTC", 99.8, record);
+        assertEquals(20, engine.distanceToNearestBps("BTC", "Binance", 100), 1e-6);
+        // No move reference yet on Coinbase, so only the price alert counts
+        assertEquals(20, engine.distanceToNearestBps("BTC", "Coinbase", 100), 1e-6);
+    }
+}
@@ -0,0 +1,84 @@
+package org.studyeasy.service.exchange;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CircuitBreakerTest {
+    private static final long FAST = 1_000_000;
+    private static final long COOLDOWN_MS = 50;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(2, 100, COOLDOWN_MS);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndFailsFast() {
+        breaker.record(breaker.allowRequest(), FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.record(breaker.allowRequest(), FAST, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.allowRequest());
+    }
+
+    @Test
+    void slowSuccessesCountAsFailures() {
+        breaker.record(breaker.allowRequest(), 200_000_000, true);
+        breaker.record(breaker.allowRequest(), 200_000_000, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void probeDecidesAfterCooldown() throws InterruptedException {
+        trip();
+        Thread.sleep(COOLDOWN_MS + 10);
+        CircuitBreaker.Permit probe = breaker.allowRequest();
+        assertNotNull(probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.allowRequest(), "second probe let through");
+
+        breaker.record(probe, FAST, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(COOLDOWN_MS + 10);
+        breaker.record(breaker.allowRequest(), FAST, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void callsInFlightAcrossATripAreIgnored() throws InterruptedException {
+        CircuitBreaker.Permit early = breaker.allowRequest();
+        CircuitBreaker.Permit late = breaker.allowRequest();
+        trip();
+
+        // A fast success from before the trip must not close the circuit
+        breaker.record(early, FAST, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(COOLDOWN_MS + 10);
+        CircuitBreaker.Permit probe = breaker.allowRequest();
+        assertNotNull(probe);
+        // Nor may it free the probe slot while half-open
+        breaker.record(late, FAST, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.allowRequest(), "second probe let through");
+
+        breaker.record(probe, FAST, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void releasedProbeFreesTheSlotWithoutChangingState() throws InterruptedException {
+        trip();
+        Thread.sleep(COOLDOWN_MS + 10);
+        breaker.release(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNotNull(breaker.allowRequest());
+    }
+
+    private void trip() {
+        breaker.record(breaker.allowRequest(), FAST, false);
+        breaker.record(breaker.allowRequest(), FAST, false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,144 @@
+package org.studyeasy.service.exchange;
+
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.Market;
+import org.studyeasy.service.PriceSeries;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeHistoryTest {
+    private static final long DAY = TimeUnit.DAYS.toSeconds(1);
+    // Aligned to a day, so hourly and daily candles start on it
+    private static final long NOW = 1_700_006_400L;
+
+    private final List<String> requested = new ArrayList<>();
+
+    private HttpFetcher serving(Function<Map<String, String>, String> responder) {
+        return new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                requested.add(url);
+                String body = responder.apply(query(url));
+                return parser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            }
+        };
+    }
+
+    @Test
+    void binancePagesThroughKlines() throws IOException {
+        long from = NOW - 90 * DAY;
+        PriceSeries series = new PriceSeries();
+        new BinanceAdapter().fetchHistory(new Market("BTC", QuoteCurrency.USDT, "BTCUSDT"), from, NOW,
+                serving(query -> {
+                    assertEquals("1h", query.get("interval"));
+                    long start = Long.parseLong(query.get("startTime"));
+                    long end = Long.parseLong(query.get("endTime"));
+                    int limit = Integer.parseInt(query.get("limit"));
+                    StringBuilder body = new StringBuilder("[");
+                    long step = 3_600_000;
+                    long first = (start + step - 1) / step * step;
+                    for (long t = first; t <= end && (t - first) / step < limit; t += step) {
+                        if (body.length() > 1) body.append(',');
+                        body.append("[").append(t).append(",\"").append(price(t / 1000)).append("\",\"1\",\"1\",\"1\",\"5\",")
+                                .append(t + step - 1).append(",\"0\",10,\"0\",\"0\",\"0\"]");
+                    }
+                    return body.append("]").toString();
+                }), series::add);
+
+        assertEquals(3, requested.size());
+        assertEquals(90 * 24 + 1, series.size());
+        assertEvenlySpaced(series, from, 3600);
+    }
+
+    @Test
+    void coinbaseWalksWindowsAndReversesNewestFirstCandles() throws IOException {
+        long from = NOW - 90 * DAY;
+        PriceSeries series = new PriceSeries();
+        new CoinbaseAdapter().fetchHistory(new Market("BTC", QuoteCurrency.USD, "BTC-USD"), from, NOW,
+                serving(query -> {
+                    long step = Long.parseLong(query.get("granularity"));
+                    long start = Instant.parse(query.get("start")).getEpochSecond();
+                    long end = Instant.parse(query.get("end")).getEpochSecond();
+                    assertTrue((end - start) / step < 300, "window too wide");
+                    StringBuilder body = new StringBuilder("[");
+                    for (long t = end / step * step; t >= start / step * step; t -= step) {
+                        if (body.length() > 1) body.append(',');
+                        body.append("[").append(t).append(",1,1,").append(price(t)).append(",1,5]");
+                    }
+                    return body.append("]").toString();
+                }), series::add);
+
+        assertEquals(8, requested.size());
+        assertEquals(90 * 24 + 1, series.size());
+        assertEvenlySpaced(series, from, 3600);
+    }
+
+    @Test
+    void krakenWidensTheIntervalToFitOneResponse() throws IOException {
+        Map<Long, Integer> expectedIntervals = new HashMap<>();
+        expectedIntervals.put(DAY, 5);
+        expectedIntervals.put(29 * DAY, 60);
+        expectedIntervals.put(30 * DAY, 240);
+        expectedIntervals.put(90 * DAY, 240);
+        expectedIntervals.put(365 * DAY, 1440);
+        expectedIntervals.put(5 * 365 * DAY, 10080);
+        for (Map.Entry<Long, Integer> expected : expectedIntervals.entrySet()) {
+            long from = NOW - expected.getKey();
+            long step = expected.getValue() * 60L;
+            PriceSeries series = new PriceSeries();
+            new KrakenAdapter().fetchHistory(new Market("BTC", QuoteCurrency.USD, "XXBTZUSD"), from, NOW,
+                    serving(query -> {
+                        assertEquals(expected.getValue(), Integer.parseInt(query.get("interval")));
+                        // Kraken always answers with its latest 720 candles
+                        StringBuilder body = new StringBuilder("{\"error\":[],\"result\":{\"XXBTZUSD\":[");
+                        for (long t = NOW - 719 * step; t <= NOW; t += step) {
+                            if (t > NOW - 719 * step) body.append(',');
+                            body.append("[").append(t).append(",\"").append(price(t)).append("\",\"1\",\"1\",\"1\",\"1\",\"5\",3]");
+                        }
+                        return body.append("],\"last\":").append(NOW).append("}}").toString();
+                    }), series::add);
+
+            assertEvenlySpaced(series, from, step);
+            assertEquals(expected.getKey() / step + 1, series.size(), expected.getKey() / DAY + " days");
+        }
+    }
+
+    // Points from the first candle at or after from up to NOW, one per step back from NOW, each
+    // carrying the open price its candle was served with
+    private static void assertEvenlySpaced(PriceSeries series, long from, long step) {
+        long first = NOW - (NOW - from) / step * step;
+        assertEquals(first * 1000, series.getTimestamp(0));
+        for (int i = 0; i < series.size(); i++) {
+            long t = first + i * step;
+            assertEquals(t * 1000, series.getTimestamp(i), "point " + i);
+            assertEquals(price(t), series.getPrice(i), "point " + i);
+        }
+        assertEquals(NOW * 1000, series.getTimestamp(series.size() - 1));
+    }
+
+    private static double price(long seconds) {
+        return 1000 + seconds % 9973;
+    }
+
+    private static Map<String, String> query(String url) {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : url.substring(url.indexOf('?') + 1).split("&")) {
+            int equals = pair.indexOf('=');
+            query.put(pair.substring(0, equals), pair.substring(equals + 1));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,109 @@
+package org.studyeasy.service.exchange;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.Market;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExchangeRegistryTest {
+    private static final HttpFetcher ANSWER = new HttpFetcher() {
+        @Override
+        public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+            return parser.parse(new ByteArrayInputStream("42".getBytes(StandardCharsets.US_ASCII)));
+        }
+    };
+
+    private final TestAdapter adapter = new TestAdapter(new RateLimit(1, 2));
+    private final ExchangeRegistry registry = new ExchangeRegistry(List.of(adapter));
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    void localThrottlingDoesNotTripTheBreaker() throws IOException {
+        TestAdapter slowRefill = new TestAdapter(new RateLimit(1, 0.001));
+        try (ExchangeRegistry throttled = new ExchangeRegistry(List.of(slowRefill))) {
+            assertEquals(42, fetch(throttled, slowRefill));
+            for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD * 2; i++) {
+                assertThrows(RateLimitedException.class, () -> fetch(throttled, slowRefill));
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, throttled.getCircuitBreaker("Test").getState());
+            assertEquals(1, throttled.getStats("Test").getRequests());
+            assertEquals(0, throttled.getStats("Test").getFailures());
+        }
+    }
+
+    @Test
+    void rateLimitWaitIsNotCountedAsLatency() throws IOException {
+        fetch(registry, adapter);
+        // The bucket is empty, so this one waits about 500 ms for a token
+        long start = System.nanoTime();
+        fetch(registry, adapter);
+        assertTrue(System.nanoTime() - start >= 400_000_000L);
+        assertTrue(registry.getStats("Test").getMaxLatencyMs() < 200,
+                "latency includes the wait: " + registry.getStats("Test").getMaxLatencyMs());
+    }
+
+    @Test
+    void exchangeFailuresStillTripTheBreaker() {
+        registry.setRateLimitingEnabled(false);
+        for (int i = 0; i < CircuitBreaker.DEFAULT_FAILURE_THRESHOLD; i++) {
+            assertThrows(IOException.class, () -> registry.call(adapter, a -> {
+                throw new IOException("down");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, registry.getCircuitBreaker("Test").getState());
+        assertThrows(CircuitOpenException.class, () -> fetch(registry, adapter));
+    }
+
+    private static double fetch(ExchangeRegistry registry, ExchangeAdapter adapter) throws IOException {
+        Market market = new Market("BTC", QuoteCurrency.USD, "BTCUSD");
+        return registry.call(adapter, a -> a.fetchQuote(market, registry.fetcherFor(a, ANSWER)));
+    }
+
+    private static final class TestAdapter implements ExchangeAdapter {
+        private final RateLimit rateLimit;
+
+        TestAdapter(RateLimit rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+
+        @Override
+        public String getName() {
+            return "Test";
+        }
+
+        @Override
+        public Set<Capability> getCapabilities() {
+            return Set.of(Capability.QUOTE);
+        }
+
+        @Override
+        public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+            return symbol + quote;
+        }
+
+        @Override
+        public double fetchQuote(Market market, HttpFetcher http) throws IOException {
+            return http.get("http://test/" + market.getExchangeSymbol(),
+                    body -> Double.parseDouble(new String(body.readAllBytes(), StandardCharsets.US_ASCII)));
+        }
+
+        @Override
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+    }
+}
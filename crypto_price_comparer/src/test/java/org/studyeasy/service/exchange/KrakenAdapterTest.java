@@ -0,0 +1,80 @@
+package org.studyeasy.service.exchange;
+
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.KrakenApiException;
+import org.studyeasy.service.Market;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KrakenAdapterTest {
+    private static final String BATCH_URL = "https://api.kraken.com/0/public/Ticker?pair=XXBTZUSD,XETHZUSD";
+    private static final String ALL_URL = "https://api.kraken.com/0/public/Ticker";
+    private static final String ALL_TICKERS = "{\"error\":[],\"result\":{"
+            + "\"XXBTZUSD\":{\"c\":[\"64000.1\",\"0.01\"]},\"XLTCZUSD\":{\"c\":[\"80.5\",\"1\"]}}}";
+
+    private final KrakenAdapter adapter = new KrakenAdapter();
+    private final List<Market> markets = List.of(
+            new Market("BTC", QuoteCurrency.USD, "XXBTZUSD"), new Market("ETH", QuoteCurrency.USD, "XETHZUSD"));
+    private final List<String> requested = new ArrayList<>();
+
+    // Answers the batch request with the given body or failure, and the full list with ALL_TICKERS
+    private HttpFetcher kraken(String batchBody, IOException batchFailure) {
+        return new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                requested.add(url);
+                if (url.equals(BATCH_URL) && batchFailure != null) throw batchFailure;
+                String body = url.equals(BATCH_URL) ? batchBody : ALL_TICKERS;
+                return parser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+            }
+        };
+    }
+
+    @Test
+    void batchAnswerIsUsedAsIs() throws IOException {
+        String body = "{\"error\":[],\"result\":{\"XXBTZUSD\":{\"c\":[\"64000.1\",\"0.01\"]},"
+                + "\"XETHZUSD\":{\"c\":[\"3100.2\",\"1\"]}}}";
+        Map<String, Double> prices = adapter.fetchQuotes(markets, kraken(body, null));
+        assertEquals(Map.of("BTC", 64000.1, "ETH", 3100.2), prices);
+        assertEquals(List.of(BATCH_URL), requested);
+    }
+
+    @Test
+    void unknownPairFallsBackToTheFullTickerList() throws IOException {
+        String body = "{\"error\":[\"EQuery:Unknown asset pair\"]}";
+        Map<String, Double> prices = adapter.fetchQuotes(markets, kraken(body, null));
+        assertEquals(Map.of("BTC", 64000.1), prices);
+        assertEquals(List.of(BATCH_URL, ALL_URL), requested);
+    }
+
+    @Test
+    void otherKrakenErrorsAreNotRetried() {
+        String body = "{\"error\":[\"EGeneral:Too many requests\"],\"result\":{}}";
+        KrakenApiException e = assertThrows(KrakenApiException.class,
+                () -> adapter.fetchQuotes(markets, kraken(body, null)));
+        assertEquals(List.of("EGeneral:Too many requests"), e.getErrors());
+        assertEquals(List.of(BATCH_URL), requested);
+    }
+
+    @Test
+    void rateLimitsAndTimeoutsReachTheCaller() {
+        RateLimitedException limited = new RateLimitedException("Kraken answered 429", 1000);
+        assertEquals(limited, assertThrows(RateLimitedException.class,
+                () -> adapter.fetchQuotes(markets, kraken(null, limited))));
+        assertThrows(SocketTimeoutException.class,
+                () -> adapter.fetchQuotes(markets, kraken(null, new SocketTimeoutException("Read timed out"))));
+        assertThrows(IOException.class,
+                () -> adapter.fetchQuotes(markets, kraken(null, new IOException("HTTP 502 from Kraken"))));
+        assertEquals(List.of(BATCH_URL, BATCH_URL, BATCH_URL), requested);
+    }
+}
@@ -0,0 +1,137 @@
+package org.studyeasy.service.history;
+
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.PriceSeries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryAggregatorTest {
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void chunkedAggregationMatchesOneSerialPass() {
+        Random random = new Random(3);
+        PriceSeries series = randomSeries(random, 5000, 0);
+        for (Resolution resolution : Resolution.values()) {
+            OhlcSeries expected = serial(List.of(series), resolution);
+            // Chunk boundaries land inside buckets for every size but the last
+            for (int chunkPoints : new int[]{1, 2, 3, 7, 64, 1000, 10_000}) {
+                OhlcSeries chunked = new HistoryAggregator(ForkJoinPool.commonPool(), chunkPoints)
+                        .aggregate(series, resolution);
+                assertSameBuckets(expected, chunked, resolution + " in chunks of " + chunkPoints);
+            }
+        }
+    }
+
+    @Test
+    void chunksOfOnlyNaNsAndRepeatedTimestampsJoinCleanly() {
+        PriceSeries series = new PriceSeries();
+        series.add(START, 10);
+        series.add(START + 1000, Double.NaN);
+        series.add(START + 2000, Double.NaN);
+        series.add(START + 3000, 12);
+        // The same timestamp on both sides of a chunk boundary: the later point closes
+        series.add(START + 3000, 11);
+        series.add(START + 4000, Double.NaN);
+        OhlcSeries expected = serial(List.of(series), Resolution.MINUTE);
+        assertEquals(1, expected.size());
+        assertEquals(11, expected.getClose(0));
+
+        for (int chunkPoints = 1; chunkPoints <= series.size(); chunkPoints++) {
+            OhlcSeries chunked = new HistoryAggregator(ForkJoinPool.commonPool(), chunkPoints)
+                    .aggregate(series, Resolution.MINUTE);
+            assertSameBuckets(expected, chunked, "chunks of " + chunkPoints);
+        }
+    }
+
+    @Test
+    void pooledSourcesMatchOneSerialPassOverAllPoints() {
+        Random random = new Random(5);
+        List<PriceSeries> sources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sources.add(randomSeries(random, 1500 + 500 * i, 100 * i));
+        }
+        // One source shares every timestamp with another and one has no points at all
+        PriceSeries twin = new PriceSeries();
+        for (int i = 0; i < sources.get(0).size(); i++) {
+            twin.add(sources.get(0).getTimestamp(i), sources.get(0).getPrice(i) + 1);
+        }
+        sources.add(twin);
+        sources.add(new PriceSeries());
+
+        for (Resolution resolution : Resolution.values()) {
+            OhlcSeries expected = serial(sources, resolution);
+            for (int chunkPoints : new int[]{1, 5, 100, 100_000}) {
+                OhlcSeries pooled = new HistoryAggregator(ForkJoinPool.commonPool(), chunkPoints)
+                        .aggregate(sources, resolution);
+                assertSameBuckets(expected, pooled, resolution + " in chunks of " + chunkPoints);
+            }
+        }
+    }
+
+    @Test
+    void concatAndMergeOfOnePartReturnIt() {
+        OhlcSeries part = new OhlcSeries(Resolution.HOUR, 1);
+        part.add(START, 1);
+        assertSame(part, OhlcSeries.concat(List.of(part), Resolution.HOUR));
+        assertSame(part, OhlcSeries.merge(List.of(part), Resolution.HOUR));
+        assertTrue(new HistoryAggregator().aggregate(List.of(new PriceSeries(), new PriceSeries()), Resolution.HOUR).isEmpty());
+    }
+
+    // Irregular spacing, a few long gaps and occasional NaN prices
+    private static PriceSeries randomSeries(Random random, int points, double offset) {
+        PriceSeries series = new PriceSeries(points);
+        long timestamp = START + random.nextInt(60_000);
+        double price = 1000 + offset;
+        for (int i = 0; i < points; i++) {
+            timestamp += random.nextInt(50) == 0 ? random.nextInt(86_400_000) : random.nextInt(20_000);
+            price += random.nextGaussian();
+            series.add(timestamp, random.nextInt(40) == 0 ? Double.NaN : price);
+        }
+        return series;
+    }
+
+    // Reference: every point of every source in time order (source order on ties)
+    // added to one series, with no chunking or merging
+    private static OhlcSeries serial(List<PriceSeries> sources, Resolution resolution) {
+        List<double[]> points = new ArrayList<>();
+        for (int s = 0; s < sources.size(); s++) {
+            PriceSeries source = sources.get(s);
+            for (int i = 0; i < source.size(); i++) {
+                points.add(new double[]{source.getTimestamp(i), s, i, source.getPrice(i)});
+            }
+        }
+        points.sort(Comparator.<double[]>comparingDouble(p -> p[0]).thenComparingDouble(p -> p[1])
+                .thenComparingDouble(p -> p[2]));
+        OhlcSeries result = new OhlcSeries(resolution, 1);
+        for (double[] point : points) {
+            if (!Double.isNaN(point[3])) {
+                result.add((long) point[0], point[3]);
+            }
+        }
+        return result;
+    }
+
+    private static void assertSameBuckets(OhlcSeries expected, OhlcSeries actual, String context) {
+        assertEquals(expected.size(), actual.size(), context + ": buckets");
+        for (int i = 0; i < expected.size(); i++) {
+            String bucket = context + ", bucket " + i;
+            assertEquals(expected.getStart(i), actual.getStart(i), bucket);
+            assertEquals(expected.getOpen(i), actual.getOpen(i), bucket + " open");
+            assertEquals(expected.getHigh(i), actual.getHigh(i), bucket + " high");
+            assertEquals(expected.getLow(i), actual.getLow(i), bucket + " low");
+            assertEquals(expected.getClose(i), actual.getClose(i), bucket + " close");
+            assertEquals(expected.getCount(i), actual.getCount(i), bucket + " count");
+            // Sums are added in a different order across chunks
+            assertEquals(expected.getMean(i), actual.getMean(i), 1e-9 * Math.abs(expected.getMean(i)), bucket + " mean");
+        }
+    }
+}
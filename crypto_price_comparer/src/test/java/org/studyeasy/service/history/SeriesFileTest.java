@@ -0,0 +1,175 @@
+package org.studyeasy.service.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.studyeasy.service.PriceSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesFileTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendsSurviveReopen() throws IOException {
+        Path path = directory.resolve("BTC.ts");
+        try (SeriesFile file = new SeriesFile(path)) {
+            assertEquals(0, file.size());
+            assertEquals(Long.MAX_VALUE, file.coveredFrom());
+            assertTrue(file.append(1000, 1.5));
+            assertTrue(file.append(2000, 2.5));
+            // Points that are not newer than the last one are ignored
+            assertFalse(file.append(2000, 9));
+            assertFalse(file.append(1500, 9));
+        }
+        try (SeriesFile file = new SeriesFile(path)) {
+            assertSeries(file.read(Long.MIN_VALUE, Long.MAX_VALUE), 1000, 1.5, 2000, 2.5);
+            assertEquals(1000, file.firstTimestamp());
+            assertEquals(2000, file.lastTimestamp());
+            assertTrue(file.append(3000, 3.5));
+            assertEquals(3, file.size());
+        }
+    }
+
+    @Test
+    void growsPastOneChunkAndReadsRanges() throws IOException {
+        Path path = directory.resolve("ETH.ts");
+        int points = 10_000;
+        try (SeriesFile file = new SeriesFile(path)) {
+            for (int i = 0; i < points; i++) {
+                file.append(i * 10L, i);
+            }
+        }
+        try (SeriesFile file = new SeriesFile(path)) {
+            assertEquals(points, file.size());
+            PriceSeries range = file.read(50_000, 50_020);
+            assertSeries(range, 50_000, 5000, 50_010, 5001, 50_020, 5002);
+            assertEquals(points, file.read(Long.MIN_VALUE, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void mergeInterleavesAndNewPointsWin() throws IOException {
+        Path path = directory.resolve("SOL.ts");
+        try (SeriesFile file = new SeriesFile(path)) {
+            file.append(100, 1);
+            file.append(200, 2);
+            file.append(300, 3);
+            file.merge(series(50, 0.5, 200, 20, 250, 25), 50, 250);
+            assertSeries(file.read(Long.MIN_VALUE, Long.MAX_VALUE), 50, 0.5, 100, 1, 200, 20, 250, 25, 300, 3);
+            assertEquals(50, file.coveredFrom());
+            assertEquals(250, file.backfilledTo());
+            // Appends carry on after a merge
+            assertTrue(file.append(400, 4));
+        }
+        try (SeriesFile file = new SeriesFile(path)) {
+            assertSeries(file.read(Long.MIN_VALUE, Long.MAX_VALUE),
+                    50, 0.5, 100, 1, 200, 20, 250, 25, 300, 3, 400, 4);
+            assertEquals(50, file.coveredFrom());
+            assertEquals(250, file.backfilledTo());
+        }
+    }
+
+    @Test
+    void mergeOnlyRewritesFromTheFirstNewPoint() throws IOException {
+        Path path = directory.resolve("ADA.ts");
+        try (SeriesFile file = new SeriesFile(path)) {
+            for (int i = 0; i < 5000; i++) {
+                file.append(i, i);
+            }
+            file.merge(series(4999, -1, 5000, -2, 9000, -3), 0, 9000);
+            assertEquals(5002, file.size());
+            PriceSeries all = file.read(Long.MIN_VALUE, Long.MAX_VALUE);
+            assertEquals(4998, all.getPrice(4998));
+            assertSeries(file.read(4999, Long.MAX_VALUE), 4999, -1, 5000, -2, 9000, -3);
+        }
+    }
+
+    @Test
+    void mergesWidenCoverage() throws IOException {
+        try (SeriesFile file = new SeriesFile(directory.resolve("DOT.ts"))) {
+            file.merge(series(100, 1, 300, 3), 100, 300);
+            file.merge(series(300, 3, 500, 5), 300, 500);
+            assertEquals(100, file.coveredFrom());
+            assertEquals(500, file.backfilledTo());
+            file.merge(new PriceSeries(), 10, 500);
+            assertEquals(10, file.coveredFrom());
+        }
+    }
+
+    @Test
+    void liveAppendsDoNotMoveTheWatermark() throws IOException {
+        Path path = directory.resolve("LINK.ts");
+        try (SeriesFile file = new SeriesFile(path)) {
+            file.append(50, 0.5);
+            assertEquals(Long.MAX_VALUE, file.coveredFrom());
+            assertEquals(Long.MIN_VALUE, file.backfilledTo());
+
+            file.merge(series(100, 1, 200, 2), 100, 200);
+            // Days later: a live point lands well after the last backfill
+            file.append(1000, 10);
+            assertEquals(200, file.backfilledTo());
+            assertEquals(1000, file.lastTimestamp());
+
+            // Backfilling from the watermark fills the gap before the live point
+            file.merge(series(300, 3, 600, 6, 1000, 10.5, 1100, 11), 100, 1100);
+            assertSeries(file.read(Long.MIN_VALUE, Long.MAX_VALUE),
+                    50, 0.5, 100, 1, 200, 2, 300, 3, 600, 6, 1000, 10.5, 1100, 11);
+        }
+        try (SeriesFile file = new SeriesFile(path)) {
+            assertEquals(100, file.coveredFrom());
+            assertEquals(1100, file.backfilledTo());
+        }
+    }
+
+    @Test
+    void filesWithoutAWatermarkKeepTheirPointsButLoseCoverage() throws IOException {
+        Path path = directory.resolve("UNI.ts");
+        try (SeriesFile file = new SeriesFile(path)) {
+            file.merge(series(100, 1, 200, 2), 100, 200);
+        }
+        // Rewrite the header the way version 1 left it: no watermark field
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1), 4);
+            channel.write(ByteBuffer.allocate(8), 24);
+        }
+        try (SeriesFile file = new SeriesFile(path)) {
+            assertSeries(file.read(Long.MIN_VALUE, Long.MAX_VALUE), 100, 1, 200, 2);
+            assertEquals(Long.MAX_VALUE, file.coveredFrom());
+            assertEquals(Long.MIN_VALUE, file.backfilledTo());
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("junk.ts");
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> new SeriesFile(path));
+    }
+
+    private static PriceSeries series(double... pairs) {
+        PriceSeries series = new PriceSeries(pairs.length / 2);
+        for (int i = 0; i < pairs.length; i += 2) {
+            series.add((long) pairs[i], pairs[i + 1]);
+        }
+        return series;
+    }
+
+    private static void assertSeries(PriceSeries actual, double... expectedPairs) {
+        assertEquals(expectedPairs.length / 2, actual.size());
+        for (int i = 0; i < actual.size(); i++) {
+            assertEquals((long) expectedPairs[2 * i], actual.getTimestamp(i), "timestamp " + i);
+            assertEquals(expectedPairs[2 * i + 1], actual.getPrice(i), "price " + i);
+        }
+    }
+}
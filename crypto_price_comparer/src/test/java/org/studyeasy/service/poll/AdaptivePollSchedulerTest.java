@@ -0,0 +1,213 @@
+package org.studyeasy.service.poll;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.studyeasy.service.Market;
+import org.studyeasy.service.PriceComparisonService;
+import org.studyeasy.service.QuoteCurrency;
+import org.studyeasy.service.exchange.Capability;
+import org.studyeasy.service.exchange.ExchangeAdapter;
+import org.studyeasy.service.exchange.ExchangeRegistry;
+import org.studyeasy.service.exchange.HttpFetcher;
+import org.studyeasy.service.exchange.RateLimit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives plan() tick by tick on a simulated clock and runs the planned polls inline
+// against a fake exchange, so intervals and request counts are deterministic
+class AdaptivePollSchedulerTest {
+    private static final long START = 1_700_000_000_000L;
+    private static final long TICK_MS = 250;
+    private static final long MIN_INTERVAL_MS = 1000;
+    private static final long MAX_INTERVAL_MS = 60_000;
+
+    // Refills two requests a second; half of that is the scheduler's budget
+    private final FakeExchange exchange = new FakeExchange("Fake", new RateLimit(10, 2), false);
+    private final FakeExchange batchExchange = new FakeExchange("Batch", new RateLimit(10, 2), true);
+    private PriceComparisonService service;
+    private AdaptivePollScheduler scheduler;
+    private long now = START;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeRegistry registry = new ExchangeRegistry(List.of(exchange, batchExchange));
+        // The simulated clock runs far ahead of the real token buckets
+        registry.setRateLimitingEnabled(false);
+        service = new PriceComparisonService(4, 1000, 1000, 1000, 100, registry);
+        service.setHttpTransport(new HttpFetcher() {
+            @Override
+            public <T> T get(String url, ResponseParser<T> parser) throws IOException {
+                throw new IOException("offline");
+            }
+        });
+        scheduler = new AdaptivePollScheduler(service, MIN_INTERVAL_MS, MAX_INTERVAL_MS,
+                AdaptivePollScheduler.DEFAULT_BUDGET_SHARE, () -> now);
+        service.addQuoteListener(scheduler);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        scheduler.close();
+        service.close();
+    }
+
+    @Test
+    void moreWatchersMeanShorterIntervals() {
+        scheduler.watch("BTC");
+        scheduler.watch("BTC");
+        scheduler.watch("BTC");
+        scheduler.watch("ETH");
+        run(1000);
+
+        // Three watchers: priority 1 + 2 * 0.5
+        assertEquals(MAX_INTERVAL_MS / 2, scheduler.getIntervalMs("Fake", "BTC"));
+        assertEquals(MAX_INTERVAL_MS, scheduler.getIntervalMs("Fake", "ETH"));
+        assertEquals(-1, scheduler.getIntervalMs("Fake", "SOL"));
+    }
+
+    @Test
+    void symbolsNearAnAlertArePolledSooner() {
+        exchange.prices.put("BTC", 100.0);
+        exchange.prices.put("ETH", 100.0);
+        service.getAlertEngine().priceAbove("BTC", 100.5, (alert, venue, value, at) -> { });
+        service.getAlertEngine().priceAbove("ETH", 200, (alert, venue, value, at) -> { });
+        // The first poll brings in the prices the alert distance is measured from
+        run(1000);
+
+        long near = scheduler.getIntervalMs("Fake", "BTC");
+        long far = scheduler.getIntervalMs("Fake", "ETH");
+        // 50 bps from the alert roughly doubles the priority; 10,000 bps barely moves it
+        assertTrue(near < MAX_INTERVAL_MS * 0.51, "near alert: " + near);
+        assertTrue(far > MAX_INTERVAL_MS * 0.99, "far alert: " + far);
+
+        // Moving closer tightens the interval further
+        exchange.prices.put("BTC", 100.45);
+        scheduler.onQuote("Fake", "BTC", 100.45, now);
+        run(TICK_MS);
+        assertTrue(scheduler.getIntervalMs("Fake", "BTC") < near / 4,
+                "closer alert: " + scheduler.getIntervalMs("Fake", "BTC"));
+    }
+
+    @Test
+    void requestsStayWithinTheBudget() {
+        // 20 symbols wanting a poll every 2 s is ten times the 1 request a second allowed
+        for (int i = 0; i < 20; i++) {
+            scheduler.watch("C" + i, 2000);
+        }
+        long durationMs = 120_000;
+        run(durationMs);
+
+        double budgetPerSecond = 2 * AdaptivePollScheduler.DEFAULT_BUDGET_SHARE;
+        double demand = 0;
+        for (int i = 0; i < 20; i++) {
+            long interval = scheduler.getIntervalMs("Fake", "C" + i);
+            assertEquals(20_000, interval, "C" + i);
+            demand += 1000.0 / interval;
+        }
+        assertTrue(demand <= budgetPerSecond + 1e-9, "planned demand " + demand);
+
+        // One symbol per request on a plain exchange, spaced at least a second apart
+        long allowed = (long) (budgetPerSecond * durationMs / 1000) + 1;
+        assertTrue(exchange.requests <= allowed, exchange.requests + " requests, budget " + allowed);
+        assertTrue(exchange.requests >= allowed * 0.9, "budget left unused: " + exchange.requests);
+        for (int i = 0; i < 20; i++) {
+            int polls = exchange.polls.getOrDefault("C" + i, 0);
+            assertTrue(polls >= 5 && polls <= 7, "C" + i + " polled " + polls + " times");
+        }
+    }
+
+    @Test
+    void batchExchangeFetchesDueSymbolsTogether() {
+        for (int i = 0; i < 20; i++) {
+            scheduler.watch("C" + i, 2000);
+        }
+        long durationMs = 60_000;
+        run(durationMs);
+
+        // Batching keeps the full 2 s interval: one request covers every symbol
+        for (int i = 0; i < 20; i++) {
+            assertEquals(2000, scheduler.getIntervalMs("Batch", "C" + i), "C" + i);
+        }
+        assertTrue(batchExchange.requests <= durationMs / 2000 + 1, batchExchange.requests + " batch requests");
+        assertTrue(batchExchange.polls.get("C0") >= durationMs / 2000 - 1);
+    }
+
+    @Test
+    void closedSchedulerPlansNothing() {
+        scheduler.watch("BTC");
+        scheduler.close();
+        assertTrue(scheduler.plan(now).isEmpty());
+    }
+
+    // Advances the clock one scheduler tick at a time, running every planned poll
+    private void run(long durationMs) {
+        long end = now + durationMs;
+        for (; now < end; now += TICK_MS) {
+            for (Runnable poll : scheduler.plan(now)) {
+                poll.run();
+            }
+        }
+    }
+
+    private static final class FakeExchange implements ExchangeAdapter {
+        private final String name;
+        private final RateLimit rateLimit;
+        private final boolean batch;
+        final Map<String, Double> prices = new HashMap<>();
+        final Map<String, Integer> polls = new HashMap<>();
+        int requests;
+
+        FakeExchange(String name, RateLimit rateLimit, boolean batch) {
+            this.name = name;
+            this.rateLimit = rateLimit;
+            this.batch = batch;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Set<Capability> getCapabilities() {
+            return batch ? EnumSet.of(Capability.QUOTE, Capability.BATCH_QUOTE) : EnumSet.of(Capability.QUOTE);
+        }
+
+        @Override
+        public String toExchangeSymbol(String symbol, QuoteCurrency quote) {
+            return symbol + quote.name();
+        }
+
+        @Override
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        @Override
+        public double fetchQuote(Market market, HttpFetcher http) {
+            throw new UnsupportedOperationException("polls go through fetchQuotes");
+        }
+
+        @Override
+        public Map<String, Double> fetchQuotes(Collection<Market> markets, HttpFetcher http) {
+            requests++;
+            Map<String, Double> quotes = new HashMap<>();
+            for (Market market : new ArrayList<>(markets)) {
+                polls.merge(market.getSymbol(), 1, Integer::sum);
+                quotes.put(market.getSymbol(), prices.getOrDefault(market.getSymbol(), 100.0));
+            }
+            return quotes;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.studyeasy.service.replay;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.studyeasy.service.QuoteCurrency;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayLogTest {
+    private static final int QUOTES = 20_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsResponsesAndQuotes() throws IOException {
+        Path file = write();
+        List<String> records = read(file);
+        assertEquals(QUOTES + 1, records.size());
+        assertEquals("response 1000 https://api.example/ticker {\"price\":\"1.5\"}", records.get(0));
+        assertEquals("quote 1001 Kraken BTC EUR 100.0", records.get(1));
+        assertEquals(expectedQuote(QUOTES - 1), records.get(QUOTES));
+    }
+
+    @Test
+    void truncatedLogEndsAtTheLastCompleteRecord() throws IOException {
+        Path file = write();
+        byte[] full = Files.readAllBytes(file);
+        List<String> complete = read(file);
+
+        // Cut inside the gzip trailer, inside deflate blocks and before the log header is complete
+        for (int length : new int[]{full.length - 1, full.length - 9, full.length / 2, full.length / 7, 40, 12}) {
+            Path truncated = dir.resolve("truncated-" + length + ".log.gz");
+            Files.write(truncated, Arrays.copyOf(full, length));
+            List<String> records = read(truncated);
+            assertEquals(complete.subList(0, records.size()), records, "cut at " + length);
+            if (length >= full.length / 2) {
+                assertTrue(records.size() > QUOTES / 4, "cut at " + length + " kept " + records.size());
+            }
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotReplayLogs() throws IOException {
+        Path plain = dir.resolve("plain.txt");
+        Files.write(plain, "not gzip".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, () -> read(plain));
+
+        Path other = dir.resolve("other.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(other))) {
+            out.write("a gzip file, but not a replay log".getBytes(StandardCharsets.US_ASCII));
+        }
+        assertThrows(IOException.class, () -> read(other));
+    }
+
+    private Path write() throws IOException {
+        Path file = dir.resolve("session.log.gz");
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(file)) {
+            writer.writeResponse(1000, "https://api.example/ticker",
+                    "{\"price\":\"1.5\"}".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < QUOTES; i++) {
+                writer.writeQuote(1001 + i, i % 2 == 0 ? "Kraken" : "Binance", "BTC",
+                        i % 2 == 0 ? QuoteCurrency.EUR : QuoteCurrency.USDT, 100 + i);
+            }
+            assertEquals(QUOTES + 1, writer.getRecordCount());
+        }
+        return file;
+    }
+
+    private static String expectedQuote(int i) {
+        return "quote " + (1001 + i) + " " + (i % 2 == 0 ? "Kraken" : "Binance") + " BTC "
+                + (i % 2 == 0 ? "EUR" : "USDT") + " " + (100.0 + i);
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        List<String> records = new ArrayList<>();
+        ReplayLog.read(file, new ReplayLog.Handler() {
+            @Override
+            public void onResponse(long timestampMs, String url, byte[] body) {
+                records.add("response " + timestampMs + " " + url + " " + new String(body, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onQuote(long timestampMs, String exchange, String symbol, QuoteCurrency currency, double price) {
+                records.add("quote " + timestampMs + " " + exchange + " " + symbol + " " + currency.name() + " " + price);
+            }
+        });
+        return records;
+    }
+}
@@ -0,0 +1,107 @@
+package org.studyeasy.service.spread;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndexedHeapTest {
+    @Test
+    void emptyHeapHasNoTop() {
+        IndexedHeap heap = new IndexedHeap(4, false);
+        assertEquals(-1, heap.top());
+        heap.set(2, 5);
+        heap.remove(2);
+        assertEquals(-1, heap.top());
+        assertEquals(0, heap.size());
+        // Removing a slot that is not in the heap, or beyond its capacity, is a no-op
+        heap.remove(1);
+        heap.remove(100);
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    void keyChangesMoveSlotsBothWays() {
+        IndexedHeap heap = new IndexedHeap(4, false);
+        heap.set(0, 10);
+        heap.set(1, 20);
+        heap.set(2, 30);
+        assertEquals(0, heap.top());
+
+        heap.set(2, 5);
+        assertEquals(2, heap.top());
+        assertEquals(5, heap.topKey());
+
+        heap.set(2, 40);
+        assertEquals(0, heap.top());
+        heap.set(0, 25);
+        assertEquals(1, heap.top());
+        assertEquals(3, heap.size());
+    }
+
+    @Test
+    void growsForSlotsPastItsCapacity() {
+        IndexedHeap heap = new IndexedHeap(2, true);
+        heap.set(0, 1);
+        heap.set(9, 3);
+        heap.set(5, 2);
+        assertEquals(3, heap.size());
+        assertEquals(9, heap.top());
+        heap.remove(9);
+        assertEquals(5, heap.top());
+    }
+
+    @Test
+    void randomSetsAndRemovesMatchABruteForceScan() {
+        for (boolean max : new boolean[]{false, true}) {
+            Random random = new Random(max ? 7 : 11);
+            IndexedHeap heap = new IndexedHeap(4, max);
+            Map<Integer, Double> keys = new HashMap<>();
+            for (int op = 0; op < 20_000; op++) {
+                int slot = random.nextInt(40);
+                if (random.nextInt(3) == 0) {
+                    heap.remove(slot);
+                    keys.remove(slot);
+                } else {
+                    // Few distinct keys, so ties are exercised too
+                    double key = random.nextInt(50);
+                    heap.set(slot, key);
+                    keys.put(slot, key);
+                }
+                assertTopMatches(heap, keys, max);
+            }
+            drainInOrder(heap, keys, max);
+        }
+    }
+
+    private static void assertTopMatches(IndexedHeap heap, Map<Integer, Double> keys, boolean max) {
+        assertEquals(keys.size(), heap.size());
+        if (keys.isEmpty()) {
+            assertEquals(-1, heap.top());
+            return;
+        }
+        double expected = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (double key : keys.values()) {
+            expected = max ? Math.max(expected, key) : Math.min(expected, key);
+        }
+        assertEquals(expected, heap.topKey());
+        assertEquals(expected, keys.get(heap.top()), "top slot's key");
+    }
+
+    // Removing the top until empty must visit every slot in key order
+    private static void drainInOrder(IndexedHeap heap, Map<Integer, Double> keys, boolean max) {
+        double previous = max ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        while (heap.size() > 0) {
+            int top = heap.top();
+            double key = heap.topKey();
+            assertEquals(keys.remove(top), key);
+            assertEquals(true, max ? key <= previous : key >= previous, "out of order");
+            previous = key;
+            heap.remove(top);
+        }
+        assertEquals(0, keys.size());
+    }
+}
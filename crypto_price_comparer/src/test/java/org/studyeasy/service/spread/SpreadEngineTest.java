@@ -0,0 +1,117 @@
+package org.studyeasy.service.spread;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpreadEngineTest {
+    private final SpreadEngine engine = new SpreadEngine();
+    private final List<String> events = new ArrayList<>();
+
+    private SpreadEngine.Subscription subscribe(String symbol, double minSpreadBps, long maxQuoteAgeMs) {
+        return engine.subscribe(symbol, minSpreadBps, maxQuoteAgeMs, new SpreadListener() {
+            @Override
+            public void onSpreadOpened(Spread spread) {
+                events.add("open " + spread.getSymbol() + " " + spread.getBestExchange() + "/" + spread.getWorstExchange());
+            }
+
+            @Override
+            public void onSpreadClosed(Spread spread) {
+                events.add("close " + spread.getSymbol());
+            }
+        });
+    }
+
+    @Test
+    void tracksBestWorstAndOldestAcrossUpdates() {
+        assertNull(engine.getSpread("BTC"));
+        engine.onQuote("Binance", "btc", 100, 1000);
+        assertTrue(Double.isNaN(engine.getSpreadBps("BTC")));
+
+        engine.onQuote("Kraken", "BTC", 101, 1100);
+        engine.onQuote("Coinbase", "BTC", 99, 1200);
+        Spread spread = engine.getSpread("BTC");
+        assertEquals("Coinbase", spread.getBestExchange());
+        assertEquals("Kraken", spread.getWorstExchange());
+        assertEquals(3, spread.getQuoteCount());
+        assertEquals(1000, spread.getOldestQuoteTimestamp());
+        assertEquals(2, spread.getSpread(), 1e-9);
+
+        // Binance moves to the top and refreshes, so Kraken is now the oldest
+        engine.onQuote("Binance", "BTC", 103, 1300);
+        spread = engine.getSpread("BTC");
+        assertEquals("Binance", spread.getWorstExchange());
+        assertEquals(1100, spread.getOldestQuoteTimestamp());
+        assertEquals(4 / 99.0 * 10_000, engine.getSpreadBps("BTC"), 1e-9);
+
+        engine.removeQuote("Binance", "BTC", 1400);
+        assertEquals("Kraken", engine.getSpread("BTC").getWorstExchange());
+        assertEquals(2, engine.getSpread("BTC").getQuoteCount());
+    }
+
+    @Test
+    void reportsOnlyCrossings() {
+        subscribe("BTC", 50, 10_000);
+        engine.onQuote("Binance", "BTC", 100, 1000);
+        engine.onQuote("Kraken", "BTC", 100.2, 1000);
+        assertEquals(List.of(), events);
+
+        engine.onQuote("Kraken", "BTC", 101, 1100);
+        engine.onQuote("Kraken", "BTC", 102, 1200);
+        assertEquals(List.of("open BTC Binance/Kraken"), events);
+
+        engine.onQuote("Kraken", "BTC", 100.1, 1300);
+        engine.onQuote("Kraken", "BTC", 100.2, 1400);
+        assertEquals(List.of("open BTC Binance/Kraken", "close BTC"), events);
+    }
+
+    @Test
+    void staleQuotesAndDroppedVenuesClose() {
+        SpreadEngine.Subscription subscription = subscribe("BTC", 50, 1000);
+        engine.onQuote("Binance", "BTC", 100, 1000);
+        engine.onQuote("Kraken", "BTC", 102, 1500);
+        assertTrue(subscription.isOpen("BTC"));
+
+        // Binance's quote is now 1.5 s old
+        engine.onQuote("Kraken", "BTC", 102.5, 2500);
+        assertFalse(subscription.isOpen("BTC"));
+
+        engine.onQuote("Binance", "BTC", 100, 2600);
+        assertTrue(subscription.isOpen("BTC"));
+        engine.removeQuote("Kraken", "BTC", 2700);
+        assertFalse(subscription.isOpen("BTC"));
+        assertEquals(List.of("open BTC Binance/Kraken", "close BTC", "open BTC Binance/Kraken", "close BTC"), events);
+    }
+
+    @Test
+    void wildcardAndCancelledSubscriptions() {
+        SpreadEngine.Subscription all = subscribe(null, 50, 10_000);
+        engine.onQuote("Binance", "ETH", 10, 1000);
+        engine.onQuote("Kraken", "ETH", 11, 1000);
+        engine.onQuote("Binance", "SOL", 1, 1000);
+        engine.onQuote("Kraken", "SOL", 2, 1000);
+        assertEquals(List.of("open ETH Binance/Kraken", "open SOL Binance/Kraken"), events);
+        assertTrue(all.isOpen("ETH"));
+
+        all.cancel();
+        engine.onQuote("Kraken", "ETH", 10, 1100);
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void listenerFailuresDoNotStopOtherSubscribers() {
+        engine.subscribe("BTC", 50, 10_000, spread -> {
+            throw new IllegalStateException("boom");
+        });
+        subscribe("BTC", 50, 10_000);
+        engine.onQuote("Binance", "BTC", 100, 1000);
+        engine.onQuote("Kraken", "BTC", 110, 1000);
+        assertEquals(List.of("open BTC Binance/Kraken"), events);
+    }
+}